@@ -1,14 +1,17 @@
 package com.admin;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 
 /**
  * Vaadin App Shell 配置
+ * 启用服务端推送，后台线程通过 UI.access 更新界面后立即推送到浏览器
  *
  * @author Admin
  * @date 2024-01-01
  */
+@Push
 @Theme("admin-theme")
 public class AppShell implements AppShellConfigurator {
     // 语言初始化在 MainLayout 中完成
@@ -2,7 +2,6 @@ package com.admin.aspect;
 
 import com.admin.annotation.LogOperation;
 import com.admin.entity.OperationLog;
-import com.admin.entity.User;
 import com.admin.service.OperationLogService;
 import com.admin.util.JsonUtil;
 import com.admin.util.SecurityUtil;
@@ -76,15 +75,8 @@ public class OperationLogAspect {
             if (authentication != null && authentication.isAuthenticated() && !"anonymousUser".equals(authentication.getPrincipal())) {
                 String username = authentication.getName();
                 operationLog.setUsername(username);
-                // 尝试获取用户ID（如果 SecurityUtil 有相关方法）
-                try {
-                    User currentUser = SecurityUtil.getCurrentUser();
-                    if (currentUser != null) {
-                        operationLog.setUserId(currentUser.getId());
-                    }
-                } catch (Exception e) {
-                    // 忽略异常
-                }
+                // 用户ID从登录主体读取，不查询数据库
+                operationLog.setUserId(SecurityUtil.getCurrentUserId());
             }
 
             // 记录请求参数
@@ -127,11 +119,11 @@ public class OperationLogAspect {
             operationLog.setErrorMsg(e.getMessage());
             throw e;
         } finally {
-            // 记录操作日志
+            // 记录操作日志（异步批量写入，不占用调用线程）
             try {
                 operationLog.setCreatedAt(LocalDateTime.now());
                 operationLog.setUpdatedAt(LocalDateTime.now());
-                operationLogService.saveLog(operationLog);
+                operationLogService.submitLog(operationLog);
             } catch (Exception e) {
                 log.error("保存操作日志失败", e);
             }
@@ -1,8 +1,12 @@
 package com.admin.aspect;
 
 import com.admin.annotation.RequiresPermission;
+import com.admin.dto.AdminPrincipal;
 import com.admin.exception.BusinessException;
 import com.admin.exception.ErrorCode;
+import com.admin.util.AuthorityIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
@@ -10,17 +14,17 @@ import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.util.Collection;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 权限检查切面
+ * 注解在首次调用时编译为检查计划并按方法缓存；AdminPrincipal 的权限本身就是位图，直接按位检查，
+ * 其他类型的主体按 Authentication 转换为位图并缓存
  *
  * @author Admin
  * @date 2024-01-01
@@ -30,22 +34,28 @@ import java.util.stream.Collectors;
 @Component
 public class PermissionAspect {
 
+    /**
+     * 方法 -> 检查计划
+     */
+    private final Map<Method, PermissionCheckPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Authentication -> 权限位图（弱引用键，按对象身份比较，会话结束后自动回收）
+     */
+    private final Cache<Authentication, long[]> authorityBits = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(10000)
+            .build();
+
     @Pointcut("@annotation(com.admin.annotation.RequiresPermission)")
     public void permissionPointcut() {
     }
 
     @Before("permissionPointcut()")
     public void checkPermission(JoinPoint point) {
-        MethodSignature signature = (MethodSignature) point.getSignature();
-        Method method = signature.getMethod();
-        RequiresPermission requiresPermission = method.getAnnotation(RequiresPermission.class);
-
-        if (requiresPermission == null) {
-            // 检查类级别的注解
-            requiresPermission = method.getDeclaringClass().getAnnotation(RequiresPermission.class);
-        }
-
-        if (requiresPermission == null) {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        PermissionCheckPlan plan = plans.computeIfAbsent(method, PermissionAspect::compilePlan);
+        if (plan.isEmpty()) {
             return;
         }
 
@@ -55,57 +65,20 @@ public class PermissionAspect {
             throw new BusinessException(ErrorCode.UNAUTHORIZED, "未登录或登录已过期");
         }
 
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        Set<String> authoritySet = authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toSet());
-
-        // 检查权限
-        String[] permissions = requiresPermission.value();
-        String[] roles = requiresPermission.roles();
-        boolean requireAll = requiresPermission.requireAll();
-
-        // 检查角色权限
-        if (roles.length > 0) {
-            boolean hasRole = false;
-            for (String role : roles) {
-                String roleAuthority = "ROLE_" + role;
-                if (authoritySet.contains(roleAuthority) || authoritySet.contains(role)) {
-                    hasRole = true;
-                    if (!requireAll) {
-                        break;
-                    }
-                } else if (requireAll) {
-                    throw new BusinessException(ErrorCode.FORBIDDEN, "缺少角色权限: " + role);
-                }
-            }
-            if (!hasRole && !requireAll) {
-                throw new BusinessException(ErrorCode.FORBIDDEN, "缺少必要的角色权限");
-            }
-        }
+        long[] bits = authentication.getPrincipal() instanceof AdminPrincipal principal
+                ? principal.getAuthorities().bits()
+                : authorityBits.get(authentication, auth -> AuthorityIndex.toBits(auth.getAuthorities()));
+        plan.check(bits);
+    }
 
-        // 检查功能权限
-        if (permissions.length > 0) {
-            boolean hasPermission = false;
-            for (String permission : permissions) {
-                if (authoritySet.contains(permission)) {
-                    hasPermission = true;
-                    if (!requireAll) {
-                        break;
-                    }
-                } else if (requireAll) {
-                    throw new BusinessException(ErrorCode.FORBIDDEN, "缺少权限: " + permission);
-                }
-            }
-            if (!hasPermission && !requireAll) {
-                throw new BusinessException(ErrorCode.FORBIDDEN, "缺少必要的功能权限");
-            }
+    /**
+     * 编译方法的检查计划，方法上没有注解时检查类级别的注解
+     */
+    private static PermissionCheckPlan compilePlan(Method method) {
+        RequiresPermission requiresPermission = method.getAnnotation(RequiresPermission.class);
+        if (requiresPermission == null) {
+            requiresPermission = method.getDeclaringClass().getAnnotation(RequiresPermission.class);
         }
+        return PermissionCheckPlan.compile(requiresPermission);
     }
 }
-
-
-
-
-
-
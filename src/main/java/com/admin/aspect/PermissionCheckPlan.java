@@ -0,0 +1,112 @@
+package com.admin.aspect;
+
+import com.admin.annotation.RequiresPermission;
+import com.admin.exception.BusinessException;
+import com.admin.exception.ErrorCode;
+import com.admin.util.AuthorityIndex;
+
+/**
+ * 权限检查计划
+ * 由 {@link RequiresPermission} 注解预编译而来，按方法缓存，权限和角色编码已转换为索引ID
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+final class PermissionCheckPlan {
+
+    /**
+     * 方法及其所在类都没有注解时使用的空计划
+     */
+    static final PermissionCheckPlan NONE = new PermissionCheckPlan(new String[0], new String[0], false);
+
+    private final String[] permissions;
+    private final int[] permissionIds;
+    private final String[] roles;
+    private final int[] roleAuthorityIds;
+    private final int[] roleIds;
+    private final boolean requireAll;
+
+    private PermissionCheckPlan(String[] permissions, String[] roles, boolean requireAll) {
+        this.permissions = permissions;
+        this.roles = roles;
+        this.requireAll = requireAll;
+
+        this.permissionIds = new int[permissions.length];
+        for (int i = 0; i < permissions.length; i++) {
+            permissionIds[i] = AuthorityIndex.idOf(permissions[i]);
+        }
+
+        // 角色同时匹配 ROLE_ 前缀形式和原始形式
+        this.roleAuthorityIds = new int[roles.length];
+        this.roleIds = new int[roles.length];
+        for (int i = 0; i < roles.length; i++) {
+            roleAuthorityIds[i] = AuthorityIndex.idOf("ROLE_" + roles[i]);
+            roleIds[i] = AuthorityIndex.idOf(roles[i]);
+        }
+    }
+
+    /**
+     * 编译注解为检查计划
+     *
+     * @param requiresPermission 注解，为 null 时返回空计划
+     * @return 检查计划
+     */
+    static PermissionCheckPlan compile(RequiresPermission requiresPermission) {
+        if (requiresPermission == null) {
+            return NONE;
+        }
+        return new PermissionCheckPlan(
+                requiresPermission.value().clone(),
+                requiresPermission.roles().clone(),
+                requiresPermission.requireAll()
+        );
+    }
+
+    boolean isEmpty() {
+        return this == NONE;
+    }
+
+    /**
+     * 根据权限位图执行检查，不通过时抛出异常
+     *
+     * @param authorityBits 当前用户的权限位图
+     */
+    void check(long[] authorityBits) {
+        // 检查角色权限
+        if (roles.length > 0) {
+            boolean hasRole = false;
+            for (int i = 0; i < roles.length; i++) {
+                if (AuthorityIndex.contains(authorityBits, roleAuthorityIds[i])
+                        || AuthorityIndex.contains(authorityBits, roleIds[i])) {
+                    hasRole = true;
+                    if (!requireAll) {
+                        break;
+                    }
+                } else if (requireAll) {
+                    throw new BusinessException(ErrorCode.FORBIDDEN, "缺少角色权限: " + roles[i]);
+                }
+            }
+            if (!hasRole && !requireAll) {
+                throw new BusinessException(ErrorCode.FORBIDDEN, "缺少必要的角色权限");
+            }
+        }
+
+        // 检查功能权限
+        if (permissions.length > 0) {
+            boolean hasPermission = false;
+            for (int i = 0; i < permissions.length; i++) {
+                if (AuthorityIndex.contains(authorityBits, permissionIds[i])) {
+                    hasPermission = true;
+                    if (!requireAll) {
+                        break;
+                    }
+                } else if (requireAll) {
+                    throw new BusinessException(ErrorCode.FORBIDDEN, "缺少权限: " + permissions[i]);
+                }
+            }
+            if (!hasPermission && !requireAll) {
+                throw new BusinessException(ErrorCode.FORBIDDEN, "缺少必要的功能权限");
+            }
+        }
+    }
+}
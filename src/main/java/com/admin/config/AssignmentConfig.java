@@ -0,0 +1,26 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 关联分配配置（角色权限、用户角色）
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "assignment")
+public class AssignmentConfig {
+    /**
+     * 单条 INSERT / DELETE 语句最多包含的关联数
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 单次批量分配或撤销最多处理的用户数
+     */
+    private int maxBulkUsers = 100000;
+}
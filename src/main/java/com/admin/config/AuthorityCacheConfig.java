@@ -0,0 +1,38 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 权限快照缓存配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.authority")
+public class AuthorityCacheConfig {
+    /**
+     * 本地缓存最大条目数
+     */
+    private long localMaxSize = 10000;
+
+    /**
+     * 本地缓存过期时间
+     */
+    private Duration localTtl = Duration.ofMinutes(5);
+
+    /**
+     * Redis 缓存过期时间
+     */
+    private Duration redisTtl = Duration.ofMinutes(30);
+
+    /**
+     * Redis 键前缀
+     */
+    private String keyPrefix = "admin:auth:";
+}
@@ -0,0 +1,21 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量操作配置（批量删除、批量启用/禁用）
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "batch-operation")
+public class BatchOperationConfig {
+    /**
+     * 每块的ID数，每块一条 SQL、一个独立事务
+     */
+    private int chunkSize = 1000;
+}
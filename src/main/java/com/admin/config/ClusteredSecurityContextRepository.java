@@ -0,0 +1,243 @@
+package com.admin.config;
+
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.ClusteredSession;
+import com.admin.service.ClusteredSessionService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import java.util.Objects;
+
+/**
+ * 集群安全上下文仓库
+ * 优先使用本节点 HTTP 会话中的 SecurityContext；本节点没有时（节点重启或请求被路由到其他节点），
+ * 根据集群会话 Cookie 从 Redis 恢复登录状态并写入本节点会话。使用本节点会话中的上下文前会确认 Redis 中的记录仍然存在，
+ * 在其他节点登出后本节点的会话随之失效。未启用集群会话时等同于 HttpSessionSecurityContextRepository
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+public class ClusteredSecurityContextRepository implements SecurityContextRepository, LogoutHandler {
+
+    /**
+     * HTTP 会话中保存集群会话ID的属性名
+     */
+    private static final String SESSION_ID_ATTRIBUTE = ClusteredSecurityContextRepository.class.getName() + ".SESSION_ID";
+
+    /**
+     * HTTP 会话中保存上次续期时间的属性名
+     */
+    private static final String TOUCHED_AT_ATTRIBUTE = ClusteredSecurityContextRepository.class.getName() + ".TOUCHED_AT";
+
+    private final HttpSessionSecurityContextRepository delegate = new HttpSessionSecurityContextRepository();
+    private final ClusteredSessionService clusteredSessionService;
+    private final UserDetailsService userDetailsService;
+    private final ClusteredSessionConfig config;
+
+    public ClusteredSecurityContextRepository(ClusteredSessionService clusteredSessionService,
+                                              UserDetailsService userDetailsService,
+                                              ClusteredSessionConfig config) {
+        this.clusteredSessionService = clusteredSessionService;
+        this.userDetailsService = userDetailsService;
+        this.config = config;
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        DeferredSecurityContext local = delegate.loadDeferredContext(request);
+        if (!clusteredSessionService.isEnabled()) {
+            return local;
+        }
+        return new DeferredSecurityContext() {
+            private SecurityContext context;
+            private boolean generated;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    context = local.get();
+                    generated = local.isGenerated();
+                    if (generated) {
+                        SecurityContext restored = restore(request);
+                        if (restored != null) {
+                            context = restored;
+                            generated = false;
+                        }
+                    } else if (!validate(request)) {
+                        context = SecurityContextHolder.createEmptyContext();
+                        generated = true;
+                    }
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                get();
+                return generated;
+            }
+        };
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        delegate.saveContext(context, request, response);
+        if (!clusteredSessionService.isEnabled()) {
+            return;
+        }
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AdminPrincipal principal)) {
+            return;
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute(SESSION_ID_ATTRIBUTE) != null) {
+            return;
+        }
+        String sessionId = clusteredSessionService.store(principal);
+        if (sessionId != null) {
+            session.setAttribute(SESSION_ID_ATTRIBUTE, sessionId);
+            session.setAttribute(TOUCHED_AT_ATTRIBUTE, System.currentTimeMillis());
+            writeCookies(request, response, sessionId);
+        }
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return delegate.containsContext(request)
+                || (clusteredSessionService.isEnabled() && readCookie(request, config.getCookieName()) != null);
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        if (!clusteredSessionService.isEnabled()) {
+            return;
+        }
+        String sessionId = readCookie(request, config.getCookieName());
+        if (sessionId != null) {
+            clusteredSessionService.remove(sessionId);
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(request, config.getCookieName(), "", 0).toString());
+    }
+
+    /**
+     * 从 Redis 恢复登录状态，重新加载用户以确认账号仍然可用
+     */
+    private SecurityContext restore(HttpServletRequest request) {
+        String sessionId = readCookie(request, config.getCookieName());
+        if (sessionId == null) {
+            return null;
+        }
+        ClusteredSession clustered = clusteredSessionService.load(sessionId);
+        if (clustered == null) {
+            return null;
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(clustered.getUsername());
+        } catch (UsernameNotFoundException e) {
+            clusteredSessionService.remove(sessionId);
+            return null;
+        }
+        if (!(userDetails instanceof AdminPrincipal principal) || !Objects.equals(principal.getUserId(), clustered.getUserId())) {
+            clusteredSessionService.remove(sessionId);
+            return null;
+        }
+        principal.eraseCredentials();
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+        HttpSession session = request.getSession(true);
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        session.setAttribute(SESSION_ID_ATTRIBUTE, sessionId);
+        session.setAttribute(TOUCHED_AT_ATTRIBUTE, System.currentTimeMillis());
+        clusteredSessionService.touch(sessionId);
+        clusteredSessionService.recordRestore();
+        log.info("已从集群会话恢复登录状态，用户: {}, 登录节点: {}, 当前节点: {}",
+                clustered.getUsername(), clustered.getNode(), clusteredSessionService.getNodeId());
+        return context;
+    }
+
+    /**
+     * 确认本节点会话对应的 Redis 记录仍然存在并续期；记录已被删除（在其他节点登出）时清除本节点的登录状态
+     * 续期每 1/3 个过期时间最多一次
+     *
+     * @return 本节点会话中的上下文是否仍然有效
+     */
+    private boolean validate(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null || !(session.getAttribute(SESSION_ID_ATTRIBUTE) instanceof String sessionId)) {
+            // 登录时未能写入 Redis，登录状态仅在本节点有效
+            return true;
+        }
+        if (!clusteredSessionService.exists(sessionId)) {
+            session.removeAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+            session.removeAttribute(SESSION_ID_ATTRIBUTE);
+            session.removeAttribute(TOUCHED_AT_ATTRIBUTE);
+            log.info("集群会话已失效，清除本节点登录状态，当前节点: {}", clusteredSessionService.getNodeId());
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Object touchedAt = session.getAttribute(TOUCHED_AT_ATTRIBUTE);
+        if (touchedAt instanceof Long last && now - last < config.getTtl().toMillis() / 3) {
+            return true;
+        }
+        session.setAttribute(TOUCHED_AT_ATTRIBUTE, now);
+        clusteredSessionService.touch(sessionId);
+        return true;
+    }
+
+    private void writeCookies(HttpServletRequest request, HttpServletResponse response, String sessionId) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(request, config.getCookieName(), sessionId, -1).toString());
+        response.addHeader(HttpHeaders.SET_COOKIE,
+                cookie(request, config.getAffinityCookieName(), clusteredSessionService.getNodeId(), -1).toString());
+    }
+
+    private static ResponseCookie cookie(HttpServletRequest request, String name, String value, long maxAge) {
+        String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+        return ResponseCookie.from(name, value)
+                .path(path)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private static String readCookie(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 集群会话配置
+ * 启用后登录状态保存在 Redis 中，节点重启或切换节点后无需重新登录；
+ * Vaadin UI 状态仍在节点内存中，负载均衡器应按亲和 Cookie 保持粘性
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "session.cluster")
+public class ClusteredSessionConfig {
+    /**
+     * 是否启用集群会话
+     */
+    private boolean enabled = false;
+
+    /**
+     * Redis key 前缀
+     */
+    private String keyPrefix = "admin:session:";
+
+    /**
+     * 会话过期时间（无访问），应与 server.servlet.session.timeout 一致
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * 保存集群会话ID的 Cookie 名称
+     */
+    private String cookieName = "ADMIN_SID";
+
+    /**
+     * 节点亲和 Cookie 名称，负载均衡器可据此将请求路由到持有 UI 状态的节点
+     */
+    private String affinityCookieName = "ADMIN_NODE";
+
+    /**
+     * 节点ID，为空时使用主机名
+     */
+    private String nodeId;
+
+    /**
+     * 单个会话载荷超过此字节数时记录警告
+     */
+    private int maxPayloadBytes = 2048;
+}
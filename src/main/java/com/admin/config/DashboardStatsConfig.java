@@ -0,0 +1,23 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 仪表盘统计配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "dashboard.stats")
+public class DashboardStatsConfig {
+    /**
+     * 统计结果缓存时间，过期后返回旧值并在后台重新统计
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,33 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 实体计数器配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "entity-counter")
+public class EntityCounterConfig {
+    /**
+     * 是否启用内存计数器，关闭后总数全部使用 COUNT 查询
+     */
+    private boolean enabled = true;
+
+    /**
+     * 与数据库校准的间隔，修正多实例部署或直接改库造成的偏差
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+
+    /**
+     * 按天统计操作日志时保留的天数（含今天）
+     */
+    private int retainDays = 7;
+}
@@ -0,0 +1,26 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 领域事件总线配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "event-bus")
+public class EventBusConfig {
+    /**
+     * 每个订阅者每秒最多收到的通知次数，期间的事件合并为一次通知
+     */
+    private int maxUpdatesPerSecond = 2;
+
+    /**
+     * 每个订阅者合并等待的最大事件数，超出后丢弃（订阅者只需知道有变化）
+     */
+    private int maxPendingEvents = 100;
+}
@@ -0,0 +1,82 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT 认证配置（/api/** 无状态接口）
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtConfig {
+    /**
+     * 是否启用 JWT 认证，关闭后 /api/** 接口均返回未授权
+     */
+    private boolean enabled = true;
+
+    /**
+     * 签发者
+     */
+    private String issuer = "vaadin-admin";
+
+    /**
+     * 访问令牌有效期，令牌中的权限在有效期内不会随角色变更刷新
+     */
+    private Duration accessTokenTtl = Duration.ofMinutes(30);
+
+    /**
+     * 允许的时钟偏差
+     */
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    /**
+     * 签名密钥：密钥ID -> Base64 编码的 HMAC 密钥（至少 256 位）
+     * 轮换时先加入新密钥并切换 activeKeyId，旧密钥保留到其签发的令牌全部过期后再删除
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * 当前用于签发令牌的密钥ID，为空时使用第一个密钥
+     */
+    private String activeKeyId;
+
+    /**
+     * 令牌吊销配置
+     */
+    private Revocation revocation = new Revocation();
+
+    /**
+     * 令牌吊销配置
+     */
+    @Data
+    public static class Revocation {
+        /**
+         * 吊销列表的 Redis key（有序集合，score 为令牌过期时间）
+         */
+        private String redisKey = "admin:jwt:revoked";
+
+        /**
+         * 从 Redis 刷新本地布隆过滤器的间隔
+         */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+
+        /**
+         * 布隆过滤器预期容量
+         */
+        private int expectedInsertions = 10000;
+
+        /**
+         * 布隆过滤器误判率，命中后会到 Redis 确认
+         */
+        private double falsePositiveRate = 0.01;
+    }
+}
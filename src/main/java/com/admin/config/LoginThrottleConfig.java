@@ -0,0 +1,72 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 登录限流配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.login-throttle")
+public class LoginThrottleConfig {
+    /**
+     * 是否启用登录限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 按用户名限流的令牌桶
+     */
+    private Bucket username = new Bucket(5, Duration.ofMinutes(1));
+
+    /**
+     * 按 IP 限流的令牌桶
+     */
+    private Bucket ip = new Bucket(20, Duration.ofSeconds(3));
+
+    /**
+     * 是否使用 Redis 保存令牌桶（多实例部署时共享），Redis 不可用时退回本地
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * Redis key 前缀
+     */
+    private String keyPrefix = "admin:login-throttle:";
+
+    /**
+     * 本地令牌桶数量上限，超过时淘汰最少使用的桶；闲置到回满的桶自动过期
+     */
+    private int maxLocalEntries = 10000;
+
+    /**
+     * 令牌桶参数
+     */
+    @Data
+    public static class Bucket {
+        /**
+         * 桶容量，即允许的突发尝试次数
+         */
+        private int capacity;
+
+        /**
+         * 补充一个令牌的时间
+         */
+        private Duration refillPeriod;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 操作日志异步写入配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "operation-log.writer")
+public class OperationLogWriterConfig {
+    /**
+     * 内存缓冲区容量
+     */
+    private int capacity = 10000;
+
+    /**
+     * 每批写入的最大条数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 最长刷新间隔，未攒满一批时到时间也会写入
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * BLOCK 策略下的最长等待时间，超时后丢弃
+     */
+    private Duration blockTimeout = Duration.ofMillis(500);
+
+    /**
+     * SPILL 策略下的溢出文件路径
+     */
+    private String spillPath = System.getProperty("user.home") + "/operation-log-spill.jsonl";
+
+    /**
+     * 缓冲区溢出策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 阻塞调用线程，直到缓冲区有空位或超时
+         */
+        BLOCK,
+
+        /**
+         * 丢弃最早的日志
+         */
+        DROP_OLDEST,
+
+        /**
+         * 写入磁盘文件，空闲时再回放入库
+         */
+        SPILL
+    }
+}
@@ -0,0 +1,78 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 密码哈希配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.password")
+public class PasswordHashingConfig {
+    /**
+     * 新密码使用的算法，已有哈希按其前缀识别算法，登录成功后按当前配置重新哈希
+     */
+    private Algorithm algorithm = Algorithm.BCRYPT;
+
+    /**
+     * BCrypt 强度（log2 轮数）
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * PBKDF2 迭代次数
+     */
+    private int pbkdf2Iterations = 310000;
+
+    /**
+     * Argon2 内存开销（KB）
+     */
+    private int argon2MemoryKb = 16384;
+
+    /**
+     * Argon2 迭代次数
+     */
+    private int argon2Iterations = 2;
+
+    /**
+     * 哈希计算线程数，限制同时占用的 CPU 核数
+     */
+    private int threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * 等待队列容量，队列满时直接拒绝
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * 单次哈希的最长等待时间（含排队）
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * 密码哈希算法
+     */
+    public enum Algorithm {
+        /**
+         * BCrypt
+         */
+        BCRYPT,
+
+        /**
+         * PBKDF2-HMAC-SHA256
+         */
+        PBKDF2,
+
+        /**
+         * Argon2id，需要在类路径中加入 org.bouncycastle:bcprov-jdk18on
+         */
+        ARGON2
+    }
+}
@@ -0,0 +1,33 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 列表搜索索引配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search-index")
+public class SearchIndexConfig {
+    /**
+     * 是否启用内存搜索索引，关闭后模糊查询直接使用 SQL LIKE
+     */
+    private boolean enabled = true;
+
+    /**
+     * 候选ID数量上限，超过时退回 SQL LIKE，避免生成过长的 IN 列表
+     */
+    private int maxCandidates = 1000;
+
+    /**
+     * 全量重建间隔，纳入其他实例或直接改库产生的变更；0 表示只在启动时构建
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(5);
+}
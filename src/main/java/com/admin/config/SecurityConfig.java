@@ -1,26 +1,82 @@
 package com.admin.config;
 
+import com.admin.exception.ErrorCode;
+import com.admin.filter.JwtAuthenticationFilter;
+import com.admin.filter.LoginThrottleFilter;
+import com.admin.service.ClusteredSessionService;
+import com.admin.service.JwtTokenService;
+import com.admin.service.LoginThrottleService;
+import com.admin.util.JsonUtil;
+import com.admin.util.Result;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Spring Security 配置
+ * PasswordEncoder 由 PasswordHashingService 提供，登录请求先经过 LoginThrottleFilter 限流；
+ * /api/** 使用无状态的 JWT 过滤器链，其余请求使用基于会话的表单登录（可选集群会话，登录状态保存在 Redis）
  *
  * @author Admin
  * @date 2024-01-01
  */
 @Configuration
 @EnableWebSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final LoginThrottleService loginThrottleService;
+    private final JwtTokenService jwtTokenService;
+
+    /**
+     * REST 接口过滤器链：不创建也不读取 HTTP 会话，认证信息来自请求中的 JWT
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/api/**")
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/api/auth/token").permitAll()
+                .anyRequest().authenticated()
+            )
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+            .requestCache(AbstractHttpConfigurer::disable)
+            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(exception -> exception
+                .authenticationEntryPoint((request, response, e) -> writeError(response, ErrorCode.UNAUTHORIZED))
+                .accessDeniedHandler((request, response, e) -> writeError(response, ErrorCode.FORBIDDEN))
+            );
+        return http.build();
+    }
+
+    @Bean
+    public ClusteredSecurityContextRepository clusteredSecurityContextRepository(ClusteredSessionService clusteredSessionService,
+                                                                                 UserDetailsService userDetailsService,
+                                                                                 ClusteredSessionConfig clusteredSessionConfig) {
+        return new ClusteredSecurityContextRepository(clusteredSessionService, userDetailsService, clusteredSessionConfig);
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   ClusteredSecurityContextRepository securityContextRepository) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 // 允许访问登录页面和静态资源
@@ -41,6 +97,10 @@ public class SecurityConfig {
             )
             // 禁用 CSRF（Vaadin 有自己的 CSRF 保护）
             .csrf(AbstractHttpConfigurer::disable)
+            // 安全上下文保存在 HTTP 会话中，启用集群会话时同时保存到 Redis
+            .securityContext(context -> context.securityContextRepository(securityContextRepository))
+            // 登录限流：在认证（查库、校验密码）之前拒绝超限的登录请求
+            .addFilterBefore(new LoginThrottleFilter(loginThrottleService), UsernamePasswordAuthenticationFilter.class)
             // 配置表单登录
             .formLogin(form -> form
                 .loginPage("/login")
@@ -52,14 +112,16 @@ public class SecurityConfig {
             .logout(logout -> logout
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login")
+                .addLogoutHandler(securityContextRepository)
                 .permitAll()
             );
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    private static void writeError(HttpServletResponse response, ErrorCode errorCode) throws IOException {
+        response.setStatus(errorCode.getCode());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(JsonUtil.toJson(Result.error(errorCode.getCode(), errorCode.getMessage())));
     }
 }
-
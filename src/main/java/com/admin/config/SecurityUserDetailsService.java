@@ -1,21 +1,23 @@
 package com.admin.config;
 
-import com.admin.entity.Permission;
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.AuthoritySnapshot;
 import com.admin.entity.User;
-import com.admin.mapper.UserRoleMapper;
-import com.admin.service.PermissionService;
+import com.admin.service.AuthorityCacheService;
+import com.admin.service.PasswordHashingService;
 import com.admin.service.UserService;
+import com.admin.util.AuthoritySet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 /**
  * Spring Security 用户详情服务
@@ -25,11 +27,11 @@ import java.util.List;
  */
 @Service
 @RequiredArgsConstructor
-public class SecurityUserDetailsService implements UserDetailsService {
+public class SecurityUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
-    private final PermissionService permissionService;
-    private final UserRoleMapper userRoleMapper;
+    private final AuthorityCacheService authorityCacheService;
+    private final PasswordHashingService passwordHashingService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -47,41 +49,50 @@ public class SecurityUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("用户已被禁用: " + username);
         }
 
-        // 从数据库查询用户的角色和权限
+        // 从权限快照缓存获取用户的角色和权限（未命中时查询数据库）
+        AuthoritySnapshot snapshot = authorityCacheService.getSnapshot(user.getId());
+
+        // 用户信息和权限快照保存在主体中，之后获取当前用户不再查询数据库
+        return new AdminPrincipal(user, snapshot, buildAuthorities(snapshot));
+    }
+
+    /**
+     * 根据权限快照构建授予的权限（会话登录和 JWT 认证共用）
+     *
+     * @param snapshot 权限快照
+     * @return 授予的权限（位图）
+     */
+    public static AuthoritySet buildAuthorities(AuthoritySnapshot snapshot) {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         
-        // 查询用户的角色ID列表
-        List<Long> roleIds = userRoleMapper.selectRoleIdsByUserId(user.getId());
-        
         // 为每个角色添加 ROLE_ 前缀的权限
-        for (Long roleId : roleIds) {
+        for (Long roleId : snapshot.getRoleIds()) {
             authorities.add(new SimpleGrantedAuthority("ROLE_" + roleId));
         }
         
-        // 查询用户的权限列表
-        List<Permission> permissions = permissionService.getPermissionsByUserId(user.getId());
-        
         // 为每个权限添加权限编码
-        for (Permission permission : permissions) {
-            if (permission.getCode() != null && !permission.getCode().isEmpty()) {
-                authorities.add(new SimpleGrantedAuthority(permission.getCode()));
-            }
+        for (String code : snapshot.getPermissionCodes()) {
+            authorities.add(new SimpleGrantedAuthority(code));
         }
         
         // 如果没有角色和权限，至少添加一个默认角色
         if (authorities.isEmpty()) {
             authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
         }
+        return AuthoritySet.of(authorities);
+    }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUserName())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(!user.getIsEnabled())
-                .build();
+    /**
+     * 登录成功后，若密码哈希的算法或强度与当前配置不一致，由 Spring Security 调用此方法保存新哈希
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof AdminPrincipal principal)) {
+            return user;
+        }
+        userService.updatePasswordHash(principal.getUserId(), newPassword);
+        passwordHashingService.recordRehash();
+        return principal.withPassword(newPassword);
     }
 }
 
@@ -0,0 +1,31 @@
+package com.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 会话内存诊断配置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "diagnostics.session")
+public class SessionDiagnosticsConfig {
+    /**
+     * 是否启用会话内存诊断
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个会话最多遍历的对象数，超过后停止估算（遍历期间会持有该会话的锁）
+     */
+    private int maxObjectsPerSession = 200000;
+
+    /**
+     * 报告中列出的占用最高的会话数
+     */
+    private int topSessions = 20;
+}
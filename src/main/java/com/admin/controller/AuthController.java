@@ -0,0 +1,67 @@
+package com.admin.controller;
+
+import com.admin.controller.base.BaseController;
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.JwtToken;
+import com.admin.dto.LoginDTO;
+import com.admin.exception.BusinessException;
+import com.admin.exception.ErrorCode;
+import com.admin.filter.JwtAuthenticationFilter;
+import com.admin.service.JwtTokenService;
+import com.admin.service.LoginThrottleService;
+import com.admin.util.Result;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 接口认证控制器
+ * 供 REST 客户端用用户名密码换取 JWT 访问令牌，之后以 Authorization: Bearer 头访问 /api/**
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController extends BaseController {
+
+    private final AuthenticationConfiguration authenticationConfiguration;
+    private final JwtTokenService jwtTokenService;
+    private final LoginThrottleService loginThrottleService;
+
+    /**
+     * 签发访问令牌
+     */
+    @PostMapping("/token")
+    public Result<JwtToken> token(@Valid @RequestBody LoginDTO loginDTO, HttpServletRequest request) throws Exception {
+        if (!loginThrottleService.tryAcquire(loginDTO.getUserName(), request.getRemoteAddr())) {
+            throw new BusinessException(ErrorCode.FORBIDDEN, "登录尝试过于频繁，请稍后再试");
+        }
+        Authentication authentication;
+        try {
+            authentication = authenticationConfiguration.getAuthenticationManager().authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(loginDTO.getUserName(), loginDTO.getPassword()));
+        } catch (AuthenticationException e) {
+            throw new BusinessException(ErrorCode.USERNAME_OR_PASSWORD_ERROR);
+        }
+        return success(jwtTokenService.issue((AdminPrincipal) authentication.getPrincipal()));
+    }
+
+    /**
+     * 吊销当前请求使用的访问令牌
+     */
+    @PostMapping("/revoke")
+    public Result<?> revoke(HttpServletRequest request) {
+        jwtTokenService.revoke(JwtAuthenticationFilter.resolveToken(request));
+        return success();
+    }
+}
@@ -0,0 +1,71 @@
+package com.admin.controller;
+
+import com.admin.annotation.RequiresPermission;
+import com.admin.controller.base.BaseController;
+import com.admin.dto.LoginThrottleStats;
+import com.admin.dto.OperationLogWriterStats;
+import com.admin.dto.PasswordHashingStats;
+import com.admin.dto.SessionMemoryReport;
+import com.admin.service.LoginThrottleService;
+import com.admin.service.OperationLogService;
+import com.admin.service.PasswordHashingService;
+import com.admin.service.SessionDiagnosticsService;
+import com.admin.util.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 诊断接口控制器
+ * 供监控系统定期采集会话内存占用和后台组件的运行统计，需要 SESSION_DIAGNOSTICS 权限
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController extends BaseController {
+
+    private final SessionDiagnosticsService sessionDiagnosticsService;
+    private final OperationLogService operationLogService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
+
+    /**
+     * 会话内存占用报告
+     */
+    @GetMapping("/sessions")
+    @RequiresPermission(SessionDiagnosticsService.PERMISSION)
+    public Result<SessionMemoryReport> sessions() {
+        return success(sessionDiagnosticsService.getReport());
+    }
+
+    /**
+     * 操作日志批量写入统计
+     */
+    @GetMapping("/operation-log-writer")
+    @RequiresPermission(SessionDiagnosticsService.PERMISSION)
+    public Result<OperationLogWriterStats> operationLogWriter() {
+        return success(operationLogService.getWriterStats());
+    }
+
+    /**
+     * 密码哈希线程池统计
+     */
+    @GetMapping("/password-hashing")
+    @RequiresPermission(SessionDiagnosticsService.PERMISSION)
+    public Result<PasswordHashingStats> passwordHashing() {
+        return success(passwordHashingService.getStats());
+    }
+
+    /**
+     * 登录限流统计
+     */
+    @GetMapping("/login-throttle")
+    @RequiresPermission(SessionDiagnosticsService.PERMISSION)
+    public Result<LoginThrottleStats> loginThrottle() {
+        return success(loginThrottleService.getStats());
+    }
+}
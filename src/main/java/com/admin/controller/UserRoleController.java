@@ -0,0 +1,48 @@
+package com.admin.controller;
+
+import com.admin.annotation.RequiresPermission;
+import com.admin.controller.base.BaseController;
+import com.admin.dto.BulkRoleAssignRequest;
+import com.admin.dto.BulkRoleAssignment;
+import com.admin.service.UserService;
+import com.admin.util.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 用户角色批量分配接口控制器
+ * 用于组织调整时为大量用户一次性追加或撤销角色，需要 USER_MANAGE 权限
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@RestController
+@RequestMapping("/api/users/roles")
+@RequiredArgsConstructor
+public class UserRoleController extends BaseController {
+
+    private static final String PERMISSION = "USER_MANAGE";
+
+    private final UserService userService;
+
+    /**
+     * 为多个用户追加角色
+     */
+    @PostMapping("/assign")
+    @RequiresPermission(PERMISSION)
+    public Result<BulkRoleAssignment> assign(@RequestBody BulkRoleAssignRequest request) {
+        return success(userService.bulkAssignRoles(request.getUserIds(), request.getRoleIds(), null));
+    }
+
+    /**
+     * 撤销多个用户的角色
+     */
+    @PostMapping("/revoke")
+    @RequiresPermission(PERMISSION)
+    public Result<BulkRoleAssignment> revoke(@RequestBody BulkRoleAssignRequest request) {
+        return success(userService.bulkRevokeRoles(request.getUserIds(), request.getRoleIds(), null));
+    }
+}
@@ -0,0 +1,205 @@
+package com.admin.dto;
+
+import com.admin.entity.User;
+import com.admin.util.AuthoritySet;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 登录用户主体
+ * 登录时由 SecurityUserDetailsService 创建并保存在 SecurityContext 中，
+ * 获取当前用户信息时直接读取，不再查询数据库
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Getter
+public class AdminPrincipal implements UserDetails, CredentialsContainer {
+    private static final long serialVersionUID = 1L;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 密码，认证完成后清除
+     */
+    private String password;
+
+    /**
+     * 昵称
+     */
+    private final String nickname;
+
+    /**
+     * 邮箱
+     */
+    private final String email;
+
+    /**
+     * 手机号
+     */
+    private final String phone;
+
+    /**
+     * 头像
+     */
+    private final String avatar;
+
+    /**
+     * 是否启用
+     */
+    private final boolean enabled;
+
+    /**
+     * 登录时的权限版本号
+     */
+    private final Long authorityVersion;
+
+    /**
+     * 授予的权限（位图，元素为全局共享的权限实例）
+     */
+    private final AuthoritySet authorities;
+
+    public AdminPrincipal(User user, AuthoritySnapshot authoritySnapshot, Collection<? extends GrantedAuthority> authorities) {
+        this.userId = user.getId();
+        this.username = user.getUserName();
+        this.password = user.getPassword();
+        this.nickname = user.getNickname();
+        this.email = user.getEmail();
+        this.phone = user.getPhone();
+        this.avatar = user.getAvatar();
+        this.enabled = Boolean.TRUE.equals(user.getIsEnabled());
+        this.authorityVersion = authoritySnapshot != null ? authoritySnapshot.getVersion() : null;
+        this.authorities = AuthoritySet.of(authorities);
+    }
+
+    private AdminPrincipal(AdminPrincipal source, String password) {
+        this.userId = source.userId;
+        this.username = source.username;
+        this.password = password;
+        this.nickname = source.nickname;
+        this.email = source.email;
+        this.phone = source.phone;
+        this.avatar = source.avatar;
+        this.enabled = source.enabled;
+        this.authorityVersion = source.authorityVersion;
+        this.authorities = source.authorities;
+    }
+
+    /**
+     * 复制主体并替换密码（登录时重新哈希后使用）
+     *
+     * @param password 新的密码哈希
+     * @return 新的主体
+     */
+    public AdminPrincipal withPassword(String password) {
+        return new AdminPrincipal(this, password);
+    }
+
+    /**
+     * 角色ID列表（由授予的权限中的 ROLE_{id} 还原）
+     *
+     * @return 角色ID列表
+     */
+    public List<Long> getRoleIds() {
+        List<Long> roleIds = new ArrayList<>();
+        for (GrantedAuthority authority : authorities) {
+            String value = authority.getAuthority();
+            if (value.startsWith(ROLE_PREFIX)) {
+                try {
+                    roleIds.add(Long.parseLong(value.substring(ROLE_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    // 默认角色 ROLE_USER 等不是角色ID
+                }
+            }
+        }
+        return roleIds;
+    }
+
+    /**
+     * 权限编码列表（授予的权限中除 ROLE_ 以外的部分，字符串为字典中共享的实例）
+     *
+     * @return 权限编码列表
+     */
+    public List<String> getPermissionCodes() {
+        List<String> codes = new ArrayList<>();
+        for (GrantedAuthority authority : authorities) {
+            if (!authority.getAuthority().startsWith(ROLE_PREFIX)) {
+                codes.add(authority.getAuthority());
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * 转换为用户实体（不含密码）
+     *
+     * @return 用户实体
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(userId);
+        user.setUserName(username);
+        user.setNickname(nickname);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setAvatar(avatar);
+        user.setIsEnabled(enabled);
+        user.setDeleted(0);
+        return user;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+
+    /**
+     * 按用户名判断是否同一主体，与 Spring Security 的 User 一致（会话并发控制依赖此行为）
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AdminPrincipal other && Objects.equals(username, other.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(username);
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
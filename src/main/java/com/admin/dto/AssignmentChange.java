@@ -0,0 +1,82 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 关联分配的变更摘要（如角色的权限、用户的角色）
+ * 由当前关联与目标关联比较得出，只需插入 added、删除 removed
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class AssignmentChange implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 所属对象ID（角色ID或用户ID）
+     */
+    private Long ownerId;
+
+    /**
+     * 新增的关联ID
+     */
+    private List<Long> added;
+
+    /**
+     * 移除的关联ID
+     */
+    private List<Long> removed;
+
+    /**
+     * 未变化的关联数
+     */
+    private int unchanged;
+
+    /**
+     * 比较当前关联和目标关联
+     *
+     * @param ownerId 所属对象ID
+     * @param current 当前关联ID
+     * @param target  目标关联ID（忽略 null 和重复值）
+     * @return 变更摘要
+     */
+    public static AssignmentChange diff(Long ownerId, Collection<Long> current, Collection<Long> target) {
+        Set<Long> currentSet = new LinkedHashSet<>(current);
+        Set<Long> targetSet = new LinkedHashSet<>();
+        if (target != null) {
+            target.stream().filter(Objects::nonNull).forEach(targetSet::add);
+        }
+
+        List<Long> added = new ArrayList<>();
+        for (Long id : targetSet) {
+            if (!currentSet.remove(id)) {
+                added.add(id);
+            }
+        }
+        AssignmentChange change = new AssignmentChange();
+        change.setOwnerId(ownerId);
+        change.setAdded(added);
+        // 目标中不存在的当前关联即为移除项
+        change.setRemoved(new ArrayList<>(currentSet));
+        change.setUnchanged(targetSet.size() - added.size());
+        return change;
+    }
+
+    /**
+     * 是否没有任何变化
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
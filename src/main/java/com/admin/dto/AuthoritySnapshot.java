@@ -0,0 +1,47 @@
+package com.admin.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 用户权限快照
+ * 缓存用户的角色ID和权限编码，避免每次登录都查询数据库
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+public class AuthoritySnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 生成快照时的权限版本号，版本号变化后快照失效
+     */
+    private Long version;
+
+    /**
+     * 角色ID列表
+     */
+    private List<Long> roleIds;
+
+    /**
+     * 权限编码列表
+     */
+    private List<String> permissionCodes;
+
+    public AuthoritySnapshot(Long userId, Long version, List<Long> roleIds, List<String> permissionCodes) {
+        this.userId = userId;
+        this.version = version;
+        this.roleIds = roleIds;
+        this.permissionCodes = permissionCodes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * 查询条件基类
+ * 包含 keyset（游标）分页的定位字段和搜索索引解析出的候选ID，均由服务层设置
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public abstract class BaseQueryDTO {
+    /**
+     * 游标：上一页最后一条记录的创建时间
+     */
+    private LocalDateTime cursorCreatedAt;
+
+    /**
+     * 游标：上一页最后一条记录的ID
+     */
+    private Long cursorId;
+
+    /**
+     * 游标：上一页最后一条记录的排序值（仅按 sort 排序的查询使用）
+     */
+    private Integer cursorSort;
+
+    /**
+     * 候选ID，由搜索索引解析模糊条件得到，设置后只在这些记录中查询
+     */
+    private Set<Long> candidateIds;
+
+    /**
+     * 是否为游标（keyset）查询
+     *
+     * @return 是否设置了游标
+     */
+    public boolean hasCursor() {
+        return cursorCreatedAt != null && cursorId != null;
+    }
+
+    /**
+     * 是否包含筛选条件（不含游标），无筛选条件时总数可直接取实体计数
+     *
+     * @return 是否包含筛选条件
+     */
+    public boolean hasCondition() {
+        return candidateIds != null;
+    }
+
+    /**
+     * 字符串条件是否有效，与 Mapper 中的 != null and != '' 判断一致
+     *
+     * @param value 条件值
+     * @return 是否有效
+     */
+    protected static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * 定位到游标之后
+     *
+     * @param cursor 分页游标
+     */
+    public void applyCursor(PageCursor cursor) {
+        this.cursorCreatedAt = cursor.getCreatedAt();
+        this.cursorId = cursor.getId();
+        this.cursorSort = cursor.getSort();
+    }
+}
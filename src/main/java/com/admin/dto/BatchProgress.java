@@ -0,0 +1,65 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 批量操作的进度与结果
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class BatchProgress implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * ID总数（去重后）
+     */
+    private int total;
+
+    /**
+     * 已处理的ID数
+     */
+    private int processed;
+
+    /**
+     * 实际影响的行数
+     */
+    private long affectedRows;
+
+    /**
+     * 已提交的分块数
+     */
+    private int chunks;
+
+    /**
+     * 已用时间（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 是否已全部处理
+     *
+     * @return 是否完成
+     */
+    public boolean isCompleted() {
+        return processed >= total;
+    }
+
+    /**
+     * 复制当前进度，供其他线程读取
+     *
+     * @return 进度副本
+     */
+    public BatchProgress snapshot() {
+        BatchProgress copy = new BatchProgress();
+        copy.setTotal(total);
+        copy.setProcessed(processed);
+        copy.setAffectedRows(affectedRows);
+        copy.setChunks(chunks);
+        copy.setElapsedMillis(elapsedMillis);
+        return copy;
+    }
+}
@@ -0,0 +1,25 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量分配或撤销用户角色请求
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class BulkRoleAssignRequest {
+
+    /**
+     * 用户ID列表
+     */
+    private List<Long> userIds;
+
+    /**
+     * 角色ID列表
+     */
+    private List<Long> roleIds;
+}
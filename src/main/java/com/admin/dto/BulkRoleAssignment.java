@@ -0,0 +1,78 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 批量分配或撤销用户角色的进度与结果
+ * 每处理完一块用户后通过进度回调报告，处理结束后作为结果返回
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class BulkRoleAssignment implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否为撤销操作
+     */
+    private boolean revoke;
+
+    /**
+     * 用户总数（去重后）
+     */
+    private int totalUsers;
+
+    /**
+     * 已处理的用户数
+     */
+    private int processedUsers;
+
+    /**
+     * 角色数（去重后）
+     */
+    private int roleCount;
+
+    /**
+     * 已提交的分块数，每块一个事务
+     */
+    private int chunks;
+
+    /**
+     * 实际插入或删除的关联行数
+     */
+    private long affectedRows;
+
+    /**
+     * 已用时间（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 是否已全部处理
+     *
+     * @return 是否完成
+     */
+    public boolean isCompleted() {
+        return processedUsers >= totalUsers;
+    }
+
+    /**
+     * 复制当前进度，用于进度回调
+     *
+     * @return 进度快照
+     */
+    public BulkRoleAssignment snapshot() {
+        BulkRoleAssignment copy = new BulkRoleAssignment();
+        copy.setRevoke(revoke);
+        copy.setTotalUsers(totalUsers);
+        copy.setProcessedUsers(processedUsers);
+        copy.setRoleCount(roleCount);
+        copy.setChunks(chunks);
+        copy.setAffectedRows(affectedRows);
+        copy.setElapsedMillis(elapsedMillis);
+        return copy;
+    }
+}
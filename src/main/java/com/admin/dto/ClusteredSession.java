@@ -0,0 +1,38 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 集群会话
+ * 保存在 Redis 中的轻量登录状态，只包含恢复登录所需的字段，
+ * 权限在恢复时通过权限快照缓存重新加载
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class ClusteredSession implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 登录节点
+     */
+    private String node;
+
+    /**
+     * 登录时间（毫秒）
+     */
+    private long loginAt;
+}
@@ -0,0 +1,61 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 集群会话统计（含会话载荷大小）
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class ClusteredSessionStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否启用集群会话
+     */
+    private boolean enabled;
+
+    /**
+     * 当前节点ID
+     */
+    private String nodeId;
+
+    /**
+     * 写入 Redis 的会话数
+     */
+    private long stored;
+
+    /**
+     * 从 Redis 恢复登录状态的次数（节点切换或重启）
+     */
+    private long restored;
+
+    /**
+     * 删除的会话数（退出登录）
+     */
+    private long removed;
+
+    /**
+     * Redis 访问失败次数
+     */
+    private long redisFailures;
+
+    /**
+     * 会话载荷平均字节数
+     */
+    private long averagePayloadBytes;
+
+    /**
+     * 会话载荷最大字节数
+     */
+    private long maxPayloadBytes;
+
+    /**
+     * 超过配置上限的会话载荷数
+     */
+    private long oversizedPayloads;
+}
@@ -0,0 +1,57 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 仪表盘统计指标
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class DashboardStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户总数
+     */
+    private long userTotal;
+
+    /**
+     * 启用的用户数
+     */
+    private long activeUserTotal;
+
+    /**
+     * 角色总数
+     */
+    private long roleTotal;
+
+    /**
+     * 菜单总数
+     */
+    private long menuTotal;
+
+    /**
+     * 今日登录次数
+     */
+    private long loginsToday;
+
+    /**
+     * 今日操作日志数
+     */
+    private long operationsToday;
+
+    /**
+     * 最近一小时失败的操作数
+     */
+    private long failedOperationsLastHour;
+
+    /**
+     * 统计时间
+     */
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,36 @@
+package com.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * JWT 访问令牌
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtToken implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 访问令牌
+     */
+    private String accessToken;
+
+    /**
+     * 令牌类型，固定为 Bearer
+     */
+    private String tokenType;
+
+    /**
+     * 过期时间
+     */
+    private Instant expiresAt;
+}
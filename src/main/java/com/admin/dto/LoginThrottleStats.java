@@ -0,0 +1,41 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 登录限流统计
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class LoginThrottleStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 放行的登录尝试数
+     */
+    private long allowed;
+
+    /**
+     * 因 IP 超限被拒绝的尝试数
+     */
+    private long throttledByIp;
+
+    /**
+     * 因用户名超限被拒绝的尝试数
+     */
+    private long throttledByUsername;
+
+    /**
+     * Redis 访问失败后退回本地限流的次数
+     */
+    private long redisFallbacks;
+
+    /**
+     * 本地令牌桶数量
+     */
+    private int localBuckets;
+}
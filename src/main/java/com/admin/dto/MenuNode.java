@@ -0,0 +1,98 @@
+package com.admin.dto;
+
+import com.admin.entity.Menu;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 菜单树节点（不可变）
+ * 构建后字段和子节点列表均不可修改，可在多个线程和会话之间安全共享
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Getter
+public final class MenuNode implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 菜单ID
+     */
+    private final Long id;
+
+    /**
+     * 父菜单ID
+     */
+    private final Long parentId;
+
+    /**
+     * 菜单名称
+     */
+    private final String name;
+
+    /**
+     * 菜单路径
+     */
+    private final String path;
+
+    /**
+     * 图标
+     */
+    private final String icon;
+
+    /**
+     * 排序
+     */
+    private final Integer sort;
+
+    /**
+     * 子节点（按 sort 升序）
+     */
+    private final List<MenuNode> children;
+
+    public MenuNode(Menu menu, List<MenuNode> children) {
+        this.id = menu.getId();
+        this.parentId = menu.getParentId();
+        this.name = menu.getName();
+        this.path = menu.getPath();
+        this.icon = menu.getIcon();
+        this.sort = menu.getSort();
+        this.children = children == null || children.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(children);
+    }
+
+    /**
+     * 使用新的子节点列表复制当前节点
+     *
+     * @param children 子节点
+     * @return 新节点
+     */
+    public MenuNode withChildren(List<MenuNode> children) {
+        return new MenuNode(this, children);
+    }
+
+    private MenuNode(MenuNode source, List<MenuNode> children) {
+        this.id = source.id;
+        this.parentId = source.parentId;
+        this.name = source.name;
+        this.path = source.path;
+        this.icon = source.icon;
+        this.sort = source.sort;
+        this.children = children == null || children.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(children);
+    }
+
+    /**
+     * 是否有子节点
+     *
+     * @return 是否有子节点
+     */
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+}
@@ -1,6 +1,7 @@
 package com.admin.dto;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 /**
  * 菜单查询条件DTO
@@ -9,7 +10,8 @@ import lombok.Data;
  * @date 2024-01-01
  */
 @Data
-public class MenuQueryDTO {
+@EqualsAndHashCode(callSuper = true)
+public class MenuQueryDTO extends BaseQueryDTO {
     /**
      * 菜单名称（模糊查询）
      */
@@ -29,10 +31,9 @@ public class MenuQueryDTO {
      * 是否启用
      */
     private Boolean isEnabled;
-}
-
-
-
-
-
 
+    @Override
+    public boolean hasCondition() {
+        return super.hasCondition() || hasText(name) || hasText(path) || parentId != null || isEnabled != null;
+    }
+}
@@ -0,0 +1,72 @@
+package com.admin.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志查询条件DTO
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class OperationLogQueryDTO extends BaseQueryDTO {
+    /**
+     * 用户名（前缀匹配）
+     */
+    private String username;
+
+    /**
+     * 操作类型（前缀匹配）
+     */
+    private String operation;
+
+    /**
+     * 排除的操作类型（精确匹配），用于统计时排除登录日志等
+     */
+    private String excludeOperation;
+
+    /**
+     * 状态：0-失败，1-成功
+     */
+    private Integer status;
+
+    /**
+     * 开始时间（包含）
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间（不包含）
+     */
+    private LocalDateTime endTime;
+
+    /**
+     * 复制查询条件，并定位到指定记录之后
+     *
+     * @param createdAt 上一页最后一条记录的创建时间
+     * @param id        上一页最后一条记录的ID
+     * @return 新的查询条件
+     */
+    public OperationLogQueryDTO seekAfter(LocalDateTime createdAt, Long id) {
+        OperationLogQueryDTO query = new OperationLogQueryDTO();
+        query.setUsername(username);
+        query.setOperation(operation);
+        query.setExcludeOperation(excludeOperation);
+        query.setStatus(status);
+        query.setStartTime(startTime);
+        query.setEndTime(endTime);
+        query.setCursorCreatedAt(createdAt);
+        query.setCursorId(id);
+        return query;
+    }
+
+    @Override
+    public boolean hasCondition() {
+        return super.hasCondition() || hasText(username) || hasText(operation) || hasText(excludeOperation) || status != null
+                || startTime != null || endTime != null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 操作日志异步写入统计
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class OperationLogWriterStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前缓冲区中的日志数
+     */
+    private int queued;
+
+    /**
+     * 已提交的日志数
+     */
+    private long submitted;
+
+    /**
+     * 已写入数据库的日志数
+     */
+    private long written;
+
+    /**
+     * 因缓冲区满或写入失败而丢弃的日志数
+     */
+    private long dropped;
+
+    /**
+     * 溢出到磁盘的日志数
+     */
+    private long spilled;
+
+    /**
+     * 已执行的批次数
+     */
+    private long batches;
+
+    /**
+     * 最大批次大小
+     */
+    private long maxBatchSize;
+
+    /**
+     * 平均批次大小
+     */
+    private double avgBatchSize;
+
+    /**
+     * 从提交到入库的平均延迟（毫秒）
+     */
+    private double avgLatencyMillis;
+
+    /**
+     * 从提交到入库的最大延迟（毫秒）
+     */
+    private long maxLatencyMillis;
+}
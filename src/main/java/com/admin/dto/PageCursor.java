@@ -0,0 +1,109 @@
+package com.admin.dto;
+
+import com.admin.entity.BaseEntity;
+import com.admin.exception.BusinessException;
+import com.admin.exception.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * keyset 分页游标
+ * 记录上一页最后一条记录的 (createdAt, id)，按 sort 排序的查询额外记录 sort；
+ * 对外以不透明字符串传递，调用方不应解析其内容
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 记录ID
+     */
+    private Long id;
+
+    /**
+     * 排序值，可为空
+     */
+    private Integer sort;
+
+    /**
+     * 根据当前页数据生成下一页游标
+     *
+     * @param list     当前页数据
+     * @param pageSize 每页大小
+     * @return 游标字符串，当前页不满一页（没有更多数据）时返回 null
+     */
+    public static String next(List<? extends BaseEntity> list, int pageSize) {
+        return next(list, pageSize, null);
+    }
+
+    /**
+     * 根据当前页数据生成下一页游标（按 sort 排序的查询）
+     *
+     * @param list       当前页数据
+     * @param pageSize   每页大小
+     * @param sortGetter 排序值获取函数，为 null 时游标不包含排序值
+     * @return 游标字符串，当前页不满一页（没有更多数据）时返回 null
+     */
+    public static <T extends BaseEntity> String next(List<T> list, int pageSize, Function<T, Integer> sortGetter) {
+        if (list == null || list.isEmpty() || list.size() < pageSize) {
+            return null;
+        }
+        T last = list.get(list.size() - 1);
+        Integer sort = null;
+        if (sortGetter != null) {
+            sort = sortGetter.apply(last);
+            if (sort == null) {
+                sort = 0;
+            }
+        }
+        return new PageCursor(last.getCreatedAt(), last.getId(), sort).encode();
+    }
+
+    /**
+     * 编码为不透明字符串
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id + SEPARATOR + (sort != null ? sort : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标字符串
+     *
+     * @param cursor 游标字符串
+     * @return 分页游标
+     * @throws BusinessException 游标格式无效时抛出
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(raw);
+            }
+            Integer sort = parts[2].isEmpty() ? null : Integer.valueOf(parts[2]);
+            return new PageCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]), sort);
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "无效的分页游标");
+        }
+    }
+}
@@ -30,6 +30,30 @@ public class PageRequest {
      */
     private String sortOrder = "DESC";
 
+    /**
+     * 是否查询总记录数，为 false 时只查询当前页数据，返回的总数为 null
+     */
+    private boolean count = true;
+
+    /**
+     * 是否只统计总记录数，为 true 时只执行 COUNT 查询，返回的数据列表为空
+     */
+    private boolean countOnly;
+
+    /**
+     * keyset 分页游标，取自上一页结果的 nextCursor；设置后忽略 pageNum，且不查询总数
+     */
+    private String cursor;
+
+    /**
+     * 是否为游标（keyset）分页
+     *
+     * @return 是否设置了游标
+     */
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isEmpty();
+    }
+
     /**
      * 获取偏移量
      *
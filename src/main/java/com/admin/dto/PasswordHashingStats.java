@@ -0,0 +1,66 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 密码哈希统计
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class PasswordHashingStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前使用的算法
+     */
+    private String algorithm;
+
+    /**
+     * 正在计算的任务数
+     */
+    private int active;
+
+    /**
+     * 排队中的任务数
+     */
+    private int queued;
+
+    /**
+     * 队列容量
+     */
+    private int queueCapacity;
+
+    /**
+     * 已完成的任务数
+     */
+    private long completed;
+
+    /**
+     * 因队列满被拒绝的任务数
+     */
+    private long rejected;
+
+    /**
+     * 等待超时的任务数
+     */
+    private long timedOut;
+
+    /**
+     * 登录时重新哈希的密码数
+     */
+    private long rehashed;
+
+    /**
+     * 平均计算耗时（毫秒，不含排队）
+     */
+    private double avgHashMillis;
+
+    /**
+     * 最大计算耗时（毫秒，不含排队）
+     */
+    private long maxHashMillis;
+}
@@ -0,0 +1,45 @@
+package com.admin.dto;
+
+import com.admin.entity.Permission;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 权限树筛选结果
+ * 树中只显示匹配的权限及其祖先，祖先节点默认展开以便直接看到匹配项
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class PermissionTreeFilter implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 筛选关键字（匹配名称或编码）
+     */
+    private String keyword;
+
+    /**
+     * 树中显示的匹配权限数
+     */
+    private int matchCount;
+
+    /**
+     * 匹配项过多，只显示了其中一部分
+     */
+    private boolean truncated;
+
+    /**
+     * 树中可见的权限ID（匹配项及其祖先）
+     */
+    private Set<Long> visibleIds;
+
+    /**
+     * 需要展开的祖先权限；祖先过多时为空，由用户手动展开
+     */
+    private List<Permission> expandedParents;
+}
@@ -1,6 +1,7 @@
 package com.admin.dto;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 /**
  * 角色查询条件DTO
@@ -9,7 +10,8 @@ import lombok.Data;
  * @date 2024-01-01
  */
 @Data
-public class RoleQueryDTO {
+@EqualsAndHashCode(callSuper = true)
+public class RoleQueryDTO extends BaseQueryDTO {
     /**
      * 角色名称（模糊查询）
      */
@@ -20,14 +22,18 @@ public class RoleQueryDTO {
      */
     private String code;
 
+    /**
+     * 关键字（名称或编码模糊查询）
+     */
+    private String keyword;
+
     /**
      * 是否启用
      */
     private Boolean isEnabled;
-}
-
-
-
-
-
 
+    @Override
+    public boolean hasCondition() {
+        return super.hasCondition() || hasText(name) || hasText(code) || hasText(keyword) || isEnabled != null;
+    }
+}
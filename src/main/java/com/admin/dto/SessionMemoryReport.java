@@ -0,0 +1,135 @@
+package com.admin.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 会话内存占用报告
+ * 大小为对象图估算值，用于估计每个在线管理员占用的堆内存
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Data
+public class SessionMemoryReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 生成时间
+     */
+    private LocalDateTime generatedAt;
+
+    /**
+     * 生成耗时（毫秒）
+     */
+    private long durationMs;
+
+    /**
+     * 会话数
+     */
+    private int sessionCount;
+
+    /**
+     * UI 数（浏览器标签页）
+     */
+    private int uiCount;
+
+    /**
+     * 全部会话的估算字节数
+     */
+    private long totalBytes;
+
+    /**
+     * 每个会话的平均字节数
+     */
+    private long averageBytes;
+
+    /**
+     * 单个会话的最大字节数
+     */
+    private long maxBytes;
+
+    /**
+     * 占用最高的会话
+     */
+    private List<SessionFootprint> topSessions;
+
+    /**
+     * 按视图类汇总的占用，按总字节数降序
+     */
+    private List<ViewFootprint> views;
+
+    /**
+     * 集群会话统计（Redis 中的会话载荷）
+     */
+    private ClusteredSessionStats clusteredSessions;
+
+    /**
+     * 单个会话的占用
+     */
+    @Data
+    public static class SessionFootprint implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 登录用户名
+         */
+        private String username;
+
+        /**
+         * UI 数
+         */
+        private int uiCount;
+
+        /**
+         * 估算字节数
+         */
+        private long bytes;
+
+        /**
+         * 遍历的对象数
+         */
+        private int objects;
+
+        /**
+         * 是否因对象过多而截断（实际占用大于估算值）
+         */
+        private boolean truncated;
+    }
+
+    /**
+     * 单个视图类的占用
+     */
+    @Data
+    public static class ViewFootprint implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 视图类名
+         */
+        private String viewClass;
+
+        /**
+         * 实例数
+         */
+        private int instances;
+
+        /**
+         * 估算总字节数
+         */
+        private long totalBytes;
+
+        /**
+         * 平均字节数
+         */
+        private long averageBytes;
+
+        /**
+         * 最大字节数
+         */
+        private long maxBytes;
+    }
+}
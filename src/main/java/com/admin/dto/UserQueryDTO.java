@@ -1,6 +1,7 @@
 package com.admin.dto;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 /**
  * 用户查询条件DTO
@@ -9,7 +10,8 @@ import lombok.Data;
  * @date 2024-01-01
  */
 @Data
-public class UserQueryDTO {
+@EqualsAndHashCode(callSuper = true)
+public class UserQueryDTO extends BaseQueryDTO {
     /**
      * 用户名（模糊查询）
      */
@@ -34,10 +36,10 @@ public class UserQueryDTO {
      * 是否启用
      */
     private Boolean isEnabled;
-}
-
-
-
-
-
 
+    @Override
+    public boolean hasCondition() {
+        return super.hasCondition() || hasText(userName) || hasText(nickname) || hasText(email)
+                || hasText(phone) || isEnabled != null;
+    }
+}
@@ -12,6 +12,20 @@ import lombok.EqualsAndHashCode;
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class OperationLog extends BaseEntity {
+    /**
+     * 字段长度上限，与 sys_operation_log 的列宽一致
+     */
+    public static final int USERNAME_LENGTH = 50;
+    public static final int OPERATION_LENGTH = 50;
+    public static final int METHOD_LENGTH = 10;
+    public static final int IP_LENGTH = 50;
+    public static final int LOCATION_LENGTH = 255;
+
+    /**
+     * TEXT 列最多 65535 字节，按 utf8mb4 每字符 4 字节计算
+     */
+    public static final int TEXT_LENGTH = 16000;
+
     /**
      * 用户ID
      */
@@ -56,10 +70,21 @@ public class OperationLog extends BaseEntity {
      * 错误信息
      */
     private String errorMsg;
-}
-
-
-
-
-
 
+    /**
+     * 将各字段截断到列宽，避免超长字段导致整批插入失败
+     */
+    public void truncateToColumns() {
+        username = truncate(username, USERNAME_LENGTH);
+        operation = truncate(operation, OPERATION_LENGTH);
+        method = truncate(method, METHOD_LENGTH);
+        params = truncate(params, TEXT_LENGTH);
+        ip = truncate(ip, IP_LENGTH);
+        location = truncate(location, LOCATION_LENGTH);
+        errorMsg = truncate(errorMsg, TEXT_LENGTH);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
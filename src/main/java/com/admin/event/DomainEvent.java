@@ -0,0 +1,75 @@
+package com.admin.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 领域事件
+ * 服务层在数据变更提交后发布，界面订阅后刷新统计和列表
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class DomainEvent {
+
+    /**
+     * 事件类型
+     */
+    private final Type type;
+
+    /**
+     * 实体ID，批量操作时为 null
+     */
+    private final Long entityId;
+
+    /**
+     * 发生时间
+     */
+    private final LocalDateTime occurredAt;
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /**
+         * 用户创建
+         */
+        USER_CREATED,
+
+        /**
+         * 用户修改（含状态变更）
+         */
+        USER_UPDATED,
+
+        /**
+         * 用户删除
+         */
+        USER_DELETED,
+
+        /**
+         * 用户角色分配
+         */
+        ROLE_ASSIGNED,
+
+        /**
+         * 角色增删改（含权限分配）
+         */
+        ROLE_CHANGED,
+
+        /**
+         * 菜单增删改
+         */
+        MENU_CHANGED,
+
+        /**
+         * 操作日志写入
+         */
+        OPERATION_LOGGED
+    }
+}
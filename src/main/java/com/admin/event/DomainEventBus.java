@@ -0,0 +1,176 @@
+package com.admin.event;
+
+import com.admin.config.EventBusConfig;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 进程内领域事件总线
+ * 事件在事务提交后分发；每个订阅者的通知按 maxUpdatesPerSecond 限流，期间的事件合并为一批。
+ * 分发线程只负责计时，监听器在虚拟线程中调用，某个订阅者的刷新（如 Grid 查询）不会阻塞其他订阅者
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Component
+public class DomainEventBus {
+
+    private final EventBusConfig config;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DomainEventBus(EventBusConfig config) {
+        this.config = config;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "domain-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * 发布事件，在事务中调用时提交后才分发，回滚则丢弃
+     *
+     * @param type     事件类型
+     * @param entityId 实体ID，批量操作时为 null
+     */
+    public void publish(DomainEvent.Type type, Long entityId) {
+        DomainEvent event = new DomainEvent(type, entityId, LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    /**
+     * 订阅事件
+     * 监听器在虚拟线程中调用（同一订阅者的通知不会并发），更新界面时需通过 UI.access
+     *
+     * @param types    关注的事件类型
+     * @param listener 监听器，参数为合并后的一批事件
+     * @return 注册信息，用于取消订阅
+     */
+    public Registration subscribe(Set<DomainEvent.Type> types, Consumer<List<DomainEvent>> listener) {
+        Subscription subscription = new Subscription(EnumSet.copyOf(types), listener);
+        subscriptions.add(subscription);
+        return () -> subscriptions.remove(subscription);
+    }
+
+    private void dispatch(DomainEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.types.contains(event.getType())) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    /**
+     * 单个订阅者：缓存待通知事件，距上次通知不足最小间隔时延迟到间隔结束后一起通知
+     */
+    private class Subscription {
+        private final Set<DomainEvent.Type> types;
+        private final Consumer<List<DomainEvent>> listener;
+        private final List<DomainEvent> pending = new ArrayList<>();
+        private boolean scheduled;
+        private boolean delivering;
+        // 首个事件立即通知（最小间隔不超过 1 秒）
+        private long lastDeliveredAt = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+
+        Subscription(Set<DomainEvent.Type> types, Consumer<List<DomainEvent>> listener) {
+            this.types = types;
+            this.listener = listener;
+        }
+
+        synchronized void offer(DomainEvent event) {
+            if (pending.size() < config.getMaxPendingEvents()) {
+                pending.add(event);
+            }
+            if (!scheduled) {
+                scheduled = true;
+                scheduleDelivery();
+            }
+        }
+
+        /**
+         * 在距上次通知满最小间隔时通知，调用方需持有锁
+         */
+        private void scheduleDelivery() {
+            long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(config.getMaxUpdatesPerSecond(), 1);
+            long delay = Math.max(0, lastDeliveredAt + interval - System.nanoTime());
+            dispatcher.schedule(this::deliver, delay, TimeUnit.NANOSECONDS);
+        }
+
+        void deliver() {
+            List<DomainEvent> events;
+            synchronized (this) {
+                if (delivering) {
+                    // 上一次通知尚未完成，完成后再通知
+                    return;
+                }
+                events = new ArrayList<>(pending);
+                pending.clear();
+                scheduled = false;
+                lastDeliveredAt = System.nanoTime();
+                if (!subscriptions.contains(this) || events.isEmpty()) {
+                    return;
+                }
+                delivering = true;
+            }
+            try {
+                deliveryExecutor.execute(() -> notifyListener(events));
+            } catch (RejectedExecutionException e) {
+                // 应用关闭中
+                synchronized (this) {
+                    delivering = false;
+                }
+            }
+        }
+
+        private void notifyListener(List<DomainEvent> events) {
+            try {
+                listener.accept(events);
+            } catch (Exception e) {
+                log.warn("领域事件通知失败: {}", e.getMessage());
+            } finally {
+                synchronized (this) {
+                    delivering = false;
+                    if (scheduled) {
+                        // 通知期间到达的事件按限流间隔继续通知
+                        scheduleDelivery();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.admin.filter;
+
+import com.admin.service.LoginThrottleService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 登录限流过滤器
+ * 位于 UsernamePasswordAuthenticationFilter 之前，超限的登录请求直接重定向回登录页，
+ * 不会查询数据库，也不会计算密码哈希
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher LOGIN_REQUEST = new AntPathRequestMatcher("/login", "POST");
+    private static final String USERNAME_PARAMETER = "username";
+
+    private final LoginThrottleService loginThrottleService;
+
+    public LoginThrottleFilter(LoginThrottleService loginThrottleService) {
+        this.loginThrottleService = loginThrottleService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LOGIN_REQUEST.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = request.getParameter(USERNAME_PARAMETER);
+        if (!loginThrottleService.tryAcquire(username, request.getRemoteAddr())) {
+            response.sendRedirect(request.getContextPath() + "/login?error&throttled");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
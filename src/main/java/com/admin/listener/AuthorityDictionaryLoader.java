@@ -0,0 +1,38 @@
+package com.admin.listener;
+
+import com.admin.mapper.PermissionMapper;
+import com.admin.util.AuthorityIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 权限字典加载器
+ * 启动时按 sys_permission 注册所有权限编码，使权限位图的ID连续、位图尽量短；
+ * 之后新增的权限编码在首次使用时注册
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorityDictionaryLoader {
+
+    private final PermissionMapper permissionMapper;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            List<String> codes = permissionMapper.selectAllCodes();
+            AuthorityIndex.registerAll(codes);
+            log.info("权限字典加载完成，权限编码数: {}", AuthorityIndex.size());
+        } catch (Exception e) {
+            log.warn("加载权限字典失败，权限编码将在首次使用时注册: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.admin.listener;
+
+import com.admin.entity.OperationLog;
+import com.admin.service.DashboardStatsService;
+import com.admin.service.LoginThrottleService;
+import com.admin.service.OperationLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登录日志监听器
+ * 将登录成功和失败记录为操作日志，供仪表盘统计今日登录次数；登录成功后重置该用户名的限流令牌桶
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginLogListener {
+
+    private final OperationLogService operationLogService;
+    private final LoginThrottleService loginThrottleService;
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        loginThrottleService.reset(event.getAuthentication().getName());
+        submit(event.getAuthentication(), 1, null);
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        submit(event.getAuthentication(), 0, event.getException().getMessage());
+    }
+
+    private void submit(Authentication authentication, int status, String errorMsg) {
+        try {
+            OperationLog operationLog = new OperationLog();
+            operationLog.setOperation(DashboardStatsService.LOGIN_OPERATION);
+            operationLog.setMethod("POST");
+            operationLog.setUsername(authentication.getName());
+            if (authentication.getDetails() instanceof WebAuthenticationDetails details) {
+                operationLog.setIp(details.getRemoteAddress());
+            }
+            operationLog.setStatus(status);
+            operationLog.setErrorMsg(errorMsg);
+            operationLog.setCreatedAt(LocalDateTime.now());
+            operationLog.setUpdatedAt(LocalDateTime.now());
+            // 用户名来自登录表单，可能超过列宽，入队前截断
+            operationLog.truncateToColumns();
+            operationLogService.submitLog(operationLog);
+        } catch (Exception e) {
+            log.error("保存登录日志失败", e);
+        }
+    }
+}
@@ -45,6 +45,14 @@ public interface MenuMapper {
      */
     int countChildren(@Param("parentId") Long parentId);
 
+    /**
+     * 查询给定菜单中有子菜单的菜单ID（一条分组查询）
+     *
+     * @param ids 菜单ID列表
+     * @return 有子菜单的菜单ID列表
+     */
+    List<Long> selectParentIdsHavingChildren(@Param("ids") List<Long> ids);
+
     int insert(Menu menu);
 
     int updateById(Menu menu);
@@ -1,5 +1,6 @@
 package com.admin.mapper;
 
+import com.admin.dto.OperationLogQueryDTO;
 import com.admin.entity.OperationLog;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -18,7 +19,32 @@ public interface OperationLogMapper {
 
     List<OperationLog> selectAll();
 
+    /**
+     * 根据条件查询操作日志列表，按 (createdAt, id) 倒序
+     * 设置了游标时只返回游标之后的记录（keyset 分页）
+     *
+     * @param query 查询条件
+     * @return 操作日志列表
+     */
+    List<OperationLog> selectByCondition(OperationLogQueryDTO query);
+
+    /**
+     * 根据条件统计操作日志数量（忽略游标）
+     *
+     * @param query 查询条件
+     * @return 记录数
+     */
+    Long countByCondition(OperationLogQueryDTO query);
+
     int insert(OperationLog log);
+
+    /**
+     * 批量插入操作日志（多行 INSERT）
+     *
+     * @param logs 操作日志列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("logs") List<OperationLog> logs);
 }
 
 
@@ -4,6 +4,7 @@ import com.admin.entity.Permission;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +19,13 @@ public interface PermissionMapper {
 
     List<Permission> selectAll();
 
+    /**
+     * 查询所有权限编码（按ID排序，用于构建权限字典）
+     *
+     * @return 权限编码列表
+     */
+    List<String> selectAllCodes();
+
     List<Permission> selectByRoleId(@Param("roleId") Long roleId);
 
     /**
@@ -28,6 +36,66 @@ public interface PermissionMapper {
      */
     List<Permission> selectByUserId(@Param("userId") Long userId);
 
+    /**
+     * 查询子权限（按 sort、id 升序），分页由 PageHelper 控制
+     *
+     * @param parentId 父权限ID，为 null 时查询根权限（包括父权限已删除的权限）
+     * @param within   仅返回这些ID，为 null 表示不限（筛选时为匹配项及其祖先）
+     * @return 子权限列表
+     */
+    List<Permission> selectChildren(@Param("parentId") Long parentId, @Param("within") Collection<Long> within);
+
+    /**
+     * 统计子权限数量
+     *
+     * @param parentId 父权限ID，为 null 时统计根权限（包括父权限已删除的权限）
+     * @param within   仅统计这些ID，为 null 表示不限
+     * @return 子权限数量
+     */
+    int countChildren(@Param("parentId") Long parentId, @Param("within") Collection<Long> within);
+
+    /**
+     * 查询给定权限中有子权限的权限ID
+     *
+     * @param ids    权限ID列表
+     * @param within 子权限仅在这些ID中计算，为 null 表示不限
+     * @return 有子权限的权限ID列表
+     */
+    List<Long> selectParentIdsHavingChildren(@Param("ids") Collection<Long> ids, @Param("within") Collection<Long> within);
+
+    /**
+     * 查询给定父权限的直接子权限（仅 id、parentId、isEnabled，用于遍历子树）
+     *
+     * @param parentIds 父权限ID列表
+     * @return 子权限列表
+     */
+    List<Permission> selectChildrenByParentIds(@Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * 根据ID列表查询权限
+     *
+     * @param ids 权限ID列表
+     * @return 权限列表
+     */
+    List<Permission> selectByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按名称或编码模糊查询权限ID（按 sort、id 升序）
+     *
+     * @param keyword 关键字
+     * @param limit   最多返回的数量
+     * @return 权限ID列表
+     */
+    List<Long> selectIdsByKeyword(@Param("keyword") String keyword, @Param("limit") int limit);
+
+    /**
+     * 查询给定权限的父权限ID（去重，不含 null 和已删除的父权限）
+     *
+     * @param ids 权限ID列表
+     * @return 父权限ID列表
+     */
+    List<Long> selectParentIdsByIds(@Param("ids") Collection<Long> ids);
+
     int insert(Permission permission);
 
     int updateById(Permission permission);
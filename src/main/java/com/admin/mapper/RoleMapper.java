@@ -17,6 +17,14 @@ import java.util.List;
 public interface RoleMapper {
     Role selectById(@Param("id") Long id);
 
+    /**
+     * 根据ID查询角色并加行锁，用于在事务内串行化同一角色的权限分配
+     *
+     * @param id 角色ID
+     * @return 角色信息
+     */
+    Role selectByIdForUpdate(@Param("id") Long id);
+
     Role selectByCode(@Param("code") String code);
 
     /**
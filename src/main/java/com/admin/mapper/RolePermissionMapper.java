@@ -46,6 +46,24 @@ public interface RolePermissionMapper {
      */
     int insertBatch(@Param("roleId") Long roleId, @Param("permissionIds") List<Long> permissionIds);
 
+    /**
+     * 批量插入角色权限关联，已存在的关联忽略
+     *
+     * @param roleId        角色ID
+     * @param permissionIds 权限ID列表
+     * @return 插入行数
+     */
+    int insertIgnoreBatch(@Param("roleId") Long roleId, @Param("permissionIds") List<Long> permissionIds);
+
+    /**
+     * 删除角色的指定权限关联
+     *
+     * @param roleId        角色ID
+     * @param permissionIds 权限ID列表
+     * @return 删除行数
+     */
+    int deleteByRoleIdAndPermissionIds(@Param("roleId") Long roleId, @Param("permissionIds") List<Long> permissionIds);
+
     /**
      * 删除角色的所有权限关联
      *
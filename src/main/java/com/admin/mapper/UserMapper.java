@@ -20,6 +20,11 @@ public interface UserMapper {
      */
     User selectById(@Param("id") Long id);
 
+    /**
+     * 根据ID查询用户并加行锁，用于在事务内串行化同一用户的角色分配
+     */
+    User selectByIdForUpdate(@Param("id") Long id);
+
     /**
      * 根据用户名查询用户
      */
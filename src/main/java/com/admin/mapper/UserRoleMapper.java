@@ -38,6 +38,42 @@ public interface UserRoleMapper {
      */
     int insertBatch(@Param("userId") Long userId, @Param("roleIds") List<Long> roleIds);
 
+    /**
+     * 批量插入用户角色关联，已存在的关联忽略
+     *
+     * @param userId  用户ID
+     * @param roleIds 角色ID列表
+     * @return 插入行数
+     */
+    int insertIgnoreBatch(@Param("userId") Long userId, @Param("roleIds") List<Long> roleIds);
+
+    /**
+     * 为多个用户批量插入角色关联（用户和角色的笛卡尔积），已存在的关联以及不存在或已删除的用户、角色忽略
+     *
+     * @param userIds 用户ID列表
+     * @param roleIds 角色ID列表
+     * @return 插入行数
+     */
+    int insertIgnoreForUsers(@Param("userIds") List<Long> userIds, @Param("roleIds") List<Long> roleIds);
+
+    /**
+     * 删除用户的指定角色关联
+     *
+     * @param userId  用户ID
+     * @param roleIds 角色ID列表
+     * @return 删除行数
+     */
+    int deleteByUserIdAndRoleIds(@Param("userId") Long userId, @Param("roleIds") List<Long> roleIds);
+
+    /**
+     * 删除多个用户的指定角色关联
+     *
+     * @param userIds 用户ID列表
+     * @param roleIds 角色ID列表
+     * @return 删除行数
+     */
+    int deleteByUserIdsAndRoleIds(@Param("userIds") List<Long> userIds, @Param("roleIds") List<Long> roleIds);
+
     /**
      * 删除用户的所有角色关联
      *
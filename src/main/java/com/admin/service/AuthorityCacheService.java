@@ -0,0 +1,33 @@
+package com.admin.service;
+
+import com.admin.dto.AuthoritySnapshot;
+
+/**
+ * 权限快照缓存服务接口
+ * 本地缓存 + Redis 两级缓存，通过版本号保证角色/权限变更后不返回过期数据
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface AuthorityCacheService {
+    /**
+     * 获取用户权限快照（缓存未命中或版本过期时从数据库加载）
+     *
+     * @param userId 用户ID
+     * @return 权限快照
+     */
+    AuthoritySnapshot getSnapshot(Long userId);
+
+    /**
+     * 获取当前权限版本号
+     *
+     * @return 版本号
+     */
+    long currentVersion();
+
+    /**
+     * 递增权限版本号，使所有已缓存的快照失效
+     * 在事务中调用时，会在事务提交后再递增
+     */
+    void bumpVersion();
+}
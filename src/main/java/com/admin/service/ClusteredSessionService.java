@@ -0,0 +1,79 @@
+package com.admin.service;
+
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.ClusteredSession;
+import com.admin.dto.ClusteredSessionStats;
+
+/**
+ * 集群会话服务接口
+ * 在 Redis 中保存轻量的登录状态，供其他节点恢复 Spring Security 上下文
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface ClusteredSessionService {
+    /**
+     * 是否启用集群会话
+     *
+     * @return 是否启用
+     */
+    boolean isEnabled();
+
+    /**
+     * 当前节点ID
+     *
+     * @return 节点ID
+     */
+    String getNodeId();
+
+    /**
+     * 保存登录状态
+     *
+     * @param principal 登录用户主体
+     * @return 集群会话ID；保存失败时返回 null
+     */
+    String store(AdminPrincipal principal);
+
+    /**
+     * 读取登录状态
+     *
+     * @param sessionId 集群会话ID
+     * @return 集群会话；不存在、已过期或 Redis 不可用时返回 null
+     */
+    ClusteredSession load(String sessionId);
+
+    /**
+     * 登录状态是否仍然存在
+     * 其他节点登出时只删除 Redis 中的记录，本节点据此判断会话中缓存的上下文是否仍然有效
+     *
+     * @param sessionId 集群会话ID
+     * @return 是否存在；Redis 不可用时返回 true，保持本节点的登录状态
+     */
+    boolean exists(String sessionId);
+
+    /**
+     * 续期
+     *
+     * @param sessionId 集群会话ID
+     */
+    void touch(String sessionId);
+
+    /**
+     * 删除登录状态
+     *
+     * @param sessionId 集群会话ID
+     */
+    void remove(String sessionId);
+
+    /**
+     * 记录一次从 Redis 恢复登录状态
+     */
+    void recordRestore();
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    ClusteredSessionStats getStats();
+}
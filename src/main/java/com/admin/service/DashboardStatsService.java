@@ -0,0 +1,33 @@
+package com.admin.service;
+
+import com.admin.dto.DashboardStats;
+
+/**
+ * 仪表盘统计服务
+ * 使用 COUNT 查询统计各项指标并短时缓存，仪表盘渲染不随数据量增长
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface DashboardStatsService {
+
+    /**
+     * 登录操作在操作日志中的操作类型
+     */
+    String LOGIN_OPERATION = "登录";
+
+    /**
+     * 获取统计指标
+     * 首次调用同步统计；缓存过期后返回旧值并在后台刷新。各项总数读取实体计数的当前值
+     *
+     * @return 统计指标
+     */
+    DashboardStats getStats();
+
+    /**
+     * 立即重新统计
+     *
+     * @return 最新统计指标
+     */
+    DashboardStats refresh();
+}
@@ -0,0 +1,98 @@
+package com.admin.service;
+
+import com.admin.entity.OperationLog;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * 实体计数服务
+ * 在内存中维护各实体的记录数，由服务层的增删改增量更新并定期与数据库校准，
+ * 仪表盘和无筛选条件的分页总数可直接读取，不必执行 COUNT 查询
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface EntityCounterService {
+
+    /**
+     * 计数项
+     */
+    enum Counter {
+        /**
+         * 用户总数
+         */
+        USERS,
+
+        /**
+         * 启用的用户数
+         */
+        ENABLED_USERS,
+
+        /**
+         * 角色总数
+         */
+        ROLES,
+
+        /**
+         * 菜单总数
+         */
+        MENUS,
+
+        /**
+         * 操作日志总数
+         */
+        OPERATION_LOGS
+    }
+
+    /**
+     * 获取计数
+     *
+     * @param counter 计数项
+     * @return 记录数；计数器未就绪或已失效时返回 null，调用方应退回 COUNT 查询
+     */
+    Long get(Counter counter);
+
+    /**
+     * 增减计数，在事务提交后生效
+     *
+     * @param counter 计数项
+     * @param delta   增量
+     */
+    void add(Counter counter, long delta);
+
+    /**
+     * 标记计数失效，用于无法得知增量的批量操作，提交后尽快与数据库校准
+     *
+     * @param counter 计数项
+     */
+    void invalidate(Counter counter);
+
+    /**
+     * 记录已写入数据库的操作日志
+     *
+     * @param logs 操作日志
+     */
+    void recordOperationLogs(Collection<OperationLog> logs);
+
+    /**
+     * 获取指定状态的操作日志数
+     *
+     * @param status 状态：0-失败，1-成功
+     * @return 记录数；未就绪时返回 null
+     */
+    Long getOperationLogCount(int status);
+
+    /**
+     * 获取指定日期的操作日志数
+     *
+     * @param day 日期，只保留最近 retainDays 天
+     * @return 记录数；未就绪或超出保留范围时返回 null
+     */
+    Long getOperationLogCount(LocalDate day);
+
+    /**
+     * 与数据库校准所有计数
+     */
+    void reconcile();
+}
@@ -0,0 +1,37 @@
+package com.admin.service;
+
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.JwtToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * JWT 令牌服务接口
+ * 令牌内嵌用户的角色和权限编码，认证时不查询会话和数据库
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface JwtTokenService {
+    /**
+     * 为已认证的用户签发访问令牌
+     *
+     * @param principal 登录用户主体
+     * @return 访问令牌
+     */
+    JwtToken issue(AdminPrincipal principal);
+
+    /**
+     * 校验令牌并构建认证信息
+     *
+     * @param token 访问令牌
+     * @return 认证信息；令牌无效、过期或已吊销时返回 null
+     */
+    Authentication authenticate(String token);
+
+    /**
+     * 吊销令牌，在令牌过期前所有节点都会拒绝它
+     *
+     * @param token 访问令牌
+     */
+    void revoke(String token);
+}
@@ -0,0 +1,36 @@
+package com.admin.service;
+
+import com.admin.dto.LoginThrottleStats;
+
+/**
+ * 登录限流服务
+ * 按用户名和 IP 分别维护令牌桶，每次登录尝试消耗一个令牌，令牌耗尽时在查询数据库和计算密码哈希之前拒绝
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface LoginThrottleService {
+
+    /**
+     * 尝试获取登录许可
+     *
+     * @param username 用户名，可为空
+     * @param ip       客户端 IP
+     * @return 是否放行
+     */
+    boolean tryAcquire(String username, String ip);
+
+    /**
+     * 登录成功后重置该用户名的令牌桶
+     *
+     * @param username 用户名
+     */
+    void reset(String username);
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    LoginThrottleStats getStats();
+}
@@ -1,11 +1,14 @@
 package com.admin.service;
 
+import com.admin.dto.BatchProgress;
+import com.admin.dto.MenuNode;
 import com.admin.dto.MenuQueryDTO;
 import com.admin.dto.PageRequest;
 import com.admin.entity.Menu;
 import com.admin.util.PageResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 菜单服务接口
@@ -38,19 +41,20 @@ public interface MenuService {
     List<Menu> listMenusByCondition(MenuQueryDTO query);
 
     /**
-     * 获取菜单树（树形结构）
+     * 获取启用菜单的菜单树（树形结构）
+     * 返回的树不可修改，菜单变更前多次调用返回同一实例
      *
-     * @return 菜单树列表
+     * @return 根菜单节点列表
      */
-    List<Menu> getMenuTree();
+    List<MenuNode> getMenuTree();
 
     /**
      * 根据用户ID获取菜单树（考虑权限）
      *
      * @param userId 用户ID
-     * @return 菜单树列表
+     * @return 根菜单节点列表
      */
-    List<Menu> getMenuTreeByUserId(Long userId);
+    List<MenuNode> getMenuTreeByUserId(Long userId);
 
     void saveMenu(Menu menu);
 
@@ -68,18 +72,24 @@ public interface MenuService {
 
     /**
      * 批量删除菜单
+     * 按块执行，每块一个事务；中途失败时已提交的块保留
      *
-     * @param ids 菜单ID列表
+     * @param ids      菜单ID列表
+     * @param progress 每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void batchDeleteMenus(List<Long> ids);
+    BatchProgress batchDeleteMenus(List<Long> ids, Consumer<BatchProgress> progress);
 
     /**
      * 批量更新菜单状态
+     * 按块执行，每块一个事务；中途失败时已提交的块保留
      *
      * @param ids       菜单ID列表
      * @param isEnabled 是否启用
+     * @param progress  每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void batchUpdateMenuStatus(List<Long> ids, Boolean isEnabled);
+    BatchProgress batchUpdateMenuStatus(List<Long> ids, Boolean isEnabled, Consumer<BatchProgress> progress);
 
     /**
      * 检查菜单是否有子菜单
@@ -1,6 +1,10 @@
 package com.admin.service;
 
+import com.admin.dto.OperationLogQueryDTO;
+import com.admin.dto.OperationLogWriterStats;
+import com.admin.dto.PageRequest;
 import com.admin.entity.OperationLog;
+import com.admin.util.PageResult;
 
 import java.util.List;
 
@@ -15,11 +19,29 @@ public interface OperationLogService {
 
     List<OperationLog> listLogs();
 
-    void saveLog(OperationLog log);
-}
-
-
-
-
+    /**
+     * 分页查询操作日志
+     * 查询条件带游标时使用 keyset 分页（不统计总数，total 为 null），否则使用页码分页
+     *
+     * @param request 分页请求
+     * @param query   查询条件
+     * @return 分页结果
+     */
+    PageResult<OperationLog> pageLogs(PageRequest request, OperationLogQueryDTO query);
 
+    void saveLog(OperationLog log);
 
+    /**
+     * 异步提交操作日志，由后台线程批量写入
+     *
+     * @param log 操作日志
+     */
+    void submitLog(OperationLog log);
+
+    /**
+     * 获取批量写入器的统计信息（缓冲、丢弃、溢出、批次大小、写入延迟）
+     *
+     * @return 统计信息
+     */
+    OperationLogWriterStats getWriterStats();
+}
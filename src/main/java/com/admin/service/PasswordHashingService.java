@@ -0,0 +1,27 @@
+package com.admin.service;
+
+import com.admin.dto.PasswordHashingStats;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 密码哈希服务
+ * 作为系统唯一的 PasswordEncoder，哈希计算在独立的有界线程池中执行，
+ * 登录高峰时限制 CPU 占用，避免拖慢界面请求
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface PasswordHashingService extends PasswordEncoder {
+
+    /**
+     * 记录一次登录时的重新哈希
+     */
+    void recordRehash();
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    PasswordHashingStats getStats();
+}
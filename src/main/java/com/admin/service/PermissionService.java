@@ -1,8 +1,11 @@
 package com.admin.service;
 
+import com.admin.dto.PermissionTreeFilter;
 import com.admin.entity.Permission;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 权限服务接口
@@ -25,6 +28,51 @@ public interface PermissionService {
      */
     List<Permission> getPermissionsByUserId(Long userId);
 
+    /**
+     * 分页查询子权限（权限树懒加载）
+     *
+     * @param parentId 父权限ID，为 null 时查询根权限
+     * @param within   仅返回这些ID，为 null 表示不限
+     * @param offset   偏移量
+     * @param limit    数量
+     * @return 子权限列表（按 sort、id 升序）
+     */
+    List<Permission> listChildPermissions(Long parentId, Collection<Long> within, int offset, int limit);
+
+    /**
+     * 统计子权限数量
+     *
+     * @param parentId 父权限ID，为 null 时统计根权限
+     * @param within   仅统计这些ID，为 null 表示不限
+     * @return 子权限数量
+     */
+    int countChildPermissions(Long parentId, Collection<Long> within);
+
+    /**
+     * 查询给定权限中有子权限的权限ID
+     *
+     * @param ids    权限ID
+     * @param within 子权限仅在这些ID中计算，为 null 表示不限
+     * @return 有子权限的权限ID
+     */
+    Set<Long> getParentIdsHavingChildren(Collection<Long> ids, Collection<Long> within);
+
+    /**
+     * 按名称或编码筛选权限树
+     *
+     * @param keyword 关键字
+     * @return 筛选结果；关键字为空时返回 null，表示不筛选
+     */
+    PermissionTreeFilter filterPermissionTree(String keyword);
+
+    /**
+     * 查询子树中所有启用的权限ID（包括该权限本身）
+     *
+     * @param id 子树根权限ID
+     * @return 启用的权限ID
+     */
+    Set<Long> getSubtreePermissionIds(Long id);
+
     void savePermission(Permission permission);
 
     void updatePermission(Permission permission);
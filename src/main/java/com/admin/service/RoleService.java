@@ -1,11 +1,14 @@
 package com.admin.service;
 
+import com.admin.dto.AssignmentChange;
+import com.admin.dto.BatchProgress;
 import com.admin.dto.PageRequest;
 import com.admin.dto.RoleQueryDTO;
 import com.admin.entity.Role;
 import com.admin.util.PageResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 角色服务接口
@@ -53,18 +56,24 @@ public interface RoleService {
 
     /**
      * 批量删除角色
+     * 按块执行，每块一个事务；中途失败时已提交的块保留
      *
-     * @param ids 角色ID列表
+     * @param ids      角色ID列表
+     * @param progress 每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void batchDeleteRoles(List<Long> ids);
+    BatchProgress batchDeleteRoles(List<Long> ids, Consumer<BatchProgress> progress);
 
     /**
      * 批量更新角色状态
+     * 按块执行，每块一个事务；中途失败时已提交的块保留
      *
      * @param ids       角色ID列表
      * @param isEnabled 是否启用
+     * @param progress  每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void batchUpdateRoleStatus(List<Long> ids, Boolean isEnabled);
+    BatchProgress batchUpdateRoleStatus(List<Long> ids, Boolean isEnabled, Consumer<BatchProgress> progress);
 
     /**
      * 获取角色的权限ID列表
@@ -76,11 +85,13 @@ public interface RoleService {
 
     /**
      * 分配角色权限
+     * 与当前权限比较，只插入新增的关联、删除移除的关联；没有变化时不写库也不使权限缓存失效
      *
      * @param roleId        角色ID
-     * @param permissionIds 权限ID列表
+     * @param permissionIds 权限ID列表（分配后角色拥有的全部权限）
+     * @return 变更摘要
      */
-    void assignPermissions(Long roleId, List<Long> permissionIds);
+    AssignmentChange assignPermissions(Long roleId, List<Long> permissionIds);
 
     /**
      * 移除角色权限
@@ -0,0 +1,69 @@
+package com.admin.service;
+
+import com.admin.dto.MenuQueryDTO;
+import com.admin.dto.RoleQueryDTO;
+import com.admin.dto.UserQueryDTO;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 列表搜索索引服务
+ * 使用内存 trigram 索引解析模糊查询的候选ID，索引未就绪、没有模糊条件或候选过多时返回 null，
+ * 调用方应退回 SQL LIKE 查询
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface SearchIndexService {
+
+    /**
+     * 解析用户查询的候选ID
+     *
+     * @param query 查询条件
+     * @return 候选用户ID，返回 null 表示使用 SQL LIKE
+     */
+    Set<Long> matchUsers(UserQueryDTO query);
+
+    /**
+     * 解析角色查询的候选ID
+     *
+     * @param query 查询条件
+     * @return 候选角色ID，返回 null 表示使用 SQL LIKE
+     */
+    Set<Long> matchRoles(RoleQueryDTO query);
+
+    /**
+     * 解析菜单查询的候选ID
+     *
+     * @param query 查询条件
+     * @return 候选菜单ID，返回 null 表示使用 SQL LIKE
+     */
+    Set<Long> matchMenus(MenuQueryDTO query);
+
+    /**
+     * 用户新增、修改或删除后刷新索引，有事务时在提交后执行
+     *
+     * @param ids 用户ID列表
+     */
+    void refreshUsers(Collection<Long> ids);
+
+    /**
+     * 角色新增、修改或删除后刷新索引，有事务时在提交后执行
+     *
+     * @param ids 角色ID列表
+     */
+    void refreshRoles(Collection<Long> ids);
+
+    /**
+     * 菜单新增、修改或删除后刷新索引，有事务时在提交后执行
+     *
+     * @param ids 菜单ID列表
+     */
+    void refreshMenus(Collection<Long> ids);
+
+    /**
+     * 从数据库重建全部索引
+     */
+    void rebuildAll();
+}
@@ -0,0 +1,24 @@
+package com.admin.service;
+
+import com.admin.dto.SessionMemoryReport;
+
+/**
+ * 会话内存诊断服务接口
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public interface SessionDiagnosticsService {
+    /**
+     * 诊断所需的权限编码
+     */
+    String PERMISSION = "SESSION_DIAGNOSTICS";
+
+    /**
+     * 遍历所有 Vaadin 会话及其 UI 组件树，估算每个会话和每个视图类的内存占用
+     * 不能在持有 Vaadin 会话锁的线程中调用（如 UI 事件处理），应在后台线程执行
+     *
+     * @return 内存占用报告
+     */
+    SessionMemoryReport getReport();
+}
@@ -1,11 +1,16 @@
 package com.admin.service;
 
+import com.admin.dto.AssignmentChange;
+import com.admin.dto.BatchProgress;
+import com.admin.dto.BulkRoleAssignment;
 import com.admin.dto.PageRequest;
 import com.admin.dto.UserQueryDTO;
 import com.admin.entity.User;
 import com.admin.util.PageResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 用户服务接口
@@ -71,18 +76,24 @@ public interface UserService {
 
     /**
      * 批量删除用户
+     * 按块执行，每块一个事务；中途失败时已提交的块保留
      *
-     * @param ids 用户ID列表
+     * @param ids      用户ID列表
+     * @param progress 每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void batchDeleteUsers(List<Long> ids);
+    BatchProgress batchDeleteUsers(List<Long> ids, Consumer<BatchProgress> progress);
 
     /**
      * 批量更新用户状态
+     * 按块执行，每块一个事务；中途失败时已提交的块保留
      *
      * @param ids       用户ID列表
      * @param isEnabled 是否启用
+     * @param progress  每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void batchUpdateUserStatus(List<Long> ids, Boolean isEnabled);
+    BatchProgress batchUpdateUserStatus(List<Long> ids, Boolean isEnabled, Consumer<BatchProgress> progress);
 
     /**
      * 修改密码
@@ -93,6 +104,14 @@ public interface UserService {
      */
     void changePassword(Long userId, String oldPassword, String newPassword);
 
+    /**
+     * 更新密码哈希（登录时按当前配置重新哈希，不校验旧密码）
+     *
+     * @param userId          用户ID
+     * @param encodedPassword 新的密码哈希
+     */
+    void updatePasswordHash(Long userId, String encodedPassword);
+
     /**
      * 获取用户的角色ID列表
      *
@@ -103,11 +122,36 @@ public interface UserService {
 
     /**
      * 分配用户角色
+     * 与当前角色比较，只插入新增的关联、删除移除的关联；没有变化时不写库也不使权限缓存失效
      *
      * @param userId  用户ID
-     * @param roleIds 角色ID列表
+     * @param roleIds 角色ID列表（分配后用户拥有的全部角色）
+     * @return 变更摘要
+     */
+    AssignmentChange assignRoles(Long userId, List<Long> roleIds);
+
+    /**
+     * 为多个用户批量追加角色，用户原有的其他角色保留
+     * 用户按块处理，每块一条集合 SQL、一个独立事务；中途失败时已提交的块保留，可重试
+     *
+     * @param userIds  用户ID列表
+     * @param roleIds  角色ID列表
+     * @param progress 每提交一块后调用，可为 null
+     * @return 处理结果
+     */
+    BulkRoleAssignment bulkAssignRoles(Collection<Long> userIds, Collection<Long> roleIds,
+                                       Consumer<BulkRoleAssignment> progress);
+
+    /**
+     * 批量撤销多个用户的角色，处理方式同 {@link #bulkAssignRoles}
+     *
+     * @param userIds  用户ID列表
+     * @param roleIds  角色ID列表
+     * @param progress 每提交一块后调用，可为 null
+     * @return 处理结果
      */
-    void assignRoles(Long userId, List<Long> roleIds);
+    BulkRoleAssignment bulkRevokeRoles(Collection<Long> userIds, Collection<Long> roleIds,
+                                       Consumer<BulkRoleAssignment> progress);
 
     /**
      * 移除用户角色
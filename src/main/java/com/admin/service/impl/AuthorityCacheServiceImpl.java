@@ -0,0 +1,190 @@
+package com.admin.service.impl;
+
+import com.admin.config.AuthorityCacheConfig;
+import com.admin.dto.AuthoritySnapshot;
+import com.admin.entity.Permission;
+import com.admin.mapper.PermissionMapper;
+import com.admin.mapper.UserRoleMapper;
+import com.admin.service.AuthorityCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 权限快照缓存服务实现
+ * 读取顺序：本地缓存 -> Redis -> 数据库，快照版本号与当前版本号不一致时视为失效
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class AuthorityCacheServiceImpl implements AuthorityCacheService {
+
+    private final UserRoleMapper userRoleMapper;
+    private final PermissionMapper permissionMapper;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final AuthorityCacheConfig config;
+
+    private final Cache<Long, AuthoritySnapshot> localCache;
+
+    /**
+     * 本地版本号，Redis 不可用时作为单节点兜底
+     */
+    private final AtomicLong localVersion = new AtomicLong();
+
+    /**
+     * Redis 版本号递增失败，尚未补上：期间不读写 Redis 快照（其中可能是撤销前的权限），
+     * 每次读取版本号时重试递增，成功后其他节点的 Redis 快照随版本号变化一起失效
+     */
+    private final AtomicBoolean redisBumpPending = new AtomicBoolean();
+
+    public AuthorityCacheServiceImpl(UserRoleMapper userRoleMapper,
+                                     PermissionMapper permissionMapper,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     AuthorityCacheConfig config) {
+        this.userRoleMapper = userRoleMapper;
+        this.permissionMapper = permissionMapper;
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxSize())
+                .expireAfterWrite(config.getLocalTtl())
+                .build();
+    }
+
+    @Override
+    public AuthoritySnapshot getSnapshot(Long userId) {
+        long version = currentVersion();
+
+        AuthoritySnapshot snapshot = localCache.getIfPresent(userId);
+        if (isValid(snapshot, version)) {
+            return snapshot;
+        }
+
+        boolean useRedis = !redisBumpPending.get();
+        snapshot = useRedis ? readRedis(userId) : null;
+        if (isValid(snapshot, version)) {
+            localCache.put(userId, snapshot);
+            return snapshot;
+        }
+
+        // 使用加载前读取的版本号：加载期间若版本号递增，下次读取会重新加载
+        snapshot = loadFromDatabase(userId, version);
+        localCache.put(userId, snapshot);
+        if (useRedis) {
+            writeRedis(snapshot);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public long currentVersion() {
+        if (redisBumpPending.get()) {
+            retryRedisBump();
+        }
+        try {
+            Long version = redisTemplate.opsForValue().increment(versionKey(), 0);
+            if (version != null) {
+                return version;
+            }
+        } catch (Exception e) {
+            log.debug("读取 Redis 权限版本号失败，使用本地版本号: {}", e.getMessage());
+        }
+        return localVersion.get();
+    }
+
+    @Override
+    public void bumpVersion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doBumpVersion();
+                }
+            });
+        } else {
+            doBumpVersion();
+        }
+    }
+
+    private void doBumpVersion() {
+        localVersion.incrementAndGet();
+        localCache.invalidateAll();
+        try {
+            Long version = redisTemplate.opsForValue().increment(versionKey());
+            log.info("权限版本号已递增: {}", version);
+        } catch (Exception e) {
+            redisBumpPending.set(true);
+            log.warn("递增 Redis 权限版本号失败，Redis 恢复后重试，期间不使用 Redis 快照: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 补上失败的 Redis 版本号递增
+     */
+    private void retryRedisBump() {
+        try {
+            Long version = redisTemplate.opsForValue().increment(versionKey());
+            if (redisBumpPending.compareAndSet(true, false)) {
+                localCache.invalidateAll();
+                log.info("Redis 权限版本号递增已补上: {}", version);
+            }
+        } catch (Exception e) {
+            log.debug("重试递增 Redis 权限版本号失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean isValid(AuthoritySnapshot snapshot, long version) {
+        return snapshot != null && snapshot.getVersion() != null && snapshot.getVersion() == version;
+    }
+
+    private AuthoritySnapshot loadFromDatabase(Long userId, long version) {
+        List<Long> roleIds = userRoleMapper.selectRoleIdsByUserId(userId);
+        List<Permission> permissions = permissionMapper.selectByUserId(userId);
+        List<String> permissionCodes = new ArrayList<>(permissions.size());
+        for (Permission permission : permissions) {
+            if (permission.getCode() != null && !permission.getCode().isEmpty()) {
+                permissionCodes.add(permission.getCode());
+            }
+        }
+        return new AuthoritySnapshot(userId, version, roleIds, permissionCodes);
+    }
+
+    private AuthoritySnapshot readRedis(Long userId) {
+        try {
+            Object value = redisTemplate.opsForValue().get(snapshotKey(userId));
+            if (value instanceof AuthoritySnapshot) {
+                return (AuthoritySnapshot) value;
+            }
+        } catch (Exception e) {
+            log.debug("读取 Redis 权限快照失败，用户ID: {}, 原因: {}", userId, e.getMessage());
+        }
+        return null;
+    }
+
+    private void writeRedis(AuthoritySnapshot snapshot) {
+        try {
+            redisTemplate.opsForValue().set(snapshotKey(snapshot.getUserId()), snapshot, config.getRedisTtl());
+        } catch (Exception e) {
+            log.debug("写入 Redis 权限快照失败，用户ID: {}, 原因: {}", snapshot.getUserId(), e.getMessage());
+        }
+    }
+
+    private String versionKey() {
+        return config.getKeyPrefix() + "version";
+    }
+
+    private String snapshotKey(Long userId) {
+        return config.getKeyPrefix() + "snapshot:" + userId;
+    }
+}
@@ -0,0 +1,65 @@
+package com.admin.service.impl;
+
+import com.admin.config.BatchOperationConfig;
+import com.admin.dto.BatchProgress;
+import com.admin.util.ChunkUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * 批量操作执行器
+ * 将ID列表按 batch-operation.chunk-size 分块，每块在独立事务中执行，
+ * 避免超长的 IN 列表超过 max_allowed_packet，以及长事务长时间持有行锁；
+ * 中途失败时已提交的块保留，未处理的块不执行
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchOperationExecutor {
+
+    private final BatchOperationConfig config;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 分块执行批量操作
+     *
+     * @param operation   操作名称（用于日志）
+     * @param ids         ID列表（忽略 null 和重复值）
+     * @param chunkAction 处理一块ID，在事务中调用，返回影响行数
+     * @param progress    每提交一块后调用（参数为进度副本），可为 null
+     * @return 处理结果
+     */
+    public BatchProgress execute(String operation, Collection<Long> ids, ToIntFunction<List<Long>> chunkAction,
+                                 Consumer<BatchProgress> progress) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        BatchProgress result = new BatchProgress();
+        result.setTotal(distinct.size());
+
+        long start = System.currentTimeMillis();
+        for (List<Long> chunk : ChunkUtil.partition(distinct, config.getChunkSize())) {
+            Integer rows = transactionTemplate.execute(status -> chunkAction.applyAsInt(chunk));
+            result.setAffectedRows(result.getAffectedRows() + (rows != null ? rows : 0));
+            result.setProcessed(result.getProcessed() + chunk.size());
+            result.setChunks(result.getChunks() + 1);
+            result.setElapsedMillis(System.currentTimeMillis() - start);
+            if (progress != null) {
+                progress.accept(result.snapshot());
+            }
+        }
+
+        log.info("{}完成，ID数: {}, 分块: {}, 影响行数: {}, 耗时: {}ms",
+                operation, result.getTotal(), result.getChunks(), result.getAffectedRows(), result.getElapsedMillis());
+        return result;
+    }
+}
@@ -0,0 +1,181 @@
+package com.admin.service.impl;
+
+import com.admin.config.ClusteredSessionConfig;
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.ClusteredSession;
+import com.admin.dto.ClusteredSessionStats;
+import com.admin.service.ClusteredSessionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 集群会话服务实现
+ * 会话以 JSON 保存在 Redis 中，写入时记录序列化后的字节数，用于监控复制载荷大小
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class ClusteredSessionServiceImpl implements ClusteredSessionService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ClusteredSessionConfig config;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private final LongAdder redisFailures = new LongAdder();
+    private final LongAdder payloadBytes = new LongAdder();
+    private final LongAccumulator maxPayloadBytes = new LongAccumulator(Long::max, 0);
+    private final LongAdder oversizedPayloads = new LongAdder();
+
+    public ClusteredSessionServiceImpl(ClusteredSessionConfig config, RedisTemplate<String, Object> redisTemplate) {
+        this.config = config;
+        this.redisTemplate = redisTemplate;
+        this.nodeId = config.getNodeId() != null && !config.getNodeId().isBlank() ? config.getNodeId() : resolveHostName();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public String store(AdminPrincipal principal) {
+        ClusteredSession session = new ClusteredSession();
+        session.setUserId(principal.getUserId());
+        session.setUsername(principal.getUsername());
+        session.setNode(nodeId);
+        session.setLoginAt(System.currentTimeMillis());
+
+        String sessionId = newSessionId();
+        try {
+            recordPayloadSize(session);
+            redisTemplate.opsForValue().set(key(sessionId), session, config.getTtl());
+            stored.increment();
+            return sessionId;
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.warn("保存集群会话失败，登录状态仅在本节点有效: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public ClusteredSession load(String sessionId) {
+        try {
+            Object value = redisTemplate.opsForValue().get(key(sessionId));
+            if (value instanceof ClusteredSession session) {
+                return session;
+            }
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.debug("读取集群会话失败: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public boolean exists(String sessionId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key(sessionId)));
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.debug("检查集群会话失败: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        try {
+            redisTemplate.expire(key(sessionId), config.getTtl().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.debug("集群会话续期失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.delete(key(sessionId)))) {
+                removed.increment();
+            }
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.warn("删除集群会话失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void recordRestore() {
+        restored.increment();
+    }
+
+    @Override
+    public ClusteredSessionStats getStats() {
+        ClusteredSessionStats stats = new ClusteredSessionStats();
+        stats.setEnabled(config.isEnabled());
+        stats.setNodeId(nodeId);
+        stats.setStored(stored.sum());
+        stats.setRestored(restored.sum());
+        stats.setRemoved(removed.sum());
+        stats.setRedisFailures(redisFailures.sum());
+        long count = stats.getStored();
+        stats.setAveragePayloadBytes(count > 0 ? payloadBytes.sum() / count : 0);
+        stats.setMaxPayloadBytes(maxPayloadBytes.get());
+        stats.setOversizedPayloads(oversizedPayloads.sum());
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordPayloadSize(ClusteredSession session) {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] bytes = serializer.serialize(session);
+        int size = bytes != null ? bytes.length : 0;
+        payloadBytes.add(size);
+        maxPayloadBytes.accumulate(size);
+        if (size > config.getMaxPayloadBytes()) {
+            oversizedPayloads.increment();
+            log.warn("集群会话载荷过大: {} 字节，用户: {}", size, session.getUsername());
+        }
+    }
+
+    private String key(String sessionId) {
+        return config.getKeyPrefix() + sessionId;
+    }
+
+    private static String newSessionId() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.admin.service.impl;
+
+import com.admin.config.DashboardStatsConfig;
+import com.admin.dto.DashboardStats;
+import com.admin.dto.MenuQueryDTO;
+import com.admin.dto.OperationLogQueryDTO;
+import com.admin.dto.RoleQueryDTO;
+import com.admin.dto.UserQueryDTO;
+import com.admin.mapper.MenuMapper;
+import com.admin.mapper.OperationLogMapper;
+import com.admin.mapper.RoleMapper;
+import com.admin.mapper.UserMapper;
+import com.admin.service.DashboardStatsService;
+import com.admin.service.EntityCounterService;
+import com.admin.service.EntityCounterService.Counter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 仪表盘统计服务实现
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    private final DashboardStatsConfig config;
+    private final UserMapper userMapper;
+    private final RoleMapper roleMapper;
+    private final MenuMapper menuMapper;
+    private final OperationLogMapper operationLogMapper;
+    private final EntityCounterService entityCounterService;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile DashboardStats cached;
+
+    @Override
+    public DashboardStats getStats() {
+        DashboardStats stats = cached;
+        if (stats == null) {
+            return refresh();
+        }
+        if (stats.getRefreshedAt().plus(config.getTtl()).isBefore(LocalDateTime.now())
+                && refreshing.compareAndSet(false, true)) {
+            // 过期后只启动一个后台刷新，其他调用继续使用旧值
+            Thread.ofVirtual().name("dashboard-stats-refresh").start(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.warn("刷新仪表盘统计失败: {}", e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return withLiveCounters(stats);
+    }
+
+    /**
+     * 用实体计数的当前值覆盖缓存中的总数，总数随增删实时变化，时间窗口指标仍按缓存时间刷新
+     *
+     * @param cachedStats 缓存的统计指标
+     * @return 统计指标副本
+     */
+    private DashboardStats withLiveCounters(DashboardStats cachedStats) {
+        DashboardStats stats = new DashboardStats();
+        BeanUtils.copyProperties(cachedStats, stats);
+        stats.setUserTotal(live(Counter.USERS, cachedStats.getUserTotal()));
+        stats.setActiveUserTotal(live(Counter.ENABLED_USERS, cachedStats.getActiveUserTotal()));
+        stats.setRoleTotal(live(Counter.ROLES, cachedStats.getRoleTotal()));
+        stats.setMenuTotal(live(Counter.MENUS, cachedStats.getMenuTotal()));
+        Long operationsToday = entityCounterService.getOperationLogCount(LocalDate.now());
+        if (operationsToday != null) {
+            stats.setOperationsToday(operationsToday);
+        }
+        return stats;
+    }
+
+    private long live(Counter counter, long cachedValue) {
+        Long value = entityCounterService.get(counter);
+        return value != null ? value : cachedValue;
+    }
+
+    @Override
+    public DashboardStats refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        DashboardStats stats = new DashboardStats();
+        // 总数优先读取实体计数，计数器未就绪时才执行 COUNT 查询
+        stats.setUserTotal(count(Counter.USERS, () -> userMapper.countByCondition(new UserQueryDTO())));
+        stats.setActiveUserTotal(count(Counter.ENABLED_USERS, () -> {
+            UserQueryDTO activeQuery = new UserQueryDTO();
+            activeQuery.setIsEnabled(true);
+            return userMapper.countByCondition(activeQuery);
+        }));
+        stats.setRoleTotal(count(Counter.ROLES, () -> roleMapper.countByCondition(new RoleQueryDTO())));
+        stats.setMenuTotal(count(Counter.MENUS, () -> menuMapper.countByCondition(new MenuQueryDTO())));
+
+        OperationLogQueryDTO loginQuery = new OperationLogQueryDTO();
+        loginQuery.setOperation(LOGIN_OPERATION);
+        loginQuery.setStatus(1);
+        loginQuery.setStartTime(now.toLocalDate().atStartOfDay());
+        stats.setLoginsToday(count(operationLogMapper.countByCondition(loginQuery)));
+
+        LocalDate today = now.toLocalDate();
+        Long operationsToday = entityCounterService.getOperationLogCount(today);
+        if (operationsToday == null) {
+            OperationLogQueryDTO todayQuery = new OperationLogQueryDTO();
+            todayQuery.setStartTime(today.atStartOfDay());
+            operationsToday = operationLogMapper.countByCondition(todayQuery);
+        }
+        stats.setOperationsToday(count(operationsToday));
+
+        // 登录失败（密码错误等）不计入失败操作
+        OperationLogQueryDTO failedQuery = new OperationLogQueryDTO();
+        failedQuery.setExcludeOperation(LOGIN_OPERATION);
+        failedQuery.setStatus(0);
+        failedQuery.setStartTime(now.minusHours(1));
+        stats.setFailedOperationsLastHour(count(operationLogMapper.countByCondition(failedQuery)));
+
+        stats.setRefreshedAt(now);
+        cached = stats;
+        return stats;
+    }
+
+    private long count(Counter counter, Supplier<Long> query) {
+        Long value = entityCounterService.get(counter);
+        return value != null ? value : count(query.get());
+    }
+
+    private static long count(Long value) {
+        return value != null ? value : 0L;
+    }
+}
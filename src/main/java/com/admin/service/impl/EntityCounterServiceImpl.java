@@ -0,0 +1,305 @@
+package com.admin.service.impl;
+
+import com.admin.config.EntityCounterConfig;
+import com.admin.dto.MenuQueryDTO;
+import com.admin.dto.OperationLogQueryDTO;
+import com.admin.dto.RoleQueryDTO;
+import com.admin.dto.UserQueryDTO;
+import com.admin.entity.OperationLog;
+import com.admin.mapper.MenuMapper;
+import com.admin.mapper.OperationLogMapper;
+import com.admin.mapper.RoleMapper;
+import com.admin.mapper.UserMapper;
+import com.admin.service.EntityCounterService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 实体计数服务实现
+ * 增量在事务提交后生效，定期与数据库校准；校准时以统计结果为基准，补上统计期间已提交的增量（增量日志），
+ * 持续有写入时也能修正偏差
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntityCounterServiceImpl implements EntityCounterService {
+
+    private static final int STATUS_FAILED = 0;
+    private static final int STATUS_SUCCESS = 1;
+
+    private final EntityCounterConfig config;
+    private final UserMapper userMapper;
+    private final RoleMapper roleMapper;
+    private final MenuMapper menuMapper;
+    private final OperationLogMapper operationLogMapper;
+
+    private final Map<Counter, CounterCell> counters = new EnumMap<>(Map.of(
+            Counter.USERS, new CounterCell(),
+            Counter.ENABLED_USERS, new CounterCell(),
+            Counter.ROLES, new CounterCell(),
+            Counter.MENUS, new CounterCell(),
+            Counter.OPERATION_LOGS, new CounterCell()));
+    private final Map<Integer, CounterCell> logsByStatus = Map.of(
+            STATUS_FAILED, new CounterCell(),
+            STATUS_SUCCESS, new CounterCell());
+    private final Map<LocalDate, CounterCell> logsByDay = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 应用启动完成后首次校准，之后按 reconcileInterval 定期校准
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "entity-counter-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getReconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public Long get(Counter counter) {
+        return config.isEnabled() ? counters.get(counter).get() : null;
+    }
+
+    @Override
+    public void add(Counter counter, long delta) {
+        if (!config.isEnabled() || delta == 0) {
+            return;
+        }
+        CounterCell cell = counters.get(counter);
+        afterCommit(() -> cell.add(delta));
+    }
+
+    @Override
+    public void invalidate(Counter counter) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        CounterCell cell = counters.get(counter);
+        afterCommit(() -> {
+            cell.invalidate();
+            requestReconcile();
+        });
+    }
+
+    @Override
+    public void recordOperationLogs(Collection<OperationLog> logs) {
+        if (!config.isEnabled() || logs == null || logs.isEmpty()) {
+            return;
+        }
+        List<OperationLog> copy = List.copyOf(logs);
+        afterCommit(() -> addOperationLogs(copy));
+    }
+
+    private void addOperationLogs(List<OperationLog> logs) {
+        counters.get(Counter.OPERATION_LOGS).add(logs.size());
+        LocalDate today = LocalDate.now();
+        for (OperationLog operationLog : logs) {
+            CounterCell statusCell = operationLog.getStatus() != null ? logsByStatus.get(operationLog.getStatus()) : null;
+            if (statusCell != null) {
+                statusCell.add(1);
+            }
+            LocalDate day = operationLog.getCreatedAt() != null ? operationLog.getCreatedAt().toLocalDate() : today;
+            CounterCell dayCell = logsByDay.get(day);
+            if (dayCell == null && !day.isBefore(today)) {
+                // 跨天后新建的计数从零开始，下次校准时修正
+                dayCell = logsByDay.computeIfAbsent(day, key -> CounterCell.ready());
+            }
+            if (dayCell != null) {
+                dayCell.add(1);
+            }
+        }
+    }
+
+    @Override
+    public Long getOperationLogCount(int status) {
+        CounterCell cell = logsByStatus.get(status);
+        return config.isEnabled() && cell != null ? cell.get() : null;
+    }
+
+    @Override
+    public Long getOperationLogCount(LocalDate day) {
+        CounterCell cell = logsByDay.get(day);
+        return config.isEnabled() && cell != null ? cell.get() : null;
+    }
+
+    @Override
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        reconcile(counters.get(Counter.USERS), () -> userMapper.countByCondition(new UserQueryDTO()));
+        reconcile(counters.get(Counter.ENABLED_USERS), () -> {
+            UserQueryDTO query = new UserQueryDTO();
+            query.setIsEnabled(true);
+            return userMapper.countByCondition(query);
+        });
+        reconcile(counters.get(Counter.ROLES), () -> roleMapper.countByCondition(new RoleQueryDTO()));
+        reconcile(counters.get(Counter.MENUS), () -> menuMapper.countByCondition(new MenuQueryDTO()));
+        reconcile(counters.get(Counter.OPERATION_LOGS), () -> operationLogMapper.countByCondition(new OperationLogQueryDTO()));
+
+        for (Map.Entry<Integer, CounterCell> entry : logsByStatus.entrySet()) {
+            reconcile(entry.getValue(), () -> {
+                OperationLogQueryDTO query = new OperationLogQueryDTO();
+                query.setStatus(entry.getKey());
+                return operationLogMapper.countByCondition(query);
+            });
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate oldest = today.minusDays(Math.max(config.getRetainDays(), 1) - 1L);
+        logsByDay.keySet().removeIf(day -> day.isBefore(oldest));
+        for (LocalDate day = oldest; !day.isAfter(today); day = day.plusDays(1)) {
+            LocalDateTime startTime = day.atStartOfDay();
+            reconcile(logsByDay.computeIfAbsent(day, key -> new CounterCell()), () -> {
+                OperationLogQueryDTO query = new OperationLogQueryDTO();
+                query.setStartTime(startTime);
+                query.setEndTime(startTime.plusDays(1));
+                return operationLogMapper.countByCondition(query);
+            });
+        }
+        log.debug("实体计数校准完成，耗时: {}ms", System.currentTimeMillis() - start);
+    }
+
+    private void reconcileQuietly() {
+        reconcileRequested.set(false);
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("实体计数校准失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 请求尽快校准，多次请求合并为一次
+     */
+    private void requestReconcile() {
+        if (scheduler != null && reconcileRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::reconcileQuietly);
+        }
+    }
+
+    private void reconcile(CounterCell cell, Supplier<Long> count) {
+        CounterCell.Mark mark = cell.mark();
+        Long value = count.get();
+        if (!cell.reset(mark, value != null ? value : 0L)) {
+            // 统计期间计数被标记为未知（批量变更），已请求重新校准
+            log.debug("计数在校准期间失效，跳过本次校准");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 单个计数：值、已提交增量的累计（增量日志位置）、失效次数和就绪状态保存在同一个不可变状态中，整体 CAS 替换。
+     * 校准时记录统计开始时的日志位置，统计完成后以统计结果加上此后提交的增量作为新值，
+     * 不要求统计期间没有写入；只有在统计开始前提交、但提交后回调晚于统计开始的少量增量会被重复计入，
+     * 误差不会累积，下次校准时重新以数据库为准
+     */
+    private static class CounterCell {
+        private final AtomicReference<State> state = new AtomicReference<>(new State(0L, 0L, 0L, false));
+
+        static CounterCell ready() {
+            CounterCell cell = new CounterCell();
+            cell.state.set(new State(0L, 0L, 0L, true));
+            return cell;
+        }
+
+        Long get() {
+            State current = state.get();
+            return current.ready() ? current.value() : null;
+        }
+
+        Mark mark() {
+            State current = state.get();
+            return new Mark(current.journal(), current.invalidations());
+        }
+
+        void add(long delta) {
+            state.updateAndGet(current -> new State(current.value() + delta, current.journal() + delta,
+                    current.invalidations(), current.ready()));
+        }
+
+        void invalidate() {
+            state.updateAndGet(current -> new State(current.value(), current.journal(),
+                    current.invalidations() + 1, false));
+        }
+
+        /**
+         * 以统计结果为基准重置计数，并补上统计开始后提交的增量
+         *
+         * @param mark  统计开始时的位置
+         * @param count 统计结果
+         * @return 统计期间计数失效时返回 false（统计结果可能不包含失效的变更）
+         */
+        boolean reset(Mark mark, long count) {
+            while (true) {
+                State current = state.get();
+                if (current.invalidations() != mark.invalidations()) {
+                    return false;
+                }
+                long value = count + (current.journal() - mark.journal());
+                if (state.compareAndSet(current, new State(value, current.journal(), current.invalidations(), true))) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @param journal       已提交增量的累计
+         * @param invalidations 失效次数
+         */
+        record Mark(long journal, long invalidations) {
+        }
+
+        private record State(long value, long journal, long invalidations, boolean ready) {
+        }
+    }
+}
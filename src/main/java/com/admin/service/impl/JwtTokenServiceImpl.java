@@ -0,0 +1,298 @@
+package com.admin.service.impl;
+
+import com.admin.config.JwtConfig;
+import com.admin.config.SecurityUserDetailsService;
+import com.admin.dto.AdminPrincipal;
+import com.admin.dto.AuthoritySnapshot;
+import com.admin.dto.JwtToken;
+import com.admin.entity.User;
+import com.admin.mapper.UserMapper;
+import com.admin.service.AuthorityCacheService;
+import com.admin.service.JwtTokenService;
+import com.admin.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 令牌服务实现
+ * HMAC 签名，按密钥ID（kid）选择验证密钥以支持密钥轮换；
+ * 吊销列表保存在 Redis 有序集合中，各节点定期拉取到本地布隆过滤器，
+ * 未命中布隆过滤器的令牌（绝大多数）不访问 Redis，命中时再精确确认；
+ * 每次认证按主键重新读取用户状态，令牌中的权限版本号落后于当前版本时改用最新的权限快照
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class JwtTokenServiceImpl implements JwtTokenService {
+
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_NICKNAME = "nick";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_PERMISSIONS = "perms";
+    private static final String CLAIM_VERSION = "ver";
+
+    private final JwtConfig config;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final UserMapper userMapper;
+    private final AuthorityCacheService authorityCacheService;
+
+    private final Map<String, SecretKey> keys = new LinkedHashMap<>();
+    private final String activeKeyId;
+    private final JwtParser parser;
+
+    /**
+     * 本节点吊销的令牌：jti -> 过期时间（毫秒），Redis 写入失败时仍在本节点生效
+     */
+    private final Map<String, Long> localRevoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter revokedFilter;
+    private ScheduledExecutorService scheduler;
+
+    public JwtTokenServiceImpl(JwtConfig config, RedisTemplate<String, Object> redisTemplate,
+                               UserMapper userMapper, AuthorityCacheService authorityCacheService) {
+        this.config = config;
+        this.redisTemplate = redisTemplate;
+        this.userMapper = userMapper;
+        this.authorityCacheService = authorityCacheService;
+
+        config.getKeys().forEach((kid, secret) -> keys.put(kid, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))));
+        if (keys.isEmpty()) {
+            // 未配置密钥时使用随机密钥，重启或多实例部署时令牌互不通用
+            String kid = "ephemeral-" + UUID.randomUUID();
+            keys.put(kid, Jwts.SIG.HS256.key().build());
+            log.warn("未配置 security.jwt.keys，已生成临时签名密钥，重启后已签发的令牌将失效");
+        }
+        this.activeKeyId = config.getActiveKeyId() != null ? config.getActiveKeyId() : keys.keySet().iterator().next();
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("security.jwt.active-key-id 不在 security.jwt.keys 中: " + activeKeyId);
+        }
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        SecretKey key = header.getKeyId() != null ? keys.get(header.getKeyId()) : null;
+                        if (key == null) {
+                            throw new UnsupportedJwtException("未知的签名密钥: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .requireIssuer(config.getIssuer())
+                .clockSkewSeconds(config.getClockSkew().toSeconds())
+                .build();
+        this.revokedFilter = newFilter(0);
+    }
+
+    /**
+     * 应用启动完成后定期从 Redis 刷新吊销列表
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-revocation-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getRevocation().getRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshRevocations, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public JwtToken issue(AdminPrincipal principal) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(config.getAccessTokenTtl());
+        String token = Jwts.builder()
+                .header().keyId(activeKeyId).and()
+                .id(UUID.randomUUID().toString())
+                .issuer(config.getIssuer())
+                .subject(principal.getUsername())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(expiresAt))
+                .claim(CLAIM_USER_ID, principal.getUserId())
+                .claim(CLAIM_NICKNAME, principal.getNickname())
+                .claim(CLAIM_ROLES, principal.getRoleIds())
+                .claim(CLAIM_PERMISSIONS, principal.getPermissionCodes())
+                .claim(CLAIM_VERSION, principal.getAuthorityVersion())
+                .signWith(keys.get(activeKeyId))
+                .compact();
+        return new JwtToken(token, TOKEN_TYPE, expiresAt);
+    }
+
+    @Override
+    public Authentication authenticate(String token) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        Claims claims = parse(token);
+        if (claims == null || isRevoked(claims.getId())) {
+            return null;
+        }
+
+        // 用户在签发后可能已被禁用或删除，按主键读取当前状态
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        User user = userId != null ? userMapper.selectById(userId) : null;
+        if (user == null || !Boolean.TRUE.equals(user.getIsEnabled())
+                || !Objects.equals(user.getUserName(), claims.getSubject())) {
+            log.debug("JWT 对应的用户不存在或已禁用: {}", claims.getSubject());
+            return null;
+        }
+        user.setPassword(null);
+
+        AuthoritySnapshot snapshot;
+        Long version = claims.get(CLAIM_VERSION, Long.class);
+        if (version != null && version == authorityCacheService.currentVersion()) {
+            snapshot = snapshotFromClaims(claims, userId, version);
+        } else {
+            // 签发后角色或权限有变更，令牌中的权限已过期
+            snapshot = authorityCacheService.getSnapshot(userId);
+        }
+
+        AdminPrincipal principal = new AdminPrincipal(user, snapshot, SecurityUserDetailsService.buildAuthorities(snapshot));
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+    }
+
+    private static AuthoritySnapshot snapshotFromClaims(Claims claims, Long userId, Long version) {
+        List<Long> roleIds = new ArrayList<>();
+        for (Object roleId : listClaim(claims, CLAIM_ROLES)) {
+            roleIds.add(((Number) roleId).longValue());
+        }
+        List<String> permissionCodes = new ArrayList<>();
+        for (Object code : listClaim(claims, CLAIM_PERMISSIONS)) {
+            permissionCodes.add(String.valueOf(code));
+        }
+        return new AuthoritySnapshot(userId, version, roleIds, permissionCodes);
+    }
+
+    @Override
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims == null || claims.getId() == null) {
+            return;
+        }
+        String jti = claims.getId();
+        long expiresAt = claims.getExpiration().getTime();
+        localRevoked.put(jti, expiresAt);
+        revokedFilter.put(jti);
+        try {
+            redisTemplate.opsForZSet().add(config.getRevocation().getRedisKey(), jti, expiresAt);
+        } catch (Exception e) {
+            log.warn("写入 Redis 令牌吊销列表失败，仅本节点生效: {}", e.getMessage());
+        }
+        log.info("令牌已吊销，用户: {}, jti: {}", claims.getSubject(), jti);
+    }
+
+    private Claims parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT 校验失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isRevoked(String jti) {
+        if (jti == null) {
+            return true;
+        }
+        if (!revokedFilter.mightContain(jti)) {
+            return false;
+        }
+        if (localRevoked.containsKey(jti)) {
+            return true;
+        }
+        try {
+            return redisTemplate.opsForZSet().score(config.getRevocation().getRedisKey(), jti) != null;
+        } catch (Exception e) {
+            // 无法确认时按已吊销处理
+            log.debug("查询 Redis 令牌吊销列表失败: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 清理已过期的吊销记录，并用 Redis 中的吊销列表重建本地布隆过滤器
+     */
+    private void refreshRevocations() {
+        long now = System.currentTimeMillis();
+        localRevoked.values().removeIf(expiresAt -> expiresAt < now);
+
+        String key = config.getRevocation().getRedisKey();
+        Set<Object> members;
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(key, 0, now);
+            members = redisTemplate.opsForZSet().rangeByScore(key, now, Double.MAX_VALUE);
+        } catch (Exception e) {
+            log.debug("刷新令牌吊销列表失败，保留当前布隆过滤器: {}", e.getMessage());
+            return;
+        }
+        if (members == null) {
+            members = Collections.emptySet();
+        }
+
+        BloomFilter filter = newFilter((members.size() + localRevoked.size()) * 2);
+        for (Object member : members) {
+            filter.put(String.valueOf(member));
+        }
+        revokedFilter = filter;
+        // 替换后再补入本节点的吊销记录，避免丢失重建期间吊销的令牌
+        localRevoked.keySet().forEach(filter::put);
+    }
+
+    private BloomFilter newFilter(int size) {
+        JwtConfig.Revocation revocation = config.getRevocation();
+        return new BloomFilter(Math.max(revocation.getExpectedInsertions(), size), revocation.getFalsePositiveRate());
+    }
+
+    private static List<?> listClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof List<?> list ? list : List.of();
+    }
+}
@@ -0,0 +1,186 @@
+package com.admin.service.impl;
+
+import com.admin.config.LoginThrottleConfig;
+import com.admin.dto.LoginThrottleStats;
+import com.admin.service.LoginThrottleService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录限流服务实现
+ * 本地令牌桶保存在有容量上限的 Caffeine 缓存中，闲置到回满的桶自动过期，每个桶的状态用 AtomicReference + CAS 更新，不加锁；
+ * 启用 Redis 时由 Lua 脚本原子地计算令牌，多实例共享限流状态
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class LoginThrottleServiceImpl implements LoginThrottleService {
+
+    private static final String TYPE_IP = "ip";
+    private static final String TYPE_USERNAME = "user";
+
+    /**
+     * Redis 令牌桶脚本：KEYS[1]=桶，ARGV[1]=容量，ARGV[2]=补充一个令牌的毫秒数；返回 1 放行，0 拒绝
+     */
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refill = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'updated')
+            local tokens = tonumber(state[1]) or capacity
+            local updated = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + (now - updated) / refill)
+            local allowed = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'updated', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * refill))
+            return allowed
+            """, Long.class);
+
+    private final LoginThrottleConfig config;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final Cache<String, AtomicReference<BucketState>> buckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttledByIp = new LongAdder();
+    private final LongAdder throttledByUsername = new LongAdder();
+    private final LongAdder redisFallbacks = new LongAdder();
+
+    public LoginThrottleServiceImpl(LoginThrottleConfig config, RedisTemplate<String, Object> redisTemplate) {
+        this.config = config;
+        this.redisTemplate = redisTemplate;
+        // 闲置超过最长回满时间的桶已回满，与新建的桶等价，可以直接丢弃
+        Duration maxRefill = max(config.getIp().getRefillPeriod().multipliedBy(config.getIp().getCapacity()),
+                config.getUsername().getRefillPeriod().multipliedBy(config.getUsername().getCapacity()));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(config.getMaxLocalEntries())
+                .expireAfterAccess(maxRefill)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String username, String ip) {
+        if (!config.isEnabled()) {
+            return true;
+        }
+        if (ip != null && !tryAcquire(TYPE_IP, ip, config.getIp())) {
+            throttledByIp.increment();
+            log.warn("登录尝试过于频繁，已按 IP 限流: {}", ip);
+            return false;
+        }
+        String normalized = normalize(username);
+        if (normalized != null && !tryAcquire(TYPE_USERNAME, normalized, config.getUsername())) {
+            throttledByUsername.increment();
+            log.warn("登录尝试过于频繁，已按用户名限流: {}", normalized);
+            return false;
+        }
+        allowed.increment();
+        return true;
+    }
+
+    @Override
+    public void reset(String username) {
+        String normalized = normalize(username);
+        if (!config.isEnabled() || normalized == null) {
+            return;
+        }
+        String key = key(TYPE_USERNAME, normalized);
+        buckets.invalidate(key);
+        if (config.isRedisEnabled()) {
+            try {
+                redisTemplate.delete(key);
+            } catch (Exception e) {
+                log.debug("重置 Redis 登录令牌桶失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public LoginThrottleStats getStats() {
+        LoginThrottleStats stats = new LoginThrottleStats();
+        stats.setAllowed(allowed.sum());
+        stats.setThrottledByIp(throttledByIp.sum());
+        stats.setThrottledByUsername(throttledByUsername.sum());
+        stats.setRedisFallbacks(redisFallbacks.sum());
+        stats.setLocalBuckets((int) buckets.estimatedSize());
+        return stats;
+    }
+
+    private boolean tryAcquire(String type, String value, LoginThrottleConfig.Bucket bucket) {
+        String key = key(type, value);
+        if (config.isRedisEnabled()) {
+            try {
+                Long result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                        bucket.getCapacity(), bucket.getRefillPeriod().toMillis());
+                return result != null && result == 1L;
+            } catch (Exception e) {
+                redisFallbacks.increment();
+                log.debug("Redis 登录限流失败，退回本地令牌桶: {}", e.getMessage());
+            }
+        }
+        return tryAcquireLocal(key, bucket);
+    }
+
+    private boolean tryAcquireLocal(String key, LoginThrottleConfig.Bucket bucket) {
+        long now = System.nanoTime();
+        long refillNanos = bucket.getRefillPeriod().toNanos();
+        AtomicReference<BucketState> ref = buckets.get(key,
+                k -> new AtomicReference<>(new BucketState(bucket.getCapacity(), now)));
+        while (true) {
+            BucketState current = ref.get();
+            double tokens = current.available(now, bucket.getCapacity(), refillNanos);
+            if (tokens < 1) {
+                return false;
+            }
+            if (ref.compareAndSet(current, new BucketState(tokens - 1, now))) {
+                return true;
+            }
+        }
+    }
+
+    private String key(String type, String value) {
+        return config.getKeyPrefix() + type + ":" + value;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static String normalize(String username) {
+        if (username == null || username.isBlank()) {
+            return null;
+        }
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 令牌桶状态（不可变，通过 CAS 替换）
+     *
+     * @param tokens    剩余令牌
+     * @param updatedAt 更新时间（纳秒）
+     */
+    private record BucketState(double tokens, long updatedAt) {
+
+        double available(long now, int capacity, long refillNanos) {
+            return Math.min(capacity, tokens + (double) (now - updatedAt) / refillNanos);
+        }
+    }
+}
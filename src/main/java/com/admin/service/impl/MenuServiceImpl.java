@@ -1,25 +1,50 @@
 package com.admin.service.impl;
 
+import com.admin.config.BatchOperationConfig;
+import com.admin.dto.AuthoritySnapshot;
+import com.admin.dto.BatchProgress;
+import com.admin.dto.MenuNode;
 import com.admin.dto.MenuQueryDTO;
+import com.admin.dto.PageCursor;
 import com.admin.dto.PageRequest;
 import com.admin.entity.Menu;
 import com.admin.entity.Permission;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.exception.BusinessException;
 import com.admin.exception.ErrorCode;
 import com.admin.mapper.MenuMapper;
+import com.admin.service.AuthorityCacheService;
+import com.admin.service.EntityCounterService;
+import com.admin.service.EntityCounterService.Counter;
 import com.admin.service.MenuService;
+import com.admin.service.SearchIndexService;
 import com.admin.service.PermissionService;
+import com.admin.util.ChunkUtil;
 import com.admin.util.PageResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +60,38 @@ public class MenuServiceImpl implements MenuService {
 
     private final MenuMapper menuMapper;
     private final PermissionService permissionService;
+    private final AuthorityCacheService authorityCacheService;
+    private final SearchIndexService searchIndexService;
+    private final EntityCounterService entityCounterService;
+    private final DomainEventBus domainEventBus;
+    private final BatchOperationExecutor batchOperationExecutor;
+    private final BatchOperationConfig batchOperationConfig;
+
+    /**
+     * 菜单投影缓存，按（权限版本号, 菜单版本号, 角色组合）缓存用户可见的菜单树
+     */
+    private final Cache<ProjectionKey, List<MenuNode>> menuProjectionCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * 角色权限路径缓存，按（权限版本号, 角色ID）缓存
+     */
+    private final Cache<RolePathKey, Set<String>> rolePathCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    private static final Comparator<Menu> MENU_ORDER =
+            Comparator.comparing(menu -> menu.getSort() != null ? menu.getSort() : 0);
+
+    /**
+     * 启用菜单的树缓存，菜单变更后置空，下次访问时重建
+     */
+    private volatile List<MenuNode> menuTreeCache;
+    private final Object menuTreeLock = new Object();
+    private final AtomicLong menuTreeVersion = new AtomicLong();
 
     @Override
     public Menu getMenuById(Long id) {
@@ -65,96 +122,209 @@ public class MenuServiceImpl implements MenuService {
             query = new MenuQueryDTO(); // 使用默认查询条件
         }
 
+        // 通过搜索索引解析模糊条件的候选ID
+        query = resolveCandidates(query);
+
+        // keyset 分页：从游标位置向后取一页，不执行 COUNT 和 OFFSET
+        if (request.hasCursor()) {
+            MenuQueryDTO seekQuery = new MenuQueryDTO();
+            BeanUtils.copyProperties(query, seekQuery);
+            seekQuery.applyCursor(PageCursor.decode(request.getCursor()));
+            PageHelper.startPage(1, request.getPageSize(), false);
+            List<Menu> menus = menuMapper.selectByCondition(seekQuery);
+            return PageResult.success(menus, null, request.getPageNum(), request.getPageSize(),
+                    PageCursor.next(menus, request.getPageSize(), Menu::getSort));
+        }
+
+        // 无筛选条件时总数直接取实体计数，不执行 COUNT 查询
+        Long knownTotal = request.isCount() && !query.hasCondition() ? entityCounterService.get(Counter.MENUS) : null;
+        boolean count = request.isCount() && knownTotal == null;
+
+        // 只统计总数（如 Grid 计算大小），不查询数据
+        if (request.isCountOnly()) {
+            Long total = knownTotal != null ? knownTotal : menuMapper.countByCondition(query);
+            return PageResult.success(Collections.emptyList(), total, request.getPageNum(), request.getPageSize());
+        }
+
         // 使用PageHelper进行分页
-        PageHelper.startPage(request.getPageNum(), request.getPageSize());
+        // count=false 时不执行 COUNT 查询，总数由调用方缓存
+        PageHelper.startPage(request.getPageNum(), request.getPageSize(), count);
         List<Menu> menus = menuMapper.selectByCondition(query);
         PageInfo<Menu> pageInfo = new PageInfo<>(menus);
 
         return PageResult.success(
                 pageInfo.getList(),
-                pageInfo.getTotal(),
+                count ? pageInfo.getTotal() : knownTotal,
                 pageInfo.getPageNum(),
-                pageInfo.getPageSize()
+                pageInfo.getPageSize(),
+                PageCursor.next(pageInfo.getList(), request.getPageSize(), Menu::getSort)
         );
     }
 
     @Override
     public List<Menu> listMenusByCondition(MenuQueryDTO query) {
-        return menuMapper.selectByCondition(query);
+        return menuMapper.selectByCondition(resolveCandidates(query));
+    }
+
+    /**
+     * 使用搜索索引解析模糊条件，得到候选ID后复制查询条件；索引不可用时原样返回，使用 SQL LIKE
+     *
+     * @param query 查询条件
+     * @return 查询条件
+     */
+    private MenuQueryDTO resolveCandidates(MenuQueryDTO query) {
+        if (query == null) {
+            return null;
+        }
+        Set<Long> candidateIds = searchIndexService.matchMenus(query);
+        if (candidateIds == null) {
+            return query;
+        }
+        MenuQueryDTO resolved = new MenuQueryDTO();
+        BeanUtils.copyProperties(query, resolved);
+        resolved.setCandidateIds(candidateIds);
+        return resolved;
     }
 
     @Override
-    public List<Menu> getMenuTree() {
-        // 获取所有启用的菜单
-        MenuQueryDTO query = new MenuQueryDTO();
-        query.setIsEnabled(true);
-        List<Menu> allMenus = menuMapper.selectByCondition(query);
-        
-        // 构建菜单树
-        return buildMenuTree(allMenus, null);
+    public List<MenuNode> getMenuTree() {
+        List<MenuNode> tree = menuTreeCache;
+        if (tree != null) {
+            return tree;
+        }
+        synchronized (menuTreeLock) {
+            tree = menuTreeCache;
+            if (tree == null) {
+                // 记录重建前的版本号，重建期间菜单发生变更则不写入缓存
+                long version = menuTreeVersion.get();
+                MenuQueryDTO query = new MenuQueryDTO();
+                query.setIsEnabled(true);
+                tree = buildMenuTree(menuMapper.selectByCondition(query));
+                if (menuTreeVersion.get() == version) {
+                    menuTreeCache = tree;
+                }
+                log.debug("菜单树已重建，根节点数: {}", tree.size());
+            }
+        }
+        return tree;
     }
 
     @Override
-    public List<Menu> getMenuTreeByUserId(Long userId) {
-        // 获取所有启用的菜单
-        MenuQueryDTO query = new MenuQueryDTO();
-        query.setIsEnabled(true);
-        List<Menu> allMenus = menuMapper.selectByCondition(query);
-        
-        // 获取用户权限
-        List<Permission> userPermissions = permissionService.getPermissionsByUserId(userId);
-        Set<String> permissionPaths = userPermissions.stream()
-                .map(Permission::getPath)
-                .filter(path -> path != null && !path.isEmpty())
-                .collect(Collectors.toSet());
-        
-        // 过滤菜单：如果菜单有 path，检查用户是否有访问权限
-        // 如果没有 path 或者是根菜单，则显示
-        List<Menu> filteredMenus = allMenus.stream()
-                .filter(menu -> {
-                    String menuPath = menu.getPath();
-                    // 如果菜单没有 path，或者 path 在用户权限中，则显示
-                    if (menuPath == null || menuPath.isEmpty()) {
-                        return true; // 根菜单或没有 path 的菜单都显示
-                    }
-                    // 检查用户是否有访问该 path 的权限
-                    return permissionPaths.contains(menuPath);
-                })
-                .collect(Collectors.toList());
-        
-        // 构建菜单树
-        return buildMenuTree(filteredMenus, null);
+    public List<MenuNode> getMenuTreeByUserId(Long userId) {
+        AuthoritySnapshot snapshot = authorityCacheService.getSnapshot(userId);
+        long authorityVersion = snapshot.getVersion() != null ? snapshot.getVersion() : 0L;
+        List<Long> roleIds = snapshot.getRoleIds() == null ? List.of() : snapshot.getRoleIds().stream()
+                .distinct()
+                .sorted()
+                .toList();
+
+        // 先读菜单版本号再取菜单树，保证缓存的投影不会比键中的版本号更旧
+        long menuVersion = menuTreeVersion.get();
+        List<MenuNode> tree = getMenuTree();
+
+        // 角色组合相同的用户共享同一份菜单投影，权限或菜单变更后版本号变化，旧投影自然失效
+        ProjectionKey key = new ProjectionKey(authorityVersion, menuVersion, roleIds);
+        return menuProjectionCache.get(key, k -> filterMenuTree(tree, getRolePaths(roleIds, authorityVersion)));
+    }
+
+    /**
+     * 获取角色组合拥有的权限路径（已启用的权限）
+     *
+     * @param roleIds          角色ID列表
+     * @param authorityVersion 权限版本号
+     * @return 权限路径集合
+     */
+    private Set<String> getRolePaths(List<Long> roleIds, long authorityVersion) {
+        Set<String> paths = new HashSet<>();
+        for (Long roleId : roleIds) {
+            paths.addAll(rolePathCache.get(new RolePathKey(authorityVersion, roleId), key ->
+                    permissionService.getPermissionsByRoleId(roleId).stream()
+                            .filter(permission -> !Boolean.FALSE.equals(permission.getIsEnabled()))
+                            .map(Permission::getPath)
+                            .filter(path -> path != null && !path.isEmpty())
+                            .collect(Collectors.toUnmodifiableSet())));
+        }
+        return paths;
+    }
+
+    /**
+     * 按权限路径过滤菜单树，父节点被过滤时其子树一并移除
+     *
+     * @param nodes           菜单节点
+     * @param permissionPaths 用户拥有的权限路径
+     * @return 过滤后的菜单树
+     */
+    private List<MenuNode> filterMenuTree(List<MenuNode> nodes, Set<String> permissionPaths) {
+        List<MenuNode> result = new ArrayList<>(nodes.size());
+        for (MenuNode node : nodes) {
+            String menuPath = node.getPath();
+            if (menuPath != null && !menuPath.isEmpty() && !permissionPaths.contains(menuPath)) {
+                continue;
+            }
+            if (node.hasChildren()) {
+                List<MenuNode> children = filterMenuTree(node.getChildren(), permissionPaths);
+                result.add(children.size() == node.getChildren().size() ? node : node.withChildren(children));
+            } else {
+                result.add(node);
+            }
+        }
+        return Collections.unmodifiableList(result);
     }
 
     /**
-     * 递归构建菜单树
+     * 构建菜单树
+     * 先按 parentId 建立索引，再从根菜单开始逐层挂载子菜单，每个菜单只访问一次
      *
      * @param allMenus 所有菜单列表
-     * @param parentId 父菜单ID，null表示根菜单
-     * @return 菜单树列表
+     * @return 根菜单列表（不可变）
      */
-    private List<Menu> buildMenuTree(List<Menu> allMenus, Long parentId) {
-        List<Menu> tree = new ArrayList<>();
-        
+    private List<MenuNode> buildMenuTree(List<Menu> allMenus) {
+        Map<Long, List<Menu>> childrenIndex = new HashMap<>();
         for (Menu menu : allMenus) {
-            // 判断是否为当前父菜单的子菜单
-            Long menuParentId = menu.getParentId();
-            if ((parentId == null && menuParentId == null) || 
-                (parentId != null && parentId.equals(menuParentId))) {
-                // 递归获取子菜单（虽然Menu实体没有children字段，但可以用于后续扩展）
-                buildMenuTree(allMenus, menu.getId());
-                tree.add(menu);
-            }
+            childrenIndex.computeIfAbsent(menu.getParentId(), key -> new ArrayList<>()).add(menu);
         }
-        
+        return buildChildren(childrenIndex, null, new HashSet<>());
+    }
+
+    private List<MenuNode> buildChildren(Map<Long, List<Menu>> childrenIndex, Long parentId, Set<Long> visited) {
+        List<Menu> menus = childrenIndex.get(parentId);
+        if (menus == null) {
+            return Collections.emptyList();
+        }
+
         // 按sort排序
-        tree.sort((m1, m2) -> {
-            Integer sort1 = m1.getSort() != null ? m1.getSort() : 0;
-            Integer sort2 = m2.getSort() != null ? m2.getSort() : 0;
-            return sort1.compareTo(sort2);
-        });
-        
-        return tree;
+        menus.sort(MENU_ORDER);
+        List<MenuNode> nodes = new ArrayList<>(menus.size());
+        for (Menu menu : menus) {
+            // 防止数据中存在循环引用
+            if (!visited.add(menu.getId())) {
+                continue;
+            }
+            nodes.add(new MenuNode(menu, buildChildren(childrenIndex, menu.getId(), visited)));
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * 菜单变更后使菜单树缓存失效，有事务时在提交后执行
+     */
+    private void evictMenuTree() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvictMenuTree();
+                }
+            });
+        } else {
+            doEvictMenuTree();
+        }
+    }
+
+    private void doEvictMenuTree() {
+        menuTreeVersion.incrementAndGet();
+        menuTreeCache = null;
+        menuProjectionCache.invalidateAll();
     }
 
     @Override
@@ -177,6 +347,10 @@ public class MenuServiceImpl implements MenuService {
         }
         
         menuMapper.insert(menu);
+        entityCounterService.add(Counter.MENUS, 1);
+        searchIndexService.refreshMenus(List.of(menu.getId()));
+        evictMenuTree();
+        domainEventBus.publish(DomainEvent.Type.MENU_CHANGED, menu.getId());
         log.info("保存菜单成功，ID: {}, 名称: {}", menu.getId(), menu.getName());
     }
 
@@ -200,6 +374,9 @@ public class MenuServiceImpl implements MenuService {
         }
         
         menuMapper.updateById(menu);
+        searchIndexService.refreshMenus(List.of(menu.getId()));
+        evictMenuTree();
+        domainEventBus.publish(DomainEvent.Type.MENU_CHANGED, menu.getId());
         log.info("更新菜单成功，ID: {}, 名称: {}", menu.getId(), menu.getName());
     }
 
@@ -211,6 +388,8 @@ public class MenuServiceImpl implements MenuService {
             throw new BusinessException(ErrorCode.MENU_NOT_FOUND);
         }
         menuMapper.updateStatusById(id, isEnabled);
+        evictMenuTree();
+        domainEventBus.publish(DomainEvent.Type.MENU_CHANGED, id);
         log.info("更新菜单状态成功，ID: {}, 状态: {}", id, isEnabled ? "启用" : "禁用");
     }
 
@@ -228,35 +407,53 @@ public class MenuServiceImpl implements MenuService {
         }
         
         menuMapper.deleteById(id);
+        entityCounterService.add(Counter.MENUS, -1);
+        searchIndexService.refreshMenus(List.of(id));
+        evictMenuTree();
+        domainEventBus.publish(DomainEvent.Type.MENU_CHANGED, id);
         log.info("删除菜单成功，ID: {}", id);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void batchDeleteMenus(List<Long> ids) {
+    public BatchProgress batchDeleteMenus(List<Long> ids, Consumer<BatchProgress> progress) {
         if (ids == null || ids.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAM_ERROR, "菜单ID列表不能为空");
         }
-        
-        // 检查是否有子菜单
-        for (Long id : ids) {
-            if (hasChildren(id)) {
-                throw new BusinessException(ErrorCode.PARAM_ERROR, "菜单ID " + id + " 下有子菜单，无法删除");
+
+        // 检查是否有子菜单：每块一条分组查询，全部检查通过后才开始删除
+        for (List<Long> chunk : ChunkUtil.partition(ids, batchOperationConfig.getChunkSize())) {
+            List<Long> parents = menuMapper.selectParentIdsHavingChildren(chunk);
+            if (!parents.isEmpty()) {
+                throw new BusinessException(ErrorCode.PARAM_ERROR, "菜单ID " + parents.get(0) + " 下有子菜单，无法删除");
             }
         }
-        
-        int count = menuMapper.batchDeleteByIds(ids);
-        log.info("批量删除菜单成功，删除数量: {}", count);
+
+        try {
+            return batchOperationExecutor.execute("批量删除菜单", ids, chunk -> {
+                int count = menuMapper.batchDeleteByIds(chunk);
+                entityCounterService.add(Counter.MENUS, -count);
+                searchIndexService.refreshMenus(chunk);
+                return count;
+            }, progress);
+        } finally {
+            // 中途失败时已提交的块同样需要刷新菜单树
+            evictMenuTree();
+            domainEventBus.publish(DomainEvent.Type.MENU_CHANGED, null);
+        }
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void batchUpdateMenuStatus(List<Long> ids, Boolean isEnabled) {
+    public BatchProgress batchUpdateMenuStatus(List<Long> ids, Boolean isEnabled, Consumer<BatchProgress> progress) {
         if (ids == null || ids.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAM_ERROR, "菜单ID列表不能为空");
         }
-        int count = menuMapper.batchUpdateStatus(ids, isEnabled);
-        log.info("批量更新菜单状态成功，更新数量: {}, 状态: {}", count, isEnabled ? "启用" : "禁用");
+        try {
+            return batchOperationExecutor.execute(isEnabled ? "批量启用菜单" : "批量禁用菜单", ids,
+                    chunk -> menuMapper.batchUpdateStatus(chunk, isEnabled), progress);
+        } finally {
+            evictMenuTree();
+            domainEventBus.publish(DomainEvent.Type.MENU_CHANGED, null);
+        }
     }
 
     @Override
@@ -264,5 +461,16 @@ public class MenuServiceImpl implements MenuService {
         int count = menuMapper.countChildren(id);
         return count > 0;
     }
-}
 
+    /**
+     * 菜单投影缓存键
+     */
+    private record ProjectionKey(long authorityVersion, long menuVersion, List<Long> roleIds) {
+    }
+
+    /**
+     * 角色权限路径缓存键
+     */
+    private record RolePathKey(long authorityVersion, Long roleId) {
+    }
+}
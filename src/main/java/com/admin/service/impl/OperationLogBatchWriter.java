@@ -0,0 +1,335 @@
+package com.admin.service.impl;
+
+import com.admin.config.OperationLogWriterConfig;
+import com.admin.config.OperationLogWriterConfig.OverflowPolicy;
+import com.admin.dto.OperationLogWriterStats;
+import com.admin.entity.OperationLog;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
+import com.admin.mapper.OperationLogMapper;
+import com.admin.service.EntityCounterService;
+import com.admin.util.JsonUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 操作日志批量写入器
+ * 日志先进入有界缓冲区，由后台线程按数量或时间攒批，通过多行 INSERT 写入数据库
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Component
+public class OperationLogBatchWriter {
+
+    private final OperationLogMapper operationLogMapper;
+    private final OperationLogWriterConfig config;
+    private final EntityCounterService entityCounterService;
+    private final DomainEventBus domainEventBus;
+    private final ArrayBlockingQueue<Entry> queue;
+    private final Object spillLock = new Object();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OperationLogBatchWriter(OperationLogMapper operationLogMapper, OperationLogWriterConfig config,
+                                   EntityCounterService entityCounterService, DomainEventBus domainEventBus) {
+        this.operationLogMapper = operationLogMapper;
+        this.config = config;
+        this.entityCounterService = entityCounterService;
+        this.domainEventBus = domainEventBus;
+        this.queue = new ArrayBlockingQueue<>(config.getCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "operation-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("操作日志批量写入器已启动，容量: {}, 批次大小: {}, 溢出策略: {}",
+                config.getCapacity(), config.getBatchSize(), config.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 不中断写入线程，避免中断正在执行的 JDBC 调用；写入线程最多等待一个刷新间隔后退出并写完缓冲区
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(config.getFlushInterval().toMillis() + TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                log.warn("操作日志写入线程未在超时时间内退出");
+            }
+        }
+        // 写入剩余日志（写入线程退出后新提交的日志）
+        List<Entry> batch = new ArrayList<>(config.getBatchSize());
+        while (queue.drainTo(batch, config.getBatchSize()) > 0) {
+            flush(batch);
+        }
+        log.info("操作日志批量写入器已停止，累计写入: {}, 丢弃: {}", written.sum(), dropped.sum());
+    }
+
+    /**
+     * 提交日志，缓冲区满时按配置的溢出策略处理
+     *
+     * @param operationLog 操作日志
+     */
+    public void submit(OperationLog operationLog) {
+        submitted.increment();
+        // 截断到列宽，单条超长日志不会导致整批失败
+        operationLog.truncateToColumns();
+        Entry entry = new Entry(operationLog, System.nanoTime());
+        if (queue.offer(entry)) {
+            return;
+        }
+
+        OverflowPolicy policy = config.getOverflowPolicy();
+        if (policy == OverflowPolicy.DROP_OLDEST) {
+            while (!queue.offer(entry)) {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+        } else if (policy == OverflowPolicy.SPILL) {
+            spill(List.of(operationLog));
+        } else {
+            try {
+                if (!queue.offer(entry, config.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    dropped.increment();
+                    log.warn("操作日志缓冲区已满，日志被丢弃: {}", operationLog.getOperation());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * 获取写入统计
+     *
+     * @return 统计信息
+     */
+    public OperationLogWriterStats getStats() {
+        OperationLogWriterStats stats = new OperationLogWriterStats();
+        long batchCount = batches.sum();
+        long writtenCount = written.sum();
+        stats.setQueued(queue.size());
+        stats.setSubmitted(submitted.sum());
+        stats.setWritten(writtenCount);
+        stats.setDropped(dropped.sum());
+        stats.setSpilled(spilled.sum());
+        stats.setBatches(batchCount);
+        stats.setMaxBatchSize(maxBatchSize.get());
+        stats.setAvgBatchSize(batchCount > 0 ? (double) writtenCount / batchCount : 0);
+        stats.setAvgLatencyMillis(writtenCount > 0 ? latencyNanos.sum() / 1_000_000.0 / writtenCount : 0);
+        stats.setMaxLatencyMillis(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+        return stats;
+    }
+
+    private void runLoop() {
+        int batchSize = config.getBatchSize();
+        long intervalNanos = config.getFlushInterval().toNanos();
+        List<Entry> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + intervalNanos;
+
+        while (running) {
+            try {
+                long waitNanos = Math.max(0, deadline - System.nanoTime());
+                Entry entry = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+                if (entry != null) {
+                    batch.add(entry);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                boolean due = System.nanoTime() - deadline >= 0;
+                if (batch.size() >= batchSize || (due && !batch.isEmpty())) {
+                    flush(batch);
+                }
+                if (due) {
+                    deadline = System.nanoTime() + intervalNanos;
+                    if (batch.isEmpty() && queue.isEmpty()) {
+                        replaySpill();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("操作日志写入线程异常", e);
+            }
+        }
+
+        // 退出前写完缓冲区中的日志
+        do {
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        } while (queue.drainTo(batch, batchSize) > 0);
+    }
+
+    private void flush(List<Entry> batch) {
+        try {
+            write(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * 写入一批日志；数据错误导致整批失败时对半拆分重试，只丢弃出错的那一条，
+     * 数据库不可用等其他错误按溢出策略处理整批
+     */
+    private void write(List<Entry> batch) {
+        List<OperationLog> logs = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            logs.add(entry.operationLog());
+        }
+        try {
+            operationLogMapper.insertBatch(logs);
+        } catch (Exception e) {
+            if (isDataError(e)) {
+                if (batch.size() > 1) {
+                    int half = batch.size() / 2;
+                    write(batch.subList(0, half));
+                    write(batch.subList(half, batch.size()));
+                } else {
+                    dropped.increment();
+                    log.error("保存操作日志失败，已丢弃: {}", JsonUtil.toJson(logs.get(0)), e);
+                }
+                return;
+            }
+            log.error("批量保存操作日志失败，数量: {}", logs.size(), e);
+            if (config.getOverflowPolicy() == OverflowPolicy.SPILL) {
+                spill(logs);
+            } else {
+                dropped.add(logs.size());
+            }
+            return;
+        }
+
+        entityCounterService.recordOperationLogs(logs);
+        domainEventBus.publish(DomainEvent.Type.OPERATION_LOGGED, null);
+        long now = System.nanoTime();
+        for (Entry entry : batch) {
+            long latency = now - entry.enqueuedAt();
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+        written.add(logs.size());
+        batches.increment();
+        maxBatchSize.accumulateAndGet(logs.size(), Math::max);
+    }
+
+    /**
+     * 是否为数据本身的错误（拆分重试可定位到出错的行），连接失败等资源错误不属于此类
+     */
+    private static boolean isDataError(Exception e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private void spill(List<OperationLog> logs) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(config.getSpillPath()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OperationLog operationLog : logs) {
+                    writer.write(JsonUtil.toJson(operationLog));
+                    writer.newLine();
+                }
+                spilled.add(logs.size());
+            } catch (IOException e) {
+                log.error("操作日志溢出到磁盘失败，数量: {}", logs.size(), e);
+                dropped.add(logs.size());
+            }
+        }
+    }
+
+    /**
+     * 空闲时回放溢出文件中的日志
+     */
+    private void replaySpill() {
+        if (config.getOverflowPolicy() != OverflowPolicy.SPILL) {
+            return;
+        }
+        Path spillFile = Paths.get(config.getSpillPath());
+        Path replayFile = Paths.get(config.getSpillPath() + ".replay");
+        synchronized (spillLock) {
+            // 上次回放未完成（进程退出或读取失败）时先回放遗留的文件，回放完成前不轮转溢出文件，避免覆盖
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                try {
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.warn("无法读取操作日志溢出文件: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        List<Entry> batch = new ArrayList<>(config.getBatchSize());
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                OperationLog operationLog = JsonUtil.fromJson(line, OperationLog.class);
+                if (operationLog == null) {
+                    continue;
+                }
+                batch.add(new Entry(operationLog, System.nanoTime()));
+                if (batch.size() >= config.getBatchSize()) {
+                    flush(batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+            Files.deleteIfExists(replayFile);
+            log.info("操作日志溢出文件已回放");
+        } catch (IOException e) {
+            // 保留回放文件，下次空闲时重新回放（已写入的日志可能重复）
+            log.error("回放操作日志溢出文件失败", e);
+        }
+    }
+
+    /**
+     * 缓冲区条目，记录入队时间用于统计延迟
+     */
+    private record Entry(OperationLog operationLog, long enqueuedAt) {
+    }
+}
@@ -1,12 +1,25 @@
 package com.admin.service.impl;
 
+import com.admin.dto.OperationLogQueryDTO;
+import com.admin.dto.OperationLogWriterStats;
+import com.admin.dto.PageCursor;
+import com.admin.dto.PageRequest;
 import com.admin.entity.OperationLog;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.mapper.OperationLogMapper;
+import com.admin.service.EntityCounterService;
+import com.admin.service.EntityCounterService.Counter;
 import com.admin.service.OperationLogService;
+import com.admin.util.PageResult;
+import com.github.pagehelper.PageHelper;
+import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,6 +34,9 @@ import java.util.List;
 public class OperationLogServiceImpl implements OperationLogService {
 
     private final OperationLogMapper operationLogMapper;
+    private final OperationLogBatchWriter operationLogBatchWriter;
+    private final EntityCounterService entityCounterService;
+    private final DomainEventBus domainEventBus;
 
     @Override
     public OperationLog getLogById(Long id) {
@@ -32,9 +48,71 @@ public class OperationLogServiceImpl implements OperationLogService {
         return operationLogMapper.selectAll();
     }
 
+    @Override
+    public PageResult<OperationLog> pageLogs(PageRequest request, OperationLogQueryDTO query) {
+        // 参数校验
+        if (request == null) {
+            request = new PageRequest(); // 使用默认分页参数
+        }
+        if (query == null) {
+            query = new OperationLogQueryDTO(); // 使用默认查询条件
+        }
+
+        // keyset 分页：从游标位置向后取一页，不执行 COUNT 和 OFFSET
+        if (request.hasCursor()) {
+            OperationLogQueryDTO seekQuery = new OperationLogQueryDTO();
+            BeanUtils.copyProperties(query, seekQuery);
+            seekQuery.applyCursor(PageCursor.decode(request.getCursor()));
+            query = seekQuery;
+        }
+        if (query.hasCursor()) {
+            PageHelper.startPage(1, request.getPageSize(), false);
+            List<OperationLog> logs = operationLogMapper.selectByCondition(query);
+            return PageResult.success(logs, null, request.getPageNum(), request.getPageSize(),
+                    PageCursor.next(logs, request.getPageSize()));
+        }
+
+        // 无筛选条件时总数直接取实体计数，不执行 COUNT 查询
+        Long knownTotal = request.isCount() && !query.hasCondition()
+                ? entityCounterService.get(Counter.OPERATION_LOGS) : null;
+        boolean count = request.isCount() && knownTotal == null;
+
+        // 只统计总数（如 Grid 计算大小），不查询数据
+        if (request.isCountOnly()) {
+            Long total = knownTotal != null ? knownTotal : operationLogMapper.countByCondition(query);
+            return PageResult.success(Collections.emptyList(), total, request.getPageNum(), request.getPageSize());
+        }
+
+        // 使用PageHelper进行分页
+        // count=false 时不执行 COUNT 查询，总数由调用方缓存
+        PageHelper.startPage(request.getPageNum(), request.getPageSize(), count);
+        List<OperationLog> logs = operationLogMapper.selectByCondition(query);
+        PageInfo<OperationLog> pageInfo = new PageInfo<>(logs);
+
+        return PageResult.success(
+                pageInfo.getList(),
+                count ? pageInfo.getTotal() : knownTotal,
+                pageInfo.getPageNum(),
+                pageInfo.getPageSize(),
+                PageCursor.next(pageInfo.getList(), request.getPageSize())
+        );
+    }
+
     @Override
     public void saveLog(OperationLog log) {
         operationLogMapper.insert(log);
+        entityCounterService.recordOperationLogs(List.of(log));
+        domainEventBus.publish(DomainEvent.Type.OPERATION_LOGGED, log.getId());
+    }
+
+    @Override
+    public void submitLog(OperationLog log) {
+        operationLogBatchWriter.submit(log);
+    }
+
+    @Override
+    public OperationLogWriterStats getWriterStats() {
+        return operationLogBatchWriter.getStats();
     }
 }
 
@@ -0,0 +1,233 @@
+package com.admin.service.impl;
+
+import com.admin.config.PasswordHashingConfig;
+import com.admin.config.PasswordHashingConfig.Algorithm;
+import com.admin.dto.PasswordHashingStats;
+import com.admin.exception.BusinessException;
+import com.admin.exception.ErrorCode;
+import com.admin.service.PasswordHashingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希服务实现
+ * 使用 DelegatingPasswordEncoder：新哈希带算法前缀（如 {bcrypt}），
+ * 无前缀的历史哈希按 BCrypt 校验，登录成功后由 Spring Security 调用 upgradeEncoding 判断是否重新哈希。
+ * PBKDF2 哈希本身不含迭代次数，因此写入带迭代次数的前缀（如 {pbkdf2-310000}），调整迭代次数后同样会重新哈希
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final String ARGON2_REQUIRED_CLASS = "org.bouncycastle.crypto.params.Argon2Parameters";
+    private static final String PBKDF2_PREFIX = "{pbkdf2-";
+
+    private final PasswordHashingConfig config;
+    private final DelegatingPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 迭代次数 -> PBKDF2 编码器
+     */
+    private final Map<Integer, PasswordEncoder> pbkdf2Encoders = new ConcurrentHashMap<>();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder hashCount = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingServiceImpl(PasswordHashingConfig config) {
+        this.config = config;
+        this.delegate = createDelegate(config);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希服务已启动，算法: {}, 线程数: {}, 队列容量: {}",
+                config.getAlgorithm(), config.getThreads(), config.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 创建按前缀分派的编码器，新密码使用配置的算法
+     */
+    private static DelegatingPasswordEncoder createDelegate(PasswordHashingConfig config) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(config.getBcryptStrength());
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        // 不带迭代次数的历史 {pbkdf2} 哈希按当前配置的迭代次数校验
+        encoders.put("pbkdf2", newPbkdf2Encoder(config.getPbkdf2Iterations()));
+        if (ClassUtils.isPresent(ARGON2_REQUIRED_CLASS, null)) {
+            encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1,
+                    config.getArgon2MemoryKb(), config.getArgon2Iterations()));
+        } else if (config.getAlgorithm() == Algorithm.ARGON2) {
+            throw new IllegalStateException("Argon2 需要 org.bouncycastle:bcprov-jdk18on，请添加依赖或更换算法");
+        }
+
+        String idForEncode = config.getAlgorithm().name().toLowerCase();
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // 历史数据为不带前缀的 BCrypt 哈希
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    private static PasswordEncoder newPbkdf2Encoder(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        if (config.getAlgorithm() == Algorithm.PBKDF2) {
+            int iterations = config.getPbkdf2Iterations();
+            return execute(() -> PBKDF2_PREFIX + iterations + "}" + pbkdf2Encoder(iterations).encode(rawPassword));
+        }
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        int iterations = pbkdf2Iterations(encodedPassword);
+        if (iterations > 0) {
+            String hash = encodedPassword.substring(encodedPassword.indexOf('}') + 1);
+            return execute(() -> pbkdf2Encoder(iterations).matches(rawPassword, hash));
+        }
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // 只解析前缀和参数，不做哈希计算，直接在调用线程执行
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        if (config.getAlgorithm() == Algorithm.PBKDF2) {
+            // 迭代次数与当前配置不同，或是不带迭代次数的历史哈希
+            return pbkdf2Iterations(encodedPassword) != config.getPbkdf2Iterations();
+        }
+        return pbkdf2Iterations(encodedPassword) > 0 || delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private PasswordEncoder pbkdf2Encoder(int iterations) {
+        return pbkdf2Encoders.computeIfAbsent(iterations, PasswordHashingServiceImpl::newPbkdf2Encoder);
+    }
+
+    /**
+     * 解析 {pbkdf2-迭代次数} 前缀
+     *
+     * @return 迭代次数，不是此格式时返回 0
+     */
+    private static int pbkdf2Iterations(String encodedPassword) {
+        if (!encodedPassword.startsWith(PBKDF2_PREFIX)) {
+            return 0;
+        }
+        int end = encodedPassword.indexOf('}');
+        try {
+            return end > 0 ? Integer.parseInt(encodedPassword.substring(PBKDF2_PREFIX.length(), end)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void recordRehash() {
+        rehashed.increment();
+    }
+
+    @Override
+    public PasswordHashingStats getStats() {
+        PasswordHashingStats stats = new PasswordHashingStats();
+        stats.setAlgorithm(config.getAlgorithm().name());
+        stats.setActive(executor.getActiveCount());
+        stats.setQueued(executor.getQueue().size());
+        stats.setQueueCapacity(config.getQueueCapacity());
+        stats.setCompleted(executor.getCompletedTaskCount());
+        stats.setRejected(rejected.sum());
+        stats.setTimedOut(timedOut.sum());
+        stats.setRehashed(rehashed.sum());
+        long count = hashCount.sum();
+        stats.setAvgHashMillis(count == 0 ? 0 : hashNanos.sum() / (double) count / 1_000_000);
+        stats.setMaxHashMillis(TimeUnit.NANOSECONDS.toMillis(maxHashNanos.get()));
+        return stats;
+    }
+
+    /**
+     * 在哈希线程池中执行并等待结果
+     */
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    hashNanos.add(elapsed);
+                    hashCount.increment();
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("密码哈希队列已满，拒绝请求，排队数: {}", executor.getQueue().size());
+            throw new BusinessException(ErrorCode.SERVER_ERROR, "系统繁忙，请稍后重试");
+        }
+
+        try {
+            return future.get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            log.warn("密码哈希等待超时，排队数: {}", executor.getQueue().size());
+            throw new BusinessException(ErrorCode.SERVER_ERROR, "系统繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SERVER_ERROR, "密码校验被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
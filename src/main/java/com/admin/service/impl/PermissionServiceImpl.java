@@ -1,14 +1,25 @@
 package com.admin.service.impl;
 
+import com.admin.dto.PermissionTreeFilter;
 import com.admin.entity.Permission;
+import com.admin.exception.BusinessException;
+import com.admin.exception.ErrorCode;
 import com.admin.mapper.PermissionMapper;
+import com.admin.service.AuthorityCacheService;
 import com.admin.service.PermissionService;
+import com.admin.util.ChunkUtil;
+import com.github.pagehelper.PageHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 权限服务实现
@@ -21,7 +32,33 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PermissionServiceImpl implements PermissionService {
 
+    /**
+     * IN 列表的最大长度
+     */
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    /**
+     * 筛选时自动展开的祖先节点上限
+     */
+    private static final int MAX_EXPANDED_PARENTS = 200;
+
+    /**
+     * 筛选时最多显示的匹配项
+     */
+    private static final int MAX_FILTER_MATCHES = 500;
+
+    /**
+     * 筛选时可见权限（匹配项及其祖先）的上限，可见ID作为 IN 列表传给子权限查询
+     */
+    private static final int MAX_VISIBLE_IDS = IN_CHUNK_SIZE;
+
+    /**
+     * 筛选时每批补齐祖先的匹配项数量
+     */
+    private static final int FILTER_CHUNK_SIZE = 100;
+
     private final PermissionMapper permissionMapper;
+    private final AuthorityCacheService authorityCacheService;
 
     @Override
     public Permission getPermissionById(Long id) {
@@ -43,6 +80,118 @@ public class PermissionServiceImpl implements PermissionService {
         return permissionMapper.selectByUserId(userId);
     }
 
+    @Override
+    public List<Permission> listChildPermissions(Long parentId, Collection<Long> within, int offset, int limit) {
+        if (within != null && within.isEmpty()) {
+            return List.of();
+        }
+        PageHelper.offsetPage(offset, limit, false);
+        return permissionMapper.selectChildren(parentId, within);
+    }
+
+    @Override
+    public int countChildPermissions(Long parentId, Collection<Long> within) {
+        if (within != null && within.isEmpty()) {
+            return 0;
+        }
+        return permissionMapper.countChildren(parentId, within);
+    }
+
+    @Override
+    public Set<Long> getParentIdsHavingChildren(Collection<Long> ids, Collection<Long> within) {
+        if (ids == null || ids.isEmpty() || (within != null && within.isEmpty())) {
+            return Set.of();
+        }
+        return new HashSet<>(permissionMapper.selectParentIdsHavingChildren(ids, within));
+    }
+
+    @Override
+    public PermissionTreeFilter filterPermissionTree(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        String term = keyword.trim();
+        List<Long> matches = permissionMapper.selectIdsByKeyword(term, MAX_FILTER_MATCHES + 1);
+        boolean truncated = matches.size() > MAX_FILTER_MATCHES;
+        if (truncated) {
+            matches = matches.subList(0, MAX_FILTER_MATCHES);
+        }
+
+        // 按批逐层向上补齐祖先，使匹配项在树中可达；可见ID超过上限时不再加入后续匹配项
+        Set<Long> visible = new HashSet<>();
+        Set<Long> ancestors = new LinkedHashSet<>();
+        int matchCount = 0;
+        for (List<Long> chunk : ChunkUtil.partition(matches, FILTER_CHUNK_SIZE)) {
+            Set<Long> added = new LinkedHashSet<>();
+            for (Long id : chunk) {
+                if (!visible.contains(id)) {
+                    added.add(id);
+                }
+            }
+            Set<Long> chunkAncestors = new LinkedHashSet<>();
+            List<Long> frontier = new ArrayList<>(added);
+            while (!frontier.isEmpty()) {
+                List<Long> parents = new ArrayList<>();
+                for (Long parentId : permissionMapper.selectParentIdsByIds(frontier)) {
+                    chunkAncestors.add(parentId);
+                    if (!visible.contains(parentId) && added.add(parentId)) {
+                        parents.add(parentId);
+                    }
+                }
+                frontier = parents;
+            }
+            if (visible.size() + added.size() > MAX_VISIBLE_IDS) {
+                truncated = true;
+                break;
+            }
+            visible.addAll(added);
+            ancestors.addAll(chunkAncestors);
+            matchCount += chunk.size();
+        }
+
+        PermissionTreeFilter filter = new PermissionTreeFilter();
+        filter.setKeyword(term);
+        filter.setMatchCount(matchCount);
+        filter.setTruncated(truncated);
+        filter.setVisibleIds(visible);
+        // 祖先过多时只展开前 MAX_EXPANDED_PARENTS 个，其余由用户手动展开
+        filter.setExpandedParents(ancestors.isEmpty() ? List.of() : permissionMapper.selectByIds(
+                ancestors.stream().limit(MAX_EXPANDED_PARENTS).toList()));
+        return filter;
+    }
+
+    @Override
+    public Set<Long> getSubtreePermissionIds(Long id) {
+        Permission root = permissionMapper.selectById(id);
+        if (root == null) {
+            return Set.of();
+        }
+        Set<Long> enabled = new LinkedHashSet<>();
+        if (Boolean.TRUE.equals(root.getIsEnabled())) {
+            enabled.add(id);
+        }
+
+        // 按层查询子权限，visited 防止错误数据中的环导致死循环
+        Set<Long> visited = new HashSet<>(List.of(id));
+        List<Long> frontier = List.of(id);
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (List<Long> chunk : ChunkUtil.partition(frontier, IN_CHUNK_SIZE)) {
+                for (Permission child : permissionMapper.selectChildrenByParentIds(chunk)) {
+                    if (!visited.add(child.getId())) {
+                        continue;
+                    }
+                    next.add(child.getId());
+                    if (Boolean.TRUE.equals(child.getIsEnabled())) {
+                        enabled.add(child.getId());
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return enabled;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void savePermission(Permission permission) {
@@ -54,13 +203,19 @@ public class PermissionServiceImpl implements PermissionService {
     @Transactional(rollbackFor = Exception.class)
     public void updatePermission(Permission permission) {
         permissionMapper.updateById(permission);
+        authorityCacheService.bumpVersion();
         log.info("更新权限成功，ID: {}", permission.getId());
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deletePermission(Long id) {
+        // 有子权限时不允许删除，否则子权限在权限树中失去父节点
+        if (permissionMapper.countChildren(id, null) > 0) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "该权限下有子权限，无法删除");
+        }
         permissionMapper.deleteById(id);
+        authorityCacheService.bumpVersion();
         log.info("删除权限成功，ID: {}", id);
     }
 }
@@ -1,23 +1,38 @@
 package com.admin.service.impl;
 
+import com.admin.config.AssignmentConfig;
+import com.admin.dto.AssignmentChange;
+import com.admin.dto.BatchProgress;
+import com.admin.dto.PageCursor;
 import com.admin.dto.PageRequest;
 import com.admin.dto.RoleQueryDTO;
 import com.admin.entity.Role;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.exception.BusinessException;
 import com.admin.exception.ErrorCode;
 import com.admin.mapper.RoleMapper;
 import com.admin.mapper.RolePermissionMapper;
+import com.admin.service.AuthorityCacheService;
+import com.admin.service.EntityCounterService;
+import com.admin.service.EntityCounterService.Counter;
 import com.admin.service.RoleService;
+import com.admin.service.SearchIndexService;
+import com.admin.util.ChunkUtil;
 import com.admin.util.PageResult;
 import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * 角色服务实现
@@ -33,6 +48,12 @@ public class RoleServiceImpl implements RoleService {
 
     private final RoleMapper roleMapper;
     private final RolePermissionMapper rolePermissionMapper;
+    private final AuthorityCacheService authorityCacheService;
+    private final SearchIndexService searchIndexService;
+    private final EntityCounterService entityCounterService;
+    private final DomainEventBus domainEventBus;
+    private final AssignmentConfig assignmentConfig;
+    private final BatchOperationExecutor batchOperationExecutor;
 
     @Override
     public Role getRoleById(Long id) {
@@ -63,22 +84,68 @@ public class RoleServiceImpl implements RoleService {
             query = new RoleQueryDTO(); // 使用默认查询条件
         }
         
+        // 通过搜索索引解析模糊条件的候选ID
+        query = resolveCandidates(query);
+
+        // keyset 分页：从游标位置向后取一页，不执行 COUNT 和 OFFSET
+        if (request.hasCursor()) {
+            RoleQueryDTO seekQuery = new RoleQueryDTO();
+            BeanUtils.copyProperties(query, seekQuery);
+            seekQuery.applyCursor(PageCursor.decode(request.getCursor()));
+            PageHelper.startPage(1, request.getPageSize(), false);
+            List<Role> roles = roleMapper.selectByCondition(seekQuery);
+            return PageResult.success(roles, null, request.getPageNum(), request.getPageSize(),
+                    PageCursor.next(roles, request.getPageSize()));
+        }
+
+        // 无筛选条件时总数直接取实体计数，不执行 COUNT 查询
+        Long knownTotal = request.isCount() && !query.hasCondition() ? entityCounterService.get(Counter.ROLES) : null;
+        boolean count = request.isCount() && knownTotal == null;
+
+        // 只统计总数（如 Grid 计算大小），不查询数据
+        if (request.isCountOnly()) {
+            Long total = knownTotal != null ? knownTotal : roleMapper.countByCondition(query);
+            return PageResult.success(Collections.emptyList(), total, request.getPageNum(), request.getPageSize());
+        }
+
         // 使用PageHelper进行分页
-        PageHelper.startPage(request.getPageNum(), request.getPageSize());
+        // count=false 时不执行 COUNT 查询，总数由调用方缓存
+        PageHelper.startPage(request.getPageNum(), request.getPageSize(), count);
         List<Role> roles = roleMapper.selectByCondition(query);
         PageInfo<Role> pageInfo = new PageInfo<>(roles);
         
         return PageResult.success(
                 pageInfo.getList(),
-                pageInfo.getTotal(),
+                count ? pageInfo.getTotal() : knownTotal,
                 pageInfo.getPageNum(),
-                pageInfo.getPageSize()
+                pageInfo.getPageSize(),
+                PageCursor.next(pageInfo.getList(), request.getPageSize())
         );
     }
 
     @Override
     public List<Role> listRolesByCondition(RoleQueryDTO query) {
-        return roleMapper.selectByCondition(query);
+        return roleMapper.selectByCondition(resolveCandidates(query));
+    }
+
+    /**
+     * 使用搜索索引解析模糊条件，得到候选ID后复制查询条件；索引不可用时原样返回，使用 SQL LIKE
+     *
+     * @param query 查询条件
+     * @return 查询条件
+     */
+    private RoleQueryDTO resolveCandidates(RoleQueryDTO query) {
+        if (query == null) {
+            return null;
+        }
+        Set<Long> candidateIds = searchIndexService.matchRoles(query);
+        if (candidateIds == null) {
+            return query;
+        }
+        RoleQueryDTO resolved = new RoleQueryDTO();
+        BeanUtils.copyProperties(query, resolved);
+        resolved.setCandidateIds(candidateIds);
+        return resolved;
     }
 
     @Override
@@ -90,6 +157,9 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ErrorCode.ROLE_ALREADY_EXISTS);
         }
         roleMapper.insert(role);
+        entityCounterService.add(Counter.ROLES, 1);
+        searchIndexService.refreshRoles(List.of(role.getId()));
+        domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, role.getId());
         log.info("保存角色成功，ID: {}, 编码: {}", role.getId(), role.getCode());
     }
 
@@ -108,6 +178,8 @@ public class RoleServiceImpl implements RoleService {
         }
         
         roleMapper.updateById(role);
+        searchIndexService.refreshRoles(List.of(role.getId()));
+        domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, role.getId());
         log.info("更新角色成功，ID: {}, 编码: {}", role.getId(), role.getCode());
     }
 
@@ -119,6 +191,7 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ErrorCode.ROLE_NOT_FOUND);
         }
         roleMapper.updateStatusById(id, isEnabled);
+        domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, id);
         log.info("更新角色状态成功，ID: {}, 状态: {}", id, isEnabled ? "启用" : "禁用");
     }
 
@@ -130,27 +203,41 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ErrorCode.ROLE_NOT_FOUND);
         }
         roleMapper.deleteById(id);
+        entityCounterService.add(Counter.ROLES, -1);
+        searchIndexService.refreshRoles(List.of(id));
+        domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, id);
         log.info("删除角色成功，ID: {}", id);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void batchDeleteRoles(List<Long> ids) {
+    public BatchProgress batchDeleteRoles(List<Long> ids, Consumer<BatchProgress> progress) {
         if (ids == null || ids.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAM_ERROR, "角色ID列表不能为空");
         }
-        int count = roleMapper.batchDeleteByIds(ids);
-        log.info("批量删除角色成功，删除数量: {}", count);
+        try {
+            return batchOperationExecutor.execute("批量删除角色", ids, chunk -> {
+                int count = roleMapper.batchDeleteByIds(chunk);
+                entityCounterService.add(Counter.ROLES, -count);
+                searchIndexService.refreshRoles(chunk);
+                return count;
+            }, progress);
+        } finally {
+            // 中途失败时已提交的块同样需要通知
+            domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, null);
+        }
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void batchUpdateRoleStatus(List<Long> ids, Boolean isEnabled) {
+    public BatchProgress batchUpdateRoleStatus(List<Long> ids, Boolean isEnabled, Consumer<BatchProgress> progress) {
         if (ids == null || ids.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAM_ERROR, "角色ID列表不能为空");
         }
-        int count = roleMapper.batchUpdateStatus(ids, isEnabled);
-        log.info("批量更新角色状态成功，更新数量: {}, 状态: {}", count, isEnabled ? "启用" : "禁用");
+        try {
+            return batchOperationExecutor.execute(isEnabled ? "批量启用角色" : "批量禁用角色", ids,
+                    chunk -> roleMapper.batchUpdateStatus(chunk, isEnabled), progress);
+        } finally {
+            domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, null);
+        }
     }
 
     @Override
@@ -160,28 +247,41 @@ public class RoleServiceImpl implements RoleService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void assignPermissions(Long roleId, List<Long> permissionIds) {
-        // 验证角色是否存在
-        Role role = roleMapper.selectById(roleId);
+    public AssignmentChange assignPermissions(Long roleId, List<Long> permissionIds) {
+        // 验证角色是否存在，并锁定角色行，使并发的分配按顺序基于最新的关联计算差异
+        Role role = roleMapper.selectByIdForUpdate(roleId);
         if (role == null) {
             throw new BusinessException(ErrorCode.ROLE_NOT_FOUND);
         }
 
-        // 先删除角色的所有权限关联
-        rolePermissionMapper.deleteByRoleId(roleId);
-
-        // 如果有权限ID，则批量插入
-        if (permissionIds != null && !permissionIds.isEmpty()) {
-            rolePermissionMapper.insertBatch(roleId, permissionIds);
+        // 与当前权限比较，只写入变化的关联；无变化时不使权限缓存失效
+        AssignmentChange change = AssignmentChange.diff(roleId,
+                rolePermissionMapper.selectPermissionIdsByRoleId(roleId), permissionIds);
+        if (change.isEmpty()) {
+            return change;
+        }
+        for (List<Long> chunk : ChunkUtil.partition(change.getRemoved(), assignmentConfig.getChunkSize())) {
+            rolePermissionMapper.deleteByRoleIdAndPermissionIds(roleId, chunk);
         }
+        for (List<Long> chunk : ChunkUtil.partition(change.getAdded(), assignmentConfig.getChunkSize())) {
+            rolePermissionMapper.insertIgnoreBatch(roleId, chunk);
+        }
+
+        // 使已缓存的用户权限快照失效
+        authorityCacheService.bumpVersion();
 
-        log.info("分配角色权限成功，角色ID: {}, 权限ID列表: {}", roleId, permissionIds);
+        domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, roleId);
+        log.info("分配角色权限成功，角色ID: {}, 新增: {}, 移除: {}, 未变: {}",
+                roleId, change.getAdded().size(), change.getRemoved().size(), change.getUnchanged());
+        return change;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void removeRolePermission(Long roleId, Long permissionId) {
         rolePermissionMapper.deleteByRoleIdAndPermissionId(roleId, permissionId);
+        authorityCacheService.bumpVersion();
+        domainEventBus.publish(DomainEvent.Type.ROLE_CHANGED, roleId);
         log.info("移除角色权限成功，角色ID: {}, 权限ID: {}", roleId, permissionId);
     }
 }
@@ -0,0 +1,272 @@
+package com.admin.service.impl;
+
+import com.admin.config.SearchIndexConfig;
+import com.admin.dto.MenuQueryDTO;
+import com.admin.dto.RoleQueryDTO;
+import com.admin.dto.UserQueryDTO;
+import com.admin.entity.BaseEntity;
+import com.admin.entity.Menu;
+import com.admin.entity.Role;
+import com.admin.entity.User;
+import com.admin.mapper.MenuMapper;
+import com.admin.mapper.RoleMapper;
+import com.admin.mapper.UserMapper;
+import com.admin.service.SearchIndexService;
+import com.admin.util.TrigramIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * 列表搜索索引服务实现
+ * 启动后在后台线程构建用户、角色、菜单的 trigram 索引，之后随增删改增量维护，
+ * 并按 rebuildInterval 定期全量重建，以纳入其他实例或直接改库产生的变更
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private final SearchIndexConfig config;
+    private final IndexHolder<User> userIndex;
+    private final IndexHolder<Role> roleIndex;
+    private final IndexHolder<Menu> menuIndex;
+    private ScheduledExecutorService scheduler;
+
+    public SearchIndexServiceImpl(SearchIndexConfig config,
+                                  UserMapper userMapper,
+                                  RoleMapper roleMapper,
+                                  MenuMapper menuMapper) {
+        this.config = config;
+
+        Map<String, Function<User, String>> userFields = new LinkedHashMap<>();
+        userFields.put("userName", User::getUserName);
+        userFields.put("nickname", User::getNickname);
+        userFields.put("email", User::getEmail);
+        userFields.put("phone", User::getPhone);
+        this.userIndex = new IndexHolder<>("user", userFields, userMapper::selectAll, userMapper::selectById);
+
+        Map<String, Function<Role, String>> roleFields = new LinkedHashMap<>();
+        roleFields.put("name", Role::getName);
+        roleFields.put("code", Role::getCode);
+        this.roleIndex = new IndexHolder<>("role", roleFields, roleMapper::selectAll, roleMapper::selectById);
+
+        Map<String, Function<Menu, String>> menuFields = new LinkedHashMap<>();
+        menuFields.put("name", Menu::getName);
+        menuFields.put("path", Menu::getPath);
+        this.menuIndex = new IndexHolder<>("menu", menuFields, menuMapper::selectAll, menuMapper::selectById);
+    }
+
+    /**
+     * 应用启动完成后在后台构建索引，构建完成前查询使用 SQL LIKE；之后按 rebuildInterval 定期重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getRebuildInterval() != null ? config.getRebuildInterval().toMillis() : 0;
+        if (interval > 0) {
+            scheduler.scheduleWithFixedDelay(this::rebuildAll, 0, interval, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(this::rebuildAll);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public Set<Long> matchUsers(UserQueryDTO query) {
+        Map<String, String> terms = new LinkedHashMap<>();
+        terms.put("userName", query.getUserName());
+        terms.put("nickname", query.getNickname());
+        terms.put("email", query.getEmail());
+        terms.put("phone", query.getPhone());
+        return match(userIndex, terms);
+    }
+
+    @Override
+    public Set<Long> matchRoles(RoleQueryDTO query) {
+        Map<String, String> terms = new LinkedHashMap<>();
+        terms.put("name", query.getName());
+        terms.put("code", query.getCode());
+        return match(roleIndex, terms);
+    }
+
+    @Override
+    public Set<Long> matchMenus(MenuQueryDTO query) {
+        Map<String, String> terms = new LinkedHashMap<>();
+        terms.put("name", query.getName());
+        terms.put("path", query.getPath());
+        return match(menuIndex, terms);
+    }
+
+    @Override
+    public void refreshUsers(Collection<Long> ids) {
+        refresh(userIndex, ids);
+    }
+
+    @Override
+    public void refreshRoles(Collection<Long> ids) {
+        refresh(roleIndex, ids);
+    }
+
+    @Override
+    public void refreshMenus(Collection<Long> ids) {
+        refresh(menuIndex, ids);
+    }
+
+    @Override
+    public void rebuildAll() {
+        for (IndexHolder<?> holder : List.of(userIndex, roleIndex, menuIndex)) {
+            try {
+                holder.rebuild();
+            } catch (Exception e) {
+                log.error("构建{}搜索索引失败，模糊查询将使用 SQL LIKE", holder.name, e);
+            }
+        }
+    }
+
+    private Set<Long> match(IndexHolder<?> holder, Map<String, String> terms) {
+        if (!config.isEnabled() || !holder.ready || terms.values().stream().anyMatch(this::isUnsafeTerm)) {
+            return null;
+        }
+        Set<Long> ids = holder.index.search(terms);
+        if (ids != null && ids.size() > config.getMaxCandidates()) {
+            return null;
+        }
+        return ids;
+    }
+
+    /**
+     * 索引无法与 SQL LIKE 保持一致的关键字：
+     * % 和 _ 在 LIKE 中是通配符，索引却按字面匹配；非 ASCII 字符的大小写、重音折叠由数据库排序规则决定，
+     * 与 Java 的小写化结果不一定相同。这些情况直接使用 SQL LIKE
+     */
+    private boolean isUnsafeTerm(String term) {
+        if (term == null) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_' || c == '\\' || c > 0x7F) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refresh(IndexHolder<?> holder, Collection<Long> ids) {
+        if (!config.isEnabled() || ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    holder.refresh(copy);
+                }
+            });
+        } else {
+            holder.refresh(copy);
+        }
+    }
+
+    /**
+     * 单类实体的索引及其加载方式
+     */
+    private static class IndexHolder<T extends BaseEntity> {
+        private final String name;
+        private final TrigramIndex<T> index;
+        private final Supplier<List<T>> loadAll;
+        private final LongFunction<T> loadOne;
+
+        /**
+         * 重建期间发生变更的ID，重建完成后重新加载，避免被旧快照覆盖
+         */
+        private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean ready;
+        private volatile boolean rebuilding;
+
+        IndexHolder(String name, Map<String, Function<T, String>> fields,
+                    Supplier<List<T>> loadAll, LongFunction<T> loadOne) {
+            this.name = name;
+            this.index = new TrigramIndex<>(fields);
+            this.loadAll = loadAll;
+            this.loadOne = loadOne;
+        }
+
+        synchronized void rebuild() {
+            rebuilding = true;
+            try {
+                long start = System.currentTimeMillis();
+                index.rebuild(loadAll.get());
+                while (!pending.isEmpty()) {
+                    List<Long> ids = new ArrayList<>(pending);
+                    pending.removeAll(ids);
+                    reload(ids);
+                }
+                ready = true;
+                log.info("{}搜索索引构建完成，记录数: {}, 耗时: {}ms", name, index.size(), System.currentTimeMillis() - start);
+            } finally {
+                rebuilding = false;
+            }
+        }
+
+        void refresh(List<Long> ids) {
+            if (rebuilding) {
+                pending.addAll(ids);
+            }
+            try {
+                reload(ids);
+            } catch (Exception e) {
+                // 索引可能与数据库不一致，停用索引直到调用 rebuildAll 重建
+                ready = false;
+                log.warn("刷新{}搜索索引失败，已退回 SQL LIKE: {}", name, e.getMessage());
+            }
+        }
+
+        private void reload(List<Long> ids) {
+            for (Long id : ids) {
+                T entity = loadOne.apply(id);
+                if (entity != null) {
+                    index.put(entity);
+                } else {
+                    index.remove(id);
+                }
+            }
+        }
+    }
+}
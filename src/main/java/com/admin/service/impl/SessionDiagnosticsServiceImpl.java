@@ -0,0 +1,235 @@
+package com.admin.service.impl;
+
+import com.admin.config.SessionDiagnosticsConfig;
+import com.admin.dto.SessionMemoryReport;
+import com.admin.dto.SessionMemoryReport.SessionFootprint;
+import com.admin.dto.SessionMemoryReport.ViewFootprint;
+import com.admin.service.ClusteredSessionService;
+import com.admin.service.SessionDiagnosticsService;
+import com.admin.util.ObjectSizeEstimator;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.di.Instantiator;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.server.RouteRegistry;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.VaadinSessionState;
+import com.vaadin.flow.server.WrappedSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话内存诊断服务实现
+ * 通过 VaadinServiceInitListener 跟踪所有 Vaadin 会话；生成报告时逐个锁定会话，
+ * 按“路由视图 -> 布局 -> UI 其余部分 -> 会话属性”的顺序估算内存，先计算的部分不会重复计入后面的部分
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+@Service
+public class SessionDiagnosticsServiceImpl implements SessionDiagnosticsService, VaadinServiceInitListener {
+
+    /**
+     * 等待会话锁的最长时间，超时的会话跳过
+     */
+    private static final long LOCK_TIMEOUT_MS = 1000;
+
+    private final SessionDiagnosticsConfig config;
+    private final ClusteredSessionService clusteredSessionService;
+    private final Set<VaadinSession> sessions = ConcurrentHashMap.newKeySet();
+
+    public SessionDiagnosticsServiceImpl(SessionDiagnosticsConfig config, ClusteredSessionService clusteredSessionService) {
+        this.config = config;
+        this.clusteredSessionService = clusteredSessionService;
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(e -> sessions.add(e.getSession()));
+        event.getSource().addSessionDestroyListener(e -> sessions.remove(e.getSession()));
+    }
+
+    @Override
+    public SessionMemoryReport getReport() {
+        VaadinSession current = VaadinSession.getCurrent();
+        if (current != null && current.hasLock()) {
+            throw new IllegalStateException("不能在持有 Vaadin 会话锁时生成会话内存报告");
+        }
+
+        long start = System.currentTimeMillis();
+        List<SessionFootprint> footprints = new ArrayList<>();
+        Map<String, ViewFootprint> views = new HashMap<>();
+        if (config.isEnabled()) {
+            for (VaadinSession session : List.copyOf(sessions)) {
+                SessionFootprint footprint = measureSession(session, views);
+                if (footprint != null) {
+                    footprints.add(footprint);
+                }
+            }
+        }
+
+        SessionMemoryReport report = new SessionMemoryReport();
+        report.setGeneratedAt(LocalDateTime.now());
+        report.setSessionCount(footprints.size());
+        report.setUiCount(footprints.stream().mapToInt(SessionFootprint::getUiCount).sum());
+        report.setTotalBytes(footprints.stream().mapToLong(SessionFootprint::getBytes).sum());
+        report.setAverageBytes(footprints.isEmpty() ? 0 : report.getTotalBytes() / footprints.size());
+        report.setMaxBytes(footprints.stream().mapToLong(SessionFootprint::getBytes).max().orElse(0));
+        report.setTopSessions(footprints.stream()
+                .sorted(Comparator.comparingLong(SessionFootprint::getBytes).reversed())
+                .limit(config.getTopSessions())
+                .toList());
+        views.values().forEach(view -> view.setAverageBytes(view.getTotalBytes() / view.getInstances()));
+        report.setViews(views.values().stream()
+                .sorted(Comparator.comparingLong(ViewFootprint::getTotalBytes).reversed())
+                .toList());
+        report.setClusteredSessions(clusteredSessionService.getStats());
+        report.setDurationMs(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * 锁定会话并估算其内存占用，会话繁忙或已失效时返回 null
+     */
+    private SessionFootprint measureSession(VaadinSession session, Map<String, ViewFootprint> views) {
+        try {
+            if (!session.getLockInstance().tryLock(LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.debug("会话繁忙，跳过内存估算");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            if (session.getState() != VaadinSessionState.OPEN) {
+                return null;
+            }
+            ObjectSizeEstimator estimator = new ObjectSizeEstimator(
+                    object -> isSharedVaadinObject(object, session), config.getMaxObjectsPerSession());
+
+            long bytes = 0;
+            List<UI> uis = List.copyOf(session.getUIs());
+            for (UI ui : uis) {
+                bytes += measureUi(ui, estimator, views);
+            }
+            bytes += estimator.measure(session);
+            bytes += measureHttpSession(session.getSession(), estimator);
+
+            SessionFootprint footprint = new SessionFootprint();
+            footprint.setUsername(resolveUsername(session.getSession()));
+            footprint.setUiCount(uis.size());
+            footprint.setBytes(bytes);
+            footprint.setObjects(estimator.getObjects());
+            footprint.setTruncated(estimator.isTruncated());
+            return footprint;
+        } catch (Exception e) {
+            log.debug("估算会话内存失败: {}", e.getMessage());
+            return null;
+        } finally {
+            session.getLockInstance().unlock();
+        }
+    }
+
+    /**
+     * 估算 UI：先测量路由视图（以 UI 和外层布局为屏障，避免沿父节点计入整棵组件树），再测量布局，最后测量 UI 的其余部分
+     */
+    private long measureUi(UI ui, ObjectSizeEstimator estimator, Map<String, ViewFootprint> views) {
+        List<HasElement> chain = ui.getInternals().getActiveRouterTargetsChain();
+        long bytes = 0;
+        for (int i = 0; i < chain.size(); i++) {
+            List<Object> barriers = new ArrayList<>();
+            barriers.add(ui);
+            barriers.add(ui.getInternals());
+            barriers.add(ui.getInternals().getStateTree());
+            barriers.add(ui.getElement());
+            barriers.add(ui.getElement().getNode());
+            for (HasElement outer : chain.subList(i + 1, chain.size())) {
+                barriers.add(outer);
+                barriers.add(outer.getElement());
+                barriers.add(outer.getElement().getNode());
+            }
+            estimator.setBarriers(barriers);
+
+            HasElement target = chain.get(i);
+            long targetBytes = estimator.measure(target);
+            bytes += targetBytes;
+            record(views, target.getClass(), targetBytes);
+        }
+        estimator.setBarriers(List.of());
+        return bytes + estimator.measure(ui);
+    }
+
+    /**
+     * 估算 HTTP 会话中的其他属性（如 SecurityContext），Vaadin 会话已单独计算
+     */
+    private long measureHttpSession(WrappedSession httpSession, ObjectSizeEstimator estimator) {
+        if (httpSession == null) {
+            return 0;
+        }
+        long bytes = 0;
+        try {
+            for (String name : httpSession.getAttributeNames()) {
+                bytes += estimator.measure(httpSession.getAttribute(name));
+            }
+        } catch (IllegalStateException e) {
+            // 会话已失效
+        }
+        return bytes;
+    }
+
+    private static void record(Map<String, ViewFootprint> views, Class<?> viewClass, long bytes) {
+        ViewFootprint view = views.computeIfAbsent(viewClass.getName(), name -> {
+            ViewFootprint footprint = new ViewFootprint();
+            footprint.setViewClass(name);
+            return footprint;
+        });
+        view.setInstances(view.getInstances() + 1);
+        view.setTotalBytes(view.getTotalBytes() + bytes);
+        view.setMaxBytes(Math.max(view.getMaxBytes(), bytes));
+    }
+
+    /**
+     * 所有会话共享的 Vaadin 对象和其他会话，不计入当前会话
+     */
+    private static boolean isSharedVaadinObject(Object object, VaadinSession session) {
+        return object instanceof VaadinService
+                || object instanceof VaadinContext
+                || object instanceof Router
+                || object instanceof RouteRegistry
+                || object instanceof Instantiator
+                || object instanceof DeploymentConfiguration
+                || (object instanceof VaadinSession other && other != session);
+    }
+
+    private static String resolveUsername(WrappedSession httpSession) {
+        try {
+            Object value = httpSession != null
+                    ? httpSession.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY) : null;
+            if (value instanceof SecurityContext context && context.getAuthentication() != null) {
+                return context.getAuthentication().getName();
+            }
+        } catch (IllegalStateException e) {
+            // 会话已失效
+        }
+        return null;
+    }
+}
@@ -1,23 +1,42 @@
 package com.admin.service.impl;
 
+import com.admin.config.AssignmentConfig;
+import com.admin.dto.AssignmentChange;
+import com.admin.dto.BatchProgress;
+import com.admin.dto.BulkRoleAssignment;
+import com.admin.dto.PageCursor;
 import com.admin.dto.PageRequest;
 import com.admin.dto.UserQueryDTO;
 import com.admin.entity.User;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.exception.BusinessException;
 import com.admin.exception.ErrorCode;
 import com.admin.mapper.UserMapper;
 import com.admin.mapper.UserRoleMapper;
+import com.admin.service.AuthorityCacheService;
+import com.admin.service.EntityCounterService;
+import com.admin.service.EntityCounterService.Counter;
+import com.admin.service.PasswordHashingService;
 import com.admin.service.UserService;
+import com.admin.service.SearchIndexService;
+import com.admin.util.ChunkUtil;
 import com.admin.util.PageResult;
-import com.admin.util.SecurityUtil;
 import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * 用户服务实现
@@ -32,6 +51,14 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
     private final UserRoleMapper userRoleMapper;
+    private final AuthorityCacheService authorityCacheService;
+    private final SearchIndexService searchIndexService;
+    private final EntityCounterService entityCounterService;
+    private final DomainEventBus domainEventBus;
+    private final PasswordHashingService passwordHashingService;
+    private final AssignmentConfig assignmentConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchOperationExecutor batchOperationExecutor;
 
     @Override
     public User getUserById(Long id) {
@@ -62,22 +89,75 @@ public class UserServiceImpl implements UserService {
             query = new UserQueryDTO(); // 使用默认查询条件
         }
 
+        // 通过搜索索引解析模糊条件的候选ID
+        query = resolveCandidates(query);
+
+        // keyset 分页：从游标位置向后取一页，不执行 COUNT 和 OFFSET
+        if (request.hasCursor()) {
+            UserQueryDTO seekQuery = new UserQueryDTO();
+            BeanUtils.copyProperties(query, seekQuery);
+            seekQuery.applyCursor(PageCursor.decode(request.getCursor()));
+            PageHelper.startPage(1, request.getPageSize(), false);
+            List<User> users = userMapper.selectByCondition(seekQuery);
+            return PageResult.success(users, null, request.getPageNum(), request.getPageSize(),
+                    PageCursor.next(users, request.getPageSize()));
+        }
+
+        // 无筛选条件时总数直接取实体计数，不执行 COUNT 查询
+        Long knownTotal = request.isCount() && !query.hasCondition() ? entityCounterService.get(Counter.USERS) : null;
+        boolean count = request.isCount() && knownTotal == null;
+
+        // 只统计总数（如 Grid 计算大小），不查询数据
+        if (request.isCountOnly()) {
+            Long total = knownTotal != null ? knownTotal : userMapper.countByCondition(query);
+            return PageResult.success(Collections.emptyList(), total, request.getPageNum(), request.getPageSize());
+        }
+
         // 使用PageHelper进行分页
-        PageHelper.startPage(request.getPageNum(), request.getPageSize());
+        // count=false 时不执行 COUNT 查询，总数由调用方缓存
+        PageHelper.startPage(request.getPageNum(), request.getPageSize(), count);
         List<User> users = userMapper.selectByCondition(query);
         PageInfo<User> pageInfo = new PageInfo<>(users);
 
         return PageResult.success(
                 pageInfo.getList(),
-                pageInfo.getTotal(),
+                count ? pageInfo.getTotal() : knownTotal,
                 pageInfo.getPageNum(),
-                pageInfo.getPageSize()
+                pageInfo.getPageSize(),
+                PageCursor.next(pageInfo.getList(), request.getPageSize())
         );
     }
 
     @Override
     public List<User> listUsersByCondition(UserQueryDTO query) {
-        return userMapper.selectByCondition(query);
+        return userMapper.selectByCondition(resolveCandidates(query));
+    }
+
+    /**
+     * 使用搜索索引解析模糊条件，得到候选ID后复制查询条件；索引不可用时原样返回，使用 SQL LIKE
+     *
+     * @param query 查询条件
+     * @return 查询条件
+     */
+    private UserQueryDTO resolveCandidates(UserQueryDTO query) {
+        if (query == null) {
+            return null;
+        }
+        Set<Long> candidateIds = searchIndexService.matchUsers(query);
+        if (candidateIds == null) {
+            return query;
+        }
+        UserQueryDTO resolved = new UserQueryDTO();
+        BeanUtils.copyProperties(query, resolved);
+        resolved.setCandidateIds(candidateIds);
+        return resolved;
+    }
+
+    /**
+     * 启用状态对应的启用用户数
+     */
+    private static long enabledCount(Boolean isEnabled) {
+        return Boolean.TRUE.equals(isEnabled) ? 1 : 0;
     }
 
     @Override
@@ -90,9 +170,13 @@ public class UserServiceImpl implements UserService {
         }
         // 如果密码不为空，加密密码
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            user.setPassword(SecurityUtil.encodePassword(user.getPassword()));
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
         }
         userMapper.insert(user);
+        searchIndexService.refreshUsers(List.of(user.getId()));
+        entityCounterService.add(Counter.USERS, 1);
+        entityCounterService.add(Counter.ENABLED_USERS, enabledCount(user.getIsEnabled()));
+        domainEventBus.publish(DomainEvent.Type.USER_CREATED, user.getId());
         log.info("保存用户成功，ID: {}", user.getId());
     }
 
@@ -112,13 +196,17 @@ public class UserServiceImpl implements UserService {
 
         // 如果密码不为空，加密密码；否则保持原密码
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            user.setPassword(SecurityUtil.encodePassword(user.getPassword()));
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
         } else {
             // 保持原密码
             user.setPassword(existUser.getPassword());
         }
 
         userMapper.updateById(user);
+        searchIndexService.refreshUsers(List.of(user.getId()));
+        entityCounterService.add(Counter.ENABLED_USERS,
+                enabledCount(user.getIsEnabled()) - enabledCount(existUser.getIsEnabled()));
+        domainEventBus.publish(DomainEvent.Type.USER_UPDATED, user.getId());
         log.info("更新用户成功，ID: {}", user.getId());
     }
 
@@ -130,6 +218,8 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
         userMapper.updateStatusById(id, isEnabled);
+        entityCounterService.add(Counter.ENABLED_USERS, enabledCount(isEnabled) - enabledCount(existUser.getIsEnabled()));
+        domainEventBus.publish(DomainEvent.Type.USER_UPDATED, id);
         log.info("更新用户状态成功，ID: {}, 状态: {}", id, isEnabled ? "启用" : "禁用");
     }
 
@@ -141,27 +231,47 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
         userMapper.deleteById(id);
+        searchIndexService.refreshUsers(List.of(id));
+        entityCounterService.add(Counter.USERS, -1);
+        entityCounterService.add(Counter.ENABLED_USERS, -enabledCount(user.getIsEnabled()));
+        domainEventBus.publish(DomainEvent.Type.USER_DELETED, id);
         log.info("删除用户成功，ID: {}", id);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void batchDeleteUsers(List<Long> ids) {
+    public BatchProgress batchDeleteUsers(List<Long> ids, Consumer<BatchProgress> progress) {
         if (ids == null || ids.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAM_ERROR, "用户ID列表不能为空");
         }
-        int count = userMapper.batchDeleteByIds(ids);
-        log.info("批量删除用户成功，删除数量: {}", count);
+        try {
+            return batchOperationExecutor.execute("批量删除用户", ids, chunk -> {
+                int count = userMapper.batchDeleteByIds(chunk);
+                searchIndexService.refreshUsers(chunk);
+                entityCounterService.add(Counter.USERS, -count);
+                // 不知道删除的用户中有多少是启用的，重新校准
+                entityCounterService.invalidate(Counter.ENABLED_USERS);
+                return count;
+            }, progress);
+        } finally {
+            // 中途失败时已提交的块同样需要通知
+            domainEventBus.publish(DomainEvent.Type.USER_DELETED, null);
+        }
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void batchUpdateUserStatus(List<Long> ids, Boolean isEnabled) {
+    public BatchProgress batchUpdateUserStatus(List<Long> ids, Boolean isEnabled, Consumer<BatchProgress> progress) {
         if (ids == null || ids.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAM_ERROR, "用户ID列表不能为空");
         }
-        int count = userMapper.batchUpdateStatus(ids, isEnabled);
-        log.info("批量更新用户状态成功，更新数量: {}, 状态: {}", count, isEnabled ? "启用" : "禁用");
+        try {
+            return batchOperationExecutor.execute(isEnabled ? "批量启用用户" : "批量禁用用户", ids, chunk -> {
+                int count = userMapper.batchUpdateStatus(chunk, isEnabled);
+                entityCounterService.invalidate(Counter.ENABLED_USERS);
+                return count;
+            }, progress);
+        } finally {
+            domainEventBus.publish(DomainEvent.Type.USER_UPDATED, null);
+        }
     }
 
     @Override
@@ -174,18 +284,25 @@ public class UserServiceImpl implements UserService {
         }
 
         // 验证旧密码是否正确
-        if (!SecurityUtil.matches(oldPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(oldPassword, user.getPassword())) {
             throw new BusinessException(ErrorCode.USERNAME_OR_PASSWORD_ERROR.getCode(), "原密码不正确");
         }
 
         // 加密新密码
-        String encodedPassword = SecurityUtil.encodePassword(newPassword);
+        String encodedPassword = passwordHashingService.encode(newPassword);
 
         // 更新密码
         userMapper.updatePasswordById(userId, encodedPassword);
         log.info("修改密码成功，用户ID: {}", userId);
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void updatePasswordHash(Long userId, String encodedPassword) {
+        userMapper.updatePasswordById(userId, encodedPassword);
+        log.info("密码已按当前算法重新哈希，用户ID: {}", userId);
+    }
+
     @Override
     public List<Long> getUserRoleIds(Long userId) {
         return userRoleMapper.selectRoleIdsByUserId(userId);
@@ -193,28 +310,112 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void assignRoles(Long userId, List<Long> roleIds) {
-        // 验证用户是否存在
-        User user = userMapper.selectById(userId);
+    public AssignmentChange assignRoles(Long userId, List<Long> roleIds) {
+        // 验证用户是否存在，并锁定用户行，使并发的分配按顺序基于最新的关联计算差异
+        User user = userMapper.selectByIdForUpdate(userId);
         if (user == null) {
             throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
 
-        // 先删除用户的所有角色关联
-        userRoleMapper.deleteByUserId(userId);
+        // 与当前角色比较，只写入变化的关联；无变化时不使权限缓存失效
+        AssignmentChange change = AssignmentChange.diff(userId,
+                userRoleMapper.selectRoleIdsByUserId(userId), roleIds);
+        if (change.isEmpty()) {
+            return change;
+        }
+        for (List<Long> chunk : ChunkUtil.partition(change.getRemoved(), assignmentConfig.getChunkSize())) {
+            userRoleMapper.deleteByUserIdAndRoleIds(userId, chunk);
+        }
+        for (List<Long> chunk : ChunkUtil.partition(change.getAdded(), assignmentConfig.getChunkSize())) {
+            userRoleMapper.insertIgnoreBatch(userId, chunk);
+        }
+
+        // 使已缓存的用户权限快照失效
+        authorityCacheService.bumpVersion();
+
+        domainEventBus.publish(DomainEvent.Type.ROLE_ASSIGNED, userId);
+        log.info("分配用户角色成功，用户ID: {}, 新增: {}, 移除: {}, 未变: {}",
+                userId, change.getAdded().size(), change.getRemoved().size(), change.getUnchanged());
+        return change;
+    }
+
+    @Override
+    public BulkRoleAssignment bulkAssignRoles(Collection<Long> userIds, Collection<Long> roleIds,
+                                              Consumer<BulkRoleAssignment> progress) {
+        return bulkApply(userIds, roleIds, false, progress);
+    }
 
-        // 如果有角色ID，则批量插入
-        if (roleIds != null && !roleIds.isEmpty()) {
-            userRoleMapper.insertBatch(userId, roleIds);
+    @Override
+    public BulkRoleAssignment bulkRevokeRoles(Collection<Long> userIds, Collection<Long> roleIds,
+                                              Consumer<BulkRoleAssignment> progress) {
+        return bulkApply(userIds, roleIds, true, progress);
+    }
+
+    /**
+     * 按块批量写入用户角色关联
+     * 每块的行数（用户数 × 角色数）不超过 assignment.chunk-size，每块在独立事务中提交，
+     * 避免长事务长时间持有 sys_user_role 的行锁
+     */
+    private BulkRoleAssignment bulkApply(Collection<Long> userIds, Collection<Long> roleIds, boolean revoke,
+                                         Consumer<BulkRoleAssignment> progress) {
+        List<Long> users = distinct(userIds);
+        List<Long> roles = distinct(roleIds);
+        if (users.size() > assignmentConfig.getMaxBulkUsers()) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR,
+                    "批量操作用户数超过上限: " + assignmentConfig.getMaxBulkUsers());
+        }
+
+        BulkRoleAssignment result = new BulkRoleAssignment();
+        result.setRevoke(revoke);
+        result.setTotalUsers(roles.isEmpty() ? 0 : users.size());
+        result.setRoleCount(roles.size());
+        if (result.getTotalUsers() == 0) {
+            return result;
         }
 
-        log.info("分配用户角色成功，用户ID: {}, 角色ID列表: {}", userId, roleIds);
+        long start = System.currentTimeMillis();
+        int usersPerChunk = Math.max(1, assignmentConfig.getChunkSize() / roles.size());
+        try {
+            for (List<Long> chunk : ChunkUtil.partition(users, usersPerChunk)) {
+                Integer rows = transactionTemplate.execute(status -> revoke
+                        ? userRoleMapper.deleteByUserIdsAndRoleIds(chunk, roles)
+                        : userRoleMapper.insertIgnoreForUsers(chunk, roles));
+                result.setAffectedRows(result.getAffectedRows() + (rows != null ? rows : 0));
+                result.setProcessedUsers(result.getProcessedUsers() + chunk.size());
+                result.setChunks(result.getChunks() + 1);
+                result.setElapsedMillis(System.currentTimeMillis() - start);
+                if (progress != null) {
+                    // 回调可能在其他线程读取，传入快照而不是仍在更新的结果对象
+                    progress.accept(result.snapshot());
+                }
+            }
+        } finally {
+            // 已提交的块同样需要使权限缓存失效，即使后续块失败
+            if (result.getAffectedRows() > 0) {
+                authorityCacheService.bumpVersion();
+                domainEventBus.publish(DomainEvent.Type.ROLE_ASSIGNED, null);
+            }
+        }
+
+        log.info("批量{}用户角色完成，用户数: {}, 角色数: {}, 分块: {}, 影响行数: {}, 耗时: {}ms",
+                revoke ? "撤销" : "分配", result.getProcessedUsers(), result.getRoleCount(),
+                result.getChunks(), result.getAffectedRows(), result.getElapsedMillis());
+        return result;
+    }
+
+    private static List<Long> distinct(Collection<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void removeUserRole(Long userId, Long roleId) {
         userRoleMapper.deleteByUserIdAndRoleId(userId, roleId);
+        authorityCacheService.bumpVersion();
+        domainEventBus.publish(DomainEvent.Type.ROLE_ASSIGNED, userId);
         log.info("移除用户角色成功，用户ID: {}, 角色ID: {}", userId, roleId);
     }
 }
@@ -0,0 +1,143 @@
+package com.admin.util;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限标识索引
+ * 将权限字符串（权限编码、ROLE_ 角色）映射为全局唯一的整数ID，
+ * 使权限集合可以用位图表示，成员判断为一次位运算。
+ * 启动时按 sys_permission 预先注册权限编码，使常用ID连续且较小；ID 只增不回收，已生成的位图始终有效。
+ * 每个ID对应一个共享的 GrantedAuthority 实例，所有会话共用，不再为每个会话复制权限字符串
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public final class AuthorityIndex {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    /**
+     * ID -> 共享的权限实例，只在持有类锁时扩容和写入；实例写入后才在 IDS 中发布对应的ID
+     */
+    private static volatile GrantedAuthority[] authorities = new GrantedAuthority[64];
+    private static int nextId;
+
+    private AuthorityIndex() {
+    }
+
+    /**
+     * 获取权限标识对应的整数ID，不存在时分配新ID
+     *
+     * @param authority 权限标识
+     * @return 整数ID
+     */
+    public static int idOf(String authority) {
+        Integer id = IDS.get(authority);
+        if (id != null) {
+            return id;
+        }
+        return register(authority);
+    }
+
+    /**
+     * 查询已注册的权限标识对应的整数ID，不注册新ID（用于权限判断，任意字符串不会扩充字典）
+     *
+     * @param authority 权限标识
+     * @return 整数ID，未注册时返回 -1
+     */
+    public static int lookup(String authority) {
+        Integer id = authority != null ? IDS.get(authority) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 批量注册权限标识（启动时按权限字典预加载）
+     *
+     * @param values 权限标识
+     */
+    public static void registerAll(Collection<String> values) {
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                idOf(value);
+            }
+        }
+    }
+
+    /**
+     * 获取ID对应的共享权限实例
+     *
+     * @param id 整数ID
+     * @return 权限实例
+     */
+    public static GrantedAuthority authorityOf(int id) {
+        return authorities[id];
+    }
+
+    /**
+     * 已注册的权限标识数量
+     *
+     * @return 数量
+     */
+    public static int size() {
+        return IDS.size();
+    }
+
+    /**
+     * 将权限集合转换为位图
+     *
+     * @param authorities 权限集合
+     * @return 位图
+     */
+    public static long[] toBits(Collection<? extends GrantedAuthority> authorities) {
+        long[] bits = new long[(size() >>> 6) + 1];
+        for (GrantedAuthority authority : authorities) {
+            String value = authority.getAuthority();
+            if (value == null) {
+                continue;
+            }
+            int id = idOf(value);
+            if ((id >>> 6) >= bits.length) {
+                bits = Arrays.copyOf(bits, (id >>> 6) + 1);
+            }
+            bits[id >>> 6] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     * 判断位图中是否包含指定ID
+     *
+     * @param bits 位图
+     * @param id   整数ID
+     * @return 是否包含
+     */
+    public static boolean contains(long[] bits, int id) {
+        if (id < 0) {
+            return false;
+        }
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    private static synchronized int register(String authority) {
+        Integer existing = IDS.get(authority);
+        if (existing != null) {
+            return existing;
+        }
+        int id = nextId++;
+        GrantedAuthority[] current = authorities;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[id] = new SimpleGrantedAuthority(authority);
+        authorities = current;
+        // 先写入权限实例再发布ID，其他线程拿到ID时一定能取到实例
+        IDS.put(authority, id);
+        return id;
+    }
+}
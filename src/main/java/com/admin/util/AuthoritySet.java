@@ -0,0 +1,159 @@
+package com.admin.util;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 位图表示的不可变权限集合
+ * 每个会话只保存一个 long[] 位图，元素为 {@link AuthorityIndex} 中共享的 GrantedAuthority 实例；
+ * contains 和 {@link #has(int)} 为一次位运算。
+ * 序列化时写出权限字符串，反序列化时重新映射ID（ID 只在当前 JVM 内有效）
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public final class AuthoritySet extends AbstractCollection<GrantedAuthority> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private transient long[] bits;
+    private transient int size;
+
+    private AuthoritySet(long[] bits) {
+        this.bits = bits;
+        this.size = countBits(bits);
+    }
+
+    /**
+     * 由权限集合创建
+     *
+     * @param authorities 权限集合
+     * @return 权限位图集合
+     */
+    public static AuthoritySet of(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities instanceof AuthoritySet set) {
+            return set;
+        }
+        return new AuthoritySet(trim(AuthorityIndex.toBits(authorities)));
+    }
+
+    /**
+     * 是否包含指定权限，未注册的权限标识一定不包含（不会注册到字典中）
+     *
+     * @param authority 权限标识
+     * @return 是否包含
+     */
+    public boolean has(String authority) {
+        return has(AuthorityIndex.lookup(authority));
+    }
+
+    /**
+     * 是否包含指定权限ID
+     *
+     * @param id 权限ID
+     * @return 是否包含
+     */
+    public boolean has(int id) {
+        return AuthorityIndex.contains(bits, id);
+    }
+
+    /**
+     * 权限位图（只读，调用方不得修改）
+     *
+     * @return 位图
+     */
+    public long[] bits() {
+        return bits;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof GrantedAuthority authority && authority.getAuthority() != null && has(authority.getAuthority());
+    }
+
+    @Override
+    public Iterator<GrantedAuthority> iterator() {
+        return new Iterator<>() {
+            private int word;
+            private long remaining = bits.length > 0 ? bits[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (remaining == 0 && word + 1 < bits.length) {
+                    remaining = bits[++word];
+                }
+                return remaining != 0;
+            }
+
+            @Override
+            public GrantedAuthority next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int id = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return AuthorityIndex.authorityOf(id);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        List<String> values = new ArrayList<>(size);
+        for (GrantedAuthority authority : this) {
+            values.add(authority.getAuthority());
+        }
+        out.writeObject(values);
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        List<String> values = (List<String>) in.readObject();
+        long[] result = new long[1];
+        for (String value : values) {
+            int id = AuthorityIndex.idOf(value);
+            if ((id >>> 6) >= result.length) {
+                result = Arrays.copyOf(result, (id >>> 6) + 1);
+            }
+            result[id >>> 6] |= 1L << id;
+        }
+        this.bits = trim(result);
+        this.size = countBits(this.bits);
+    }
+
+    private static long[] trim(long[] bits) {
+        int length = bits.length;
+        while (length > 1 && bits[length - 1] == 0) {
+            length--;
+        }
+        return length == bits.length ? bits : Arrays.copyOf(bits, length);
+    }
+
+    private static int countBits(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,111 @@
+package com.admin.util;
+
+import com.admin.dto.BatchProgress;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 批量操作界面工具类
+ * 在虚拟线程中执行分块批量操作，不占用 Vaadin 会话锁；执行期间显示进度条，
+ * 每提交一块后通过 UI.access 更新进度，依赖 @Push 推送到浏览器
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+public class BatchOperationUtil {
+
+    /**
+     * 进度推送的最小间隔，避免分块很小时频繁推送
+     */
+    private static final long PROGRESS_INTERVAL_NANOS = 200_000_000L;
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private BatchOperationUtil() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 在后台执行批量操作并显示进度
+     *
+     * @param operation 批量操作，参数为进度回调（在后台线程中调用，不能访问 UI 组件）
+     * @param onSuccess 完成后在 UI 线程中调用
+     * @param onError   失败后在 UI 线程中调用；已提交的块不会回滚
+     */
+    public static void run(Function<Consumer<BatchProgress>, BatchProgress> operation,
+                           Consumer<BatchProgress> onSuccess,
+                           Consumer<Exception> onError) {
+        UI ui = UI.getCurrent();
+        if (ui == null) {
+            // 没有 UI 上下文时同步执行
+            try {
+                onSuccess.accept(operation.apply(null));
+            } catch (Exception e) {
+                onError.accept(e);
+            }
+            return;
+        }
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setIndeterminate(true);
+        Span progressText = new Span(I18NUtil.get("common.batch.processing"));
+        VerticalLayout layout = new VerticalLayout(progressText, progressBar);
+        layout.setPadding(false);
+        layout.setSpacing(false);
+        layout.setWidth("280px");
+
+        Notification notification = new Notification(layout);
+        notification.setPosition(Notification.Position.BOTTOM_END);
+        notification.setDuration(0);
+        notification.open();
+
+        long[] lastPush = {0};
+        Consumer<BatchProgress> progress = p -> {
+            long now = System.nanoTime();
+            if (!p.isCompleted() && now - lastPush[0] < PROGRESS_INTERVAL_NANOS) {
+                return;
+            }
+            lastPush[0] = now;
+            access(ui, () -> {
+                progressBar.setIndeterminate(false);
+                progressBar.setValue(p.getTotal() > 0 ? (double) p.getProcessed() / p.getTotal() : 1);
+                progressText.setText(I18NUtil.get("common.batch.progress", p.getProcessed(), p.getTotal()));
+            });
+        };
+
+        EXECUTOR.execute(new DelegatingSecurityContextRunnable(() -> {
+            try {
+                BatchProgress result = operation.apply(progress);
+                access(ui, () -> {
+                    notification.close();
+                    onSuccess.accept(result);
+                });
+            } catch (Exception e) {
+                access(ui, () -> {
+                    notification.close();
+                    onError.accept(e);
+                });
+            }
+        }));
+    }
+
+    private static void access(UI ui, Runnable command) {
+        try {
+            ui.access(command::run);
+        } catch (UIDetachedException e) {
+            log.debug("界面已分离，忽略批量操作进度");
+        }
+    }
+}
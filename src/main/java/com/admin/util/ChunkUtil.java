@@ -0,0 +1,38 @@
+package com.admin.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分块工具类
+ * 将大列表按固定大小切分，避免单条 SQL 的 IN 列表或 VALUES 过长
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public final class ChunkUtil {
+
+    private ChunkUtil() {
+    }
+
+    /**
+     * 按固定大小切分列表（返回原列表的视图）
+     *
+     * @param list 列表
+     * @param size 每块大小
+     * @param <T>  元素类型
+     * @return 分块列表
+     */
+    public static <T> List<List<T>> partition(List<T> list, int size) {
+        if (list == null || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int chunkSize = Math.max(1, size);
+        List<List<T>> chunks = new ArrayList<>((list.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < list.size(); from += chunkSize) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+}
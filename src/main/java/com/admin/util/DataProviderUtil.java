@@ -5,7 +5,12 @@ import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
 import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.SortOrder;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -19,6 +24,11 @@ import java.util.stream.Stream;
  */
 public class DataProviderUtil {
 
+    /**
+     * 默认总数缓存时长
+     */
+    public static final Duration DEFAULT_COUNT_TTL = Duration.ofSeconds(30);
+
     /**
      * 创建分页 DataProvider（使用自定义分页请求）
      *
@@ -36,36 +46,8 @@ public class DataProviderUtil {
         return new AbstractBackEndDataProvider<T, Void>() {
             @Override
             protected Stream<T> fetchFromBackEnd(Query<T, Void> query) {
-                // 必须调用 getLimit() 或 getPageSize() 以满足 Vaadin 的契约要求
-                int limit = query.getLimit();
-                int offset = query.getOffset();
-                
-                // 计算页码（从1开始）
-                int pageSize = limit > 0 ? limit : 10; // 默认每页10条
-                int pageNum = (offset / pageSize) + 1;
-                
-                // 获取当前分页请求（用于获取排序字段等额外信息）
-                PageRequest pageRequest = pageRequestSupplier.get();
-                if (pageRequest == null) {
-                    pageRequest = new PageRequest();
-                }
-                
-                // 创建一个新的 PageRequest 副本，使用 Vaadin Query 的分页参数
-                PageRequest request = new PageRequest();
-                request.setPageNum(pageNum);
-                request.setPageSize(pageSize);
-                request.setSortField(pageRequest.getSortField());
-                request.setSortOrder(pageRequest.getSortOrder());
-                
-                // 处理排序（优先使用 Grid 的排序，如果没有则使用分页请求的排序）
-                if (query.getSortOrders() != null && !query.getSortOrders().isEmpty()) {
-                    SortOrder<?> sortOrder = query.getSortOrders().get(0);
-                    String sortField = getSortField(sortOrder);
-                    if (sortField != null) {
-                        request.setSortField(sortField);
-                        request.setSortOrder(sortOrder.getDirection() == com.vaadin.flow.data.provider.SortDirection.ASCENDING ? "ASC" : "DESC");
-                    }
-                }
+                // 使用 Vaadin Query 的分页参数，排序优先使用 Grid 的排序
+                PageRequest request = toPageRequest(query, pageRequestSupplier.get());
                 
                 // 获取查询条件
                 Q queryDTO = querySupplier.get();
@@ -93,6 +75,7 @@ public class DataProviderUtil {
                 PageRequest countRequest = new PageRequest();
                 countRequest.setPageNum(1);
                 countRequest.setPageSize(1);
+                countRequest.setCountOnly(true);
                 
                 // 获取查询条件
                 Q queryDTO = querySupplier.get();
@@ -107,41 +90,379 @@ public class DataProviderUtil {
                 
                 return 0;
             }
-            
+
+        };
+    }
+
+    /**
+     * 创建 keyset（游标）分页 DataProvider
+     * Grid 顺序滚动时，以上一页最后一条记录为游标查询下一页，避免大偏移量的 LIMIT offset；
+     * 跳转到未加载过的位置时退回页码分页
+     *
+     * @param querySupplier 查询条件提供者（用于获取当前查询条件）
+     * @param pageFunction  分页查询函数，接收 PageRequest 和查询条件，返回 PageResult
+     * @param seekFunction  游标函数，接收查询条件和上一页最后一条记录，返回定位到该记录之后的查询条件
+     * @param <T> 实体类型
+     * @param <Q> 查询条件类型
+     * @return DataProvider
+     */
+    public static <T, Q> AbstractBackEndDataProvider<T, Void> createKeysetDataProvider(
+            Supplier<Q> querySupplier,
+            BiFunction<PageRequest, Q, PageResult<T>> pageFunction,
+            BiFunction<Q, T, Q> seekFunction) {
+        return new AbstractBackEndDataProvider<T, Void>() {
             /**
-             * 从 SortOrder 中提取排序字段名
-             * 支持通过 getSorted() 方法获取字段名，或通过反射获取
+             * 偏移量 -> 该偏移量之前的最后一条记录
              */
-            private String getSortField(SortOrder<?> sortOrder) {
-                try {
-                    // 尝试通过 getSorted() 方法获取
-                    Object sorted = sortOrder.getSorted();
-                    if (sorted != null) {
-                        // 如果是方法引用，尝试获取方法名
-                        String sortedStr = sorted.toString();
-                        // 处理 Lambda 表达式和方法引用
-                        // 例如: "User::getId" -> "id"
-                        if (sortedStr.contains("::")) {
-                            String[] parts = sortedStr.split("::");
-                            if (parts.length == 2) {
-                                String methodName = parts[1].trim();
-                                // 移除 get 前缀并转换为小写
-                                if (methodName.startsWith("get")) {
-                                    String fieldName = methodName.substring(3);
-                                    // 首字母小写
-                                    if (fieldName.length() > 0) {
-                                        return fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
-                                    }
-                                }
+            private final Map<Integer, T> boundaries = new ConcurrentHashMap<>();
+
+            @Override
+            protected Stream<T> fetchFromBackEnd(Query<T, Void> query) {
+                int limit = query.getLimit();
+                int offset = query.getOffset();
+                int pageSize = limit > 0 ? limit : 10;
+
+                Q queryDTO = querySupplier.get();
+                PageRequest request = new PageRequest();
+                request.setPageSize(pageSize);
+
+                T boundary = offset > 0 ? boundaries.get(offset) : null;
+                if (boundary != null) {
+                    // 顺序滚动：从上一页最后一条记录之后开始查询
+                    request.setPageNum(1);
+                    queryDTO = seekFunction.apply(queryDTO, boundary);
+                } else {
+                    request.setPageNum((offset / pageSize) + 1);
+                }
+
+                PageResult<T> pageResult = pageFunction.apply(request, queryDTO);
+                if (pageResult == null || pageResult.getData() == null || pageResult.getData().getList() == null) {
+                    return Stream.empty();
+                }
+
+                List<T> list = pageResult.getData().getList();
+                if (!list.isEmpty()) {
+                    boundaries.put(offset + list.size(), list.get(list.size() - 1));
+                }
+                return list.stream();
+            }
+
+            @Override
+            protected int sizeInBackEnd(Query<T, Void> query) {
+                PageRequest countRequest = new PageRequest();
+                countRequest.setPageNum(1);
+                countRequest.setPageSize(1);
+                countRequest.setCountOnly(true);
+
+                PageResult<T> pageResult = pageFunction.apply(countRequest, querySupplier.get());
+                if (pageResult != null && pageResult.getData() != null) {
+                    Long total = pageResult.getData().getTotal();
+                    return total != null ? total.intValue() : 0;
+                }
+                return 0;
+            }
+
+            @Override
+            public void refreshAll() {
+                // 查询条件可能已变化，游标全部失效
+                boundaries.clear();
+                super.refreshAll();
+            }
+        };
+    }
+
+    /**
+     * 创建缓存总数的分页 DataProvider
+     * 总数按查询条件缓存 countTtl 时长，翻页和滚动只查询当前页数据（不执行 COUNT），
+     * 查询条件变化或调用 refreshAll() 后重新统计
+     *
+     * @param querySupplier       查询条件提供者（查询条件需实现 equals/hashCode）
+     * @param pageRequestSupplier 分页请求提供者（用于获取排序字段等额外信息）
+     * @param pageFunction        分页查询函数，接收 PageRequest 和查询条件，返回 PageResult
+     * @param countTtl            总数缓存时长
+     * @param <T> 实体类型
+     * @param <Q> 查询条件类型
+     * @return DataProvider
+     */
+    public static <T, Q> PagedDataProvider<T, Q> createCountCachingDataProvider(
+            Supplier<Q> querySupplier,
+            Supplier<PageRequest> pageRequestSupplier,
+            BiFunction<PageRequest, Q, PageResult<T>> pageFunction,
+            Duration countTtl) {
+        return new PagedDataProvider<>(querySupplier, pageRequestSupplier, pageFunction, countTtl);
+    }
+
+    /**
+     * 创建缓存总数的分页 DataProvider，总数缓存 {@link #DEFAULT_COUNT_TTL}
+     *
+     * @see #createCountCachingDataProvider(Supplier, Supplier, BiFunction, Duration)
+     */
+    public static <T, Q> PagedDataProvider<T, Q> createCountCachingDataProvider(
+            Supplier<Q> querySupplier,
+            Supplier<PageRequest> pageRequestSupplier,
+            BiFunction<PageRequest, Q, PageResult<T>> pageFunction) {
+        return createCountCachingDataProvider(querySupplier, pageRequestSupplier, pageFunction, DEFAULT_COUNT_TTL);
+    }
+
+    /**
+     * 根据 Grid 查询和当前分页请求构建分页请求
+     */
+    private static <T> PageRequest toPageRequest(Query<T, Void> query, PageRequest pageRequest) {
+        // 必须调用 getLimit() 或 getPageSize() 以满足 Vaadin 的契约要求
+        int limit = query.getLimit();
+        int offset = query.getOffset();
+        int pageSize = limit > 0 ? limit : 10;
+
+        PageRequest request = new PageRequest();
+        request.setPageNum((offset / pageSize) + 1);
+        request.setPageSize(pageSize);
+        if (pageRequest != null) {
+            request.setSortField(pageRequest.getSortField());
+            request.setSortOrder(pageRequest.getSortOrder());
+        }
+
+        // 处理排序（优先使用 Grid 的排序，如果没有则使用分页请求的排序）
+        if (query.getSortOrders() != null && !query.getSortOrders().isEmpty()) {
+            SortOrder<?> sortOrder = query.getSortOrders().get(0);
+            String sortField = getSortField(sortOrder);
+            if (sortField != null) {
+                request.setSortField(sortField);
+                request.setSortOrder(sortOrder.getDirection() == com.vaadin.flow.data.provider.SortDirection.ASCENDING ? "ASC" : "DESC");
+            }
+        }
+        return request;
+    }
+
+    /**
+     * 从 SortOrder 中提取排序字段名
+     * 支持通过 getSorted() 方法获取字段名，或通过反射获取
+     */
+    private static String getSortField(SortOrder<?> sortOrder) {
+        try {
+            // 尝试通过 getSorted() 方法获取
+            Object sorted = sortOrder.getSorted();
+            if (sorted != null) {
+                // 如果是方法引用，尝试获取方法名
+                String sortedStr = sorted.toString();
+                // 处理 Lambda 表达式和方法引用
+                // 例如: "User::getId" -> "id"
+                if (sortedStr.contains("::")) {
+                    String[] parts = sortedStr.split("::");
+                    if (parts.length == 2) {
+                        String methodName = parts[1].trim();
+                        // 移除 get 前缀并转换为小写
+                        if (methodName.startsWith("get")) {
+                            String fieldName = methodName.substring(3);
+                            // 首字母小写
+                            if (fieldName.length() > 0) {
+                                return fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
                             }
                         }
                     }
-                } catch (Exception e) {
-                    // 忽略异常，使用默认处理
                 }
+            }
+        } catch (Exception e) {
+            // 忽略异常，使用默认处理
+        }
+        return null;
+    }
+
+    /**
+     * 缓存总数的分页 DataProvider
+     * Grid 滚动时每次只执行一条分页 SQL，顺序滚动时使用 keyset 游标；分页栏通过 {@link #summarize(PageRequest)} 复用缓存的总数
+     *
+     * @param <T> 实体类型
+     * @param <Q> 查询条件类型
+     */
+    public static class PagedDataProvider<T, Q> extends AbstractBackEndDataProvider<T, Void> {
+
+        private final Supplier<Q> querySupplier;
+        private final Supplier<PageRequest> pageRequestSupplier;
+        private final BiFunction<PageRequest, Q, PageResult<T>> pageFunction;
+        private final long countTtlNanos;
+
+        /**
+         * 最近一次统计的总数
+         */
+        private volatile CountEntry countEntry;
+
+        /**
+         * 偏移量 -> 从该偏移量开始的下一页游标
+         */
+        private final Map<Integer, String> cursors = new ConcurrentHashMap<>();
+
+        /**
+         * 后台预加载的第一页数据，Grid 下次从偏移量 0 查询时直接使用
+         */
+        private volatile PreloadEntry<T> preloaded;
+
+        private PagedDataProvider(Supplier<Q> querySupplier,
+                                  Supplier<PageRequest> pageRequestSupplier,
+                                  BiFunction<PageRequest, Q, PageResult<T>> pageFunction,
+                                  Duration countTtl) {
+            this.querySupplier = querySupplier;
+            this.pageRequestSupplier = pageRequestSupplier;
+            this.pageFunction = pageFunction;
+            this.countTtlNanos = countTtl.toNanos();
+        }
+
+        @Override
+        protected Stream<T> fetchFromBackEnd(Query<T, Void> query) {
+            PageRequest request = toPageRequest(query, pageRequestSupplier.get());
+            request.setCount(false);
+
+            int offset = query.getOffset();
+            if (offset == 0) {
+                List<T> list = takePreloaded(request, query.getLimit());
+                if (list != null) {
+                    return list.stream();
+                }
+            }
+
+            // 顺序滚动：使用上一页返回的游标，避免大偏移量的 LIMIT offset
+            String cursor = offset > 0 ? cursors.get(offset) : null;
+            if (cursor != null) {
+                request.setCursor(cursor);
+            }
+
+            PageResult<T> pageResult = pageFunction.apply(request, querySupplier.get());
+            if (pageResult == null || pageResult.getData() == null || pageResult.getData().getList() == null) {
+                return Stream.empty();
+            }
+
+            List<T> list = pageResult.getData().getList();
+            String nextCursor = pageResult.getData().getNextCursor();
+            if (nextCursor != null && !list.isEmpty()) {
+                cursors.put(offset + list.size(), nextCursor);
+            }
+            return list.stream();
+        }
+
+        @Override
+        protected int sizeInBackEnd(Query<T, Void> query) {
+            return (int) getTotal();
+        }
+
+        @Override
+        public void refreshAll() {
+            // 数据可能已变更，下次访问时重新统计总数，游标和预加载数据全部失效
+            countEntry = null;
+            preloaded = null;
+            cursors.clear();
+            super.refreshAll();
+        }
+
+        /**
+         * 查询条件变化后刷新：保留已缓存的总数（缓存按查询条件区分），只清空游标
+         */
+        public void refreshQuery() {
+            cursors.clear();
+            super.refreshAll();
+        }
+
+        /**
+         * 获取当前查询条件的总记录数，缓存有效时不查询数据库
+         *
+         * @return 总记录数
+         */
+        public long getTotal() {
+            return getTotal(querySupplier.get());
+        }
+
+        /**
+         * 获取指定查询条件的总记录数并缓存，可在后台线程调用以预热总数
+         *
+         * @param queryDTO 查询条件
+         * @return 总记录数
+         */
+        public long getTotal(Q queryDTO) {
+            CountEntry entry = countEntry;
+            long now = System.nanoTime();
+            if (entry != null && Objects.equals(entry.query(), queryDTO) && now - entry.expiresAt() < 0) {
+                return entry.total();
+            }
+
+            PageRequest countRequest = new PageRequest();
+            countRequest.setPageNum(1);
+            countRequest.setPageSize(1);
+            countRequest.setCountOnly(true);
+            PageResult<T> pageResult = pageFunction.apply(countRequest, queryDTO);
+            long total = 0;
+            if (pageResult != null && pageResult.getData() != null && pageResult.getData().getTotal() != null) {
+                total = pageResult.getData().getTotal();
+            }
+            countEntry = new CountEntry(queryDTO, total, now + countTtlNanos);
+            return total;
+        }
+
+        /**
+         * 在后台线程预加载指定查询条件的总数和第一页数据，
+         * 之后在 UI 线程刷新 Grid 时不再查询数据库，避免在持有会话锁时执行 SQL
+         *
+         * @param queryDTO 查询条件
+         * @param request  分页请求（每页大小和排序，在 UI 线程中生成的副本）
+         * @return 总记录数
+         */
+        public long preload(Q queryDTO, PageRequest request) {
+            long total = getTotal(queryDTO);
+
+            PageRequest pageRequest = new PageRequest();
+            pageRequest.setPageNum(1);
+            pageRequest.setPageSize(request.getPageSize());
+            pageRequest.setSortField(request.getSortField());
+            pageRequest.setSortOrder(request.getSortOrder());
+            pageRequest.setCount(false);
+            PageResult<T> pageResult = pageFunction.apply(pageRequest, queryDTO);
+            if (pageResult != null && pageResult.getData() != null && pageResult.getData().getList() != null) {
+                preloaded = new PreloadEntry<>(queryDTO, pageRequest, pageResult.getData().getList(),
+                        pageResult.getData().getNextCursor());
+            }
+            return total;
+        }
+
+        /**
+         * 取出与本次查询匹配的预加载数据（只使用一次），不匹配时返回 null
+         */
+        private List<T> takePreloaded(PageRequest request, int limit) {
+            PreloadEntry<T> entry = preloaded;
+            if (entry == null) {
                 return null;
             }
-        };
+            preloaded = null;
+            PageRequest loaded = entry.request();
+            if (!Objects.equals(entry.query(), querySupplier.get())
+                    || !Objects.equals(loaded.getSortField(), request.getSortField())
+                    || !Objects.equals(loaded.getSortOrder(), request.getSortOrder())
+                    || limit > loaded.getPageSize() && entry.list().size() >= loaded.getPageSize()) {
+                return null;
+            }
+            List<T> list = entry.list().subList(0, Math.min(limit, entry.list().size()));
+            if (entry.nextCursor() != null && !list.isEmpty() && list.size() == entry.list().size()) {
+                cursors.put(list.size(), entry.nextCursor());
+            }
+            return list;
+        }
+
+        /**
+         * 生成只包含分页信息（总数、页码、每页大小）的分页结果，供分页栏显示
+         *
+         * @param request 当前分页请求
+         * @return 分页结果（数据列表为空）
+         */
+        public PageResult<T> summarize(PageRequest request) {
+            return PageResult.success(Collections.emptyList(), getTotal(), request.getPageNum(), request.getPageSize());
+        }
+
+        /**
+         * 总数缓存条目
+         */
+        private record CountEntry(Object query, long total, long expiresAt) {
+        }
+
+        /**
+         * 预加载的第一页数据
+         */
+        private record PreloadEntry<T>(Object query, PageRequest request, List<T> list, String nextCursor) {
+        }
     }
 }
-
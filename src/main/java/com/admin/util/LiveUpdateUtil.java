@@ -0,0 +1,66 @@
+package com.admin.util;
+
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 实时更新工具类
+ * 组件显示期间订阅领域事件，收到（已合并限流的）事件后通过 UI.access 在界面线程中刷新，依赖 @Push 推送到浏览器
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Slf4j
+public class LiveUpdateUtil {
+
+    private LiveUpdateUtil() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 绑定实时更新：组件附加时订阅，分离时取消订阅
+     *
+     * @param component 组件
+     * @param eventBus  领域事件总线
+     * @param onUpdate  刷新操作，在界面线程中执行
+     * @param types     关注的事件类型
+     */
+    public static void bind(Component component, DomainEventBus eventBus, Runnable onUpdate, DomainEvent.Type... types) {
+        Set<DomainEvent.Type> typeSet = types.length == 0 ? EnumSet.allOf(DomainEvent.Type.class) : EnumSet.of(types[0], types);
+        Registration[] subscription = new Registration[1];
+        component.addAttachListener(attach -> {
+            UI ui = attach.getUI();
+            // 通知线程没有登录信息，沿用附加时的安全上下文；
+            // 会话空闲时 UI.access 在当前线程中执行刷新和推送（含 Grid 懒加载），都需要该上下文
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            Runnable securedAccess = new DelegatingSecurityContextRunnable(() -> ui.access(onUpdate::run), securityContext);
+            if (subscription[0] != null) {
+                subscription[0].remove();
+            }
+            subscription[0] = eventBus.subscribe(typeSet, events -> {
+                try {
+                    securedAccess.run();
+                } catch (UIDetachedException e) {
+                    log.debug("界面已分离，忽略实时更新");
+                }
+            });
+        });
+        component.addDetachListener(detach -> {
+            if (subscription[0] != null) {
+                subscription[0].remove();
+                subscription[0] = null;
+            }
+        });
+    }
+}
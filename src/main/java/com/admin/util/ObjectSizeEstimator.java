@@ -0,0 +1,254 @@
+package com.admin.util;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 对象图内存占用估算器
+ * 按 64 位 JVM、压缩指针的布局估算从根对象可达的对象大小（retained size 的近似值）。
+ * 同一个估算器多次测量时已计算过的对象不再重复计算，因此可以按“视图 -> UI -> 会话”的顺序逐层归属内存；
+ * Spring Bean、类、线程等共享对象作为边界，不计入。JDK 内部类型不做反射，集合按元素遍历并估算容器开销
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public class ObjectSizeEstimator {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    /**
+     * 类 -> 字段布局缓存
+     */
+    private static final Map<Class<?>, ClassLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private static final List<String> BOUNDARY_PACKAGES = List.of(
+            "org.springframework.", "org.apache.", "org.mybatis.", "org.slf4j.", "ch.qos.",
+            "com.zaxxer.", "jakarta.servlet.", "io.lettuce.", "io.netty.", "com.fasterxml.");
+
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Object> barriers = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Predicate<Object> boundary;
+    private final int maxObjects;
+    private int objects;
+    private boolean truncated;
+
+    /**
+     * @param boundary   额外的边界判断，返回 true 的对象不计入也不遍历
+     * @param maxObjects 最多遍历的对象数，超过后停止并标记为截断
+     */
+    public ObjectSizeEstimator(Predicate<Object> boundary, int maxObjects) {
+        this.boundary = boundary;
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * 设置临时屏障：测量时不越过这些对象，也不将其标记为已计算
+     *
+     * @param objects 屏障对象
+     */
+    public void setBarriers(Collection<?> objects) {
+        barriers.clear();
+        objects.forEach(object -> {
+            if (object != null) {
+                barriers.add(object);
+            }
+        });
+    }
+
+    /**
+     * 估算从根对象可达、且尚未计算过的对象大小
+     *
+     * @param root 根对象
+     * @return 估算字节数
+     */
+    public long measure(Object root) {
+        long bytes = 0;
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (object == null || barriers.contains(object) || !visited.add(object) || isBoundary(object)) {
+                continue;
+            }
+            if (++objects > maxObjects) {
+                truncated = true;
+                break;
+            }
+            bytes += sizeOf(object, pending);
+        }
+        return bytes;
+    }
+
+    /**
+     * 已遍历的对象数
+     */
+    public int getObjects() {
+        return objects;
+    }
+
+    /**
+     * 是否因超过最大对象数而截断
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private boolean isBoundary(Object object) {
+        Class<?> type = object.getClass();
+        String name = type.getName();
+        // 类、线程以及 Spring 代理（CGLIB 子类）
+        if (object instanceof Class<?> || object instanceof ClassLoader || object instanceof Thread
+                || name.contains("CGLIB")) {
+            return true;
+        }
+        for (String prefix : BOUNDARY_PACKAGES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return isSpringBean(type) || boundary.test(object);
+    }
+
+    private long sizeOf(Object object, Deque<Object> pending) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            return sizeOfArray(object, type.getComponentType(), pending);
+        }
+        if (object instanceof String string) {
+            // String 对象 + byte[]（Latin-1 紧凑存储）
+            return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + string.length());
+        }
+        if (isJdkType(type)) {
+            return sizeOfJdkObject(object, pending);
+        }
+        ClassLayout layout = LAYOUTS.computeIfAbsent(type, ClassLayout::new);
+        for (Field field : layout.references) {
+            try {
+                pending.push(field.get(object));
+            } catch (Exception e) {
+                // 忽略无法读取的字段
+            }
+        }
+        return layout.shallowSize;
+    }
+
+    private static long sizeOfArray(Object array, Class<?> componentType, Deque<Object> pending) {
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+        Object[] elements = (Object[]) array;
+        for (Object element : elements) {
+            pending.push(element);
+        }
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    /**
+     * JDK 类型不做反射，集合和映射按元素遍历，其他类型按固定大小估算
+     */
+    private static long sizeOfJdkObject(Object object, Deque<Object> pending) {
+        try {
+            if (object instanceof Collection<?> collection) {
+                Object[] elements = collection.toArray();
+                for (Object element : elements) {
+                    pending.push(element);
+                }
+                // 容器对象 + 内部数组/节点
+                return align(OBJECT_HEADER + 16) + align(ARRAY_HEADER + (long) elements.length * REFERENCE)
+                        + (collection instanceof List<?> ? 0 : (long) elements.length * 32);
+            }
+            if (object instanceof Map<?, ?> map) {
+                List<Map.Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+                for (Map.Entry<?, ?> entry : entries) {
+                    pending.push(entry.getKey());
+                    pending.push(entry.getValue());
+                }
+                // HashMap 对象 + table + 每个 Node 32 字节
+                return align(OBJECT_HEADER + 36) + align(ARRAY_HEADER + (long) entries.size() * 2 * REFERENCE)
+                        + (long) entries.size() * 32;
+            }
+        } catch (RuntimeException e) {
+            // 并发修改等，按空容器计算
+        }
+        return align(OBJECT_HEADER + 12);
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+
+    private static boolean isSpringBean(Class<?> type) {
+        return LAYOUTS.computeIfAbsent(type, ClassLayout::new).springBean;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) / 8 * 8;
+    }
+
+    /**
+     * 类的字段布局：浅大小和引用字段
+     */
+    private static class ClassLayout {
+        private final long shallowSize;
+        private final List<Field> references = new ArrayList<>();
+        private final boolean springBean;
+
+        ClassLayout(Class<?> type) {
+            this.springBean = !isJdkType(type) && AnnotatedElementUtils.hasAnnotation(type, Component.class);
+            long size = OBJECT_HEADER;
+            if (!isJdkType(type)) {
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        if (field.getType().isPrimitive()) {
+                            size += primitiveSize(field.getType());
+                            continue;
+                        }
+                        size += REFERENCE;
+                        try {
+                            field.setAccessible(true);
+                            references.add(field);
+                        } catch (RuntimeException e) {
+                            // 模块未开放的字段只计引用本身
+                        }
+                    }
+                }
+            }
+            this.shallowSize = align(size);
+        }
+    }
+}
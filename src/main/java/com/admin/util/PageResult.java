@@ -51,6 +51,15 @@ public class PageResult<T> implements Serializable {
         return new PageResult<>(200, "查询成功", pageData);
     }
 
+    /**
+     * 成功响应（带 keyset 分页游标）
+     */
+    public static <T> PageResult<T> success(List<T> list, Long total, Integer pageNum, Integer pageSize, String nextCursor) {
+        PageResult<T> result = success(list, total, pageNum, pageSize);
+        result.getData().setNextCursor(nextCursor);
+        return result;
+    }
+
     /**
      * 分页数据内部类
      */
@@ -77,6 +86,11 @@ public class PageResult<T> implements Serializable {
          */
         private Integer pageSize;
 
+        /**
+         * 下一页的 keyset 分页游标，没有更多数据时为 null
+         */
+        private String nextCursor;
+
         public List<T> getList() {
             return list;
         }
@@ -108,6 +122,14 @@ public class PageResult<T> implements Serializable {
         public void setPageSize(Integer pageSize) {
             this.pageSize = pageSize;
         }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
     }
 }
 
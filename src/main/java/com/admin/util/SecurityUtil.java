@@ -1,11 +1,16 @@
 package com.admin.util;
 
+import com.admin.dto.AdminPrincipal;
 import com.admin.entity.User;
+import com.admin.service.PasswordHashingService;
 import com.admin.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 /**
@@ -17,28 +22,40 @@ import org.springframework.stereotype.Component;
 @Component
 public class SecurityUtil {
 
-    private static final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder = 
-        new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
+    /**
+     * 未启动 Spring 时（如 PasswordGenerator）使用的编码器
+     */
+    private static final PasswordEncoder FALLBACK_ENCODER = new BCryptPasswordEncoder();
 
     private static UserService userService;
+    private static PasswordHashingService passwordHashingService;
 
     @Autowired
     public void setUserService(UserService userService) {
         SecurityUtil.userService = userService;
     }
 
+    @Autowired
+    public void setPasswordHashingService(PasswordHashingService passwordHashingService) {
+        SecurityUtil.passwordHashingService = passwordHashingService;
+    }
+
     /**
      * 加密密码
      */
     public static String encodePassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return passwordEncoder().encode(rawPassword);
     }
 
     /**
      * 验证密码
      */
     public static boolean matches(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordEncoder().matches(rawPassword, encodedPassword);
+    }
+
+    private static PasswordEncoder passwordEncoder() {
+        return passwordHashingService != null ? passwordHashingService : FALLBACK_ENCODER;
     }
 
     /**
@@ -57,9 +74,50 @@ public class SecurityUtil {
     }
 
     /**
-     * 获取当前登录用户
+     * 当前用户是否拥有指定权限编码
+     *
+     * @param authority 权限编码
+     * @return 是否拥有
+     */
+    public static boolean hasAuthority(String authority) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof AdminPrincipal principal) {
+            return principal.getAuthorities().has(authority);
+        }
+        for (GrantedAuthority granted : authentication.getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取当前登录用户主体
+     *
+     * @return 登录用户主体，未登录时返回 null
+     */
+    public static AdminPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof AdminPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    /**
+     * 获取当前登录用户（登录时的信息，不含密码）
      */
     public static User getCurrentUser() {
+        AdminPrincipal principal = getCurrentPrincipal();
+        if (principal != null) {
+            return principal.toUser();
+        }
+        // 非本系统登录创建的主体（如升级前的会话），退回按用户名查询
         String username = getCurrentUsername();
         if (username != null && userService != null) {
             return userService.getUserByUserName(username);
@@ -71,6 +129,10 @@ public class SecurityUtil {
      * 获取当前用户ID
      */
     public static Long getCurrentUserId() {
+        AdminPrincipal principal = getCurrentPrincipal();
+        if (principal != null) {
+            return principal.getUserId();
+        }
         User user = getCurrentUser();
         return user != null ? user.getId() : null;
     }
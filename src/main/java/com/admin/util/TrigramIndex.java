@@ -0,0 +1,212 @@
+package com.admin.util;
+
+import com.admin.entity.BaseEntity;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 内存三元组（trigram）倒排索引
+ * 为实体的多个文本字段建立索引，支持不区分大小写的子串匹配（等价于 LIKE '%term%'），
+ * 用于在查询数据库前解析候选ID，避免前导通配符导致的全表扫描
+ *
+ * @param <T> 实体类型
+ * @author Admin
+ * @date 2024-01-01
+ */
+public class TrigramIndex<T extends BaseEntity> {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Function<T, String>> extractors;
+    private final Map<String, FieldIndex> fields = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param extractors 字段名 -> 字段值获取函数
+     */
+    public TrigramIndex(Map<String, Function<T, String>> extractors) {
+        this.extractors = new LinkedHashMap<>(extractors);
+        for (String field : extractors.keySet()) {
+            fields.put(field, new FieldIndex());
+        }
+    }
+
+    /**
+     * 重建索引
+     *
+     * @param entities 全部实体
+     */
+    public void rebuild(Collection<T> entities) {
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(FieldIndex::clear);
+            for (T entity : entities) {
+                putInternal(entity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或更新实体的索引
+     *
+     * @param entity 实体
+     */
+    public void put(T entity) {
+        lock.writeLock().lock();
+        try {
+            putInternal(entity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除实体的索引
+     *
+     * @param id 实体ID
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(index -> index.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询所有字段都包含对应关键字的实体ID
+     *
+     * @param terms 字段名 -> 关键字，空关键字忽略
+     * @return 匹配的实体ID；没有有效关键字时返回 null
+     */
+    public Set<Long> search(Map<String, String> terms) {
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (Map.Entry<String, String> term : terms.entrySet()) {
+                FieldIndex index = fields.get(term.getKey());
+                if (index == null || term.getValue() == null || term.getValue().isBlank()) {
+                    continue;
+                }
+                // 后续字段只在前面字段的匹配结果中查找
+                result = index.search(normalize(term.getValue()), result);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引的实体数量
+     *
+     * @return 实体数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fields.values().stream().mapToInt(index -> index.values.size()).max().orElse(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putInternal(T entity) {
+        Long id = entity.getId();
+        for (Map.Entry<String, Function<T, String>> extractor : extractors.entrySet()) {
+            FieldIndex index = fields.get(extractor.getKey());
+            index.remove(id);
+            String value = extractor.getValue().apply(entity);
+            if (value != null && !value.isEmpty()) {
+                index.put(id, normalize(value));
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单个字段的索引：ID -> 字段值，trigram -> ID 集合
+     */
+    private static class FieldIndex {
+        private final Map<Long, String> values = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        void put(Long id, String value) {
+            values.put(id, value);
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                postings.computeIfAbsent(value.substring(i, i + GRAM), key -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String value = values.remove(id);
+            if (value == null) {
+                return;
+            }
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                String gram = value.substring(i, i + GRAM);
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            values.clear();
+            postings.clear();
+        }
+
+        /**
+         * 子串匹配
+         *
+         * @param term   已规范化的关键字
+         * @param within 仅在这些ID中查找，为 null 表示不限
+         */
+        Set<Long> search(String term, Set<Long> within) {
+            Collection<Long> candidates = within != null ? within : values.keySet();
+            if (term.length() >= GRAM) {
+                // 取最短的倒排列表作为候选集
+                for (int i = 0; i + GRAM <= term.length(); i++) {
+                    Set<Long> ids = postings.get(term.substring(i, i + GRAM));
+                    if (ids == null) {
+                        return new HashSet<>();
+                    }
+                    if (ids.size() < candidates.size()) {
+                        candidates = ids;
+                    }
+                }
+            }
+
+            // 逐个校验，排除 trigram 全部命中但不连续的情况
+            Set<Long> result = new HashSet<>();
+            for (Long id : candidates) {
+                String value = values.get(id);
+                if (value != null && value.contains(term) && (within == null || within.contains(id))) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+    }
+}
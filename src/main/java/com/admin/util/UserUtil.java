@@ -1,10 +1,8 @@
 package com.admin.util;
 
 import com.admin.entity.User;
-import com.admin.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
 
 /**
  * 用户工具类
@@ -13,13 +11,10 @@ import org.springframework.stereotype.Component;
  * @author Admin
  * @date 2024-01-01
  */
-@Component
 public class UserUtil {
 
-    private static UserService userService;
-
-    public UserUtil(UserService userService) {
-        UserUtil.userService = userService;
+    private UserUtil() {
+        // 工具类，禁止实例化
     }
 
     /**
@@ -39,15 +34,12 @@ public class UserUtil {
 
     /**
      * 获取当前登录用户
+     * 从 SecurityContext 中的登录主体读取，不查询数据库
      *
      * @return 用户对象，如果未登录返回null
      */
     public static User getCurrentUser() {
-        String userName = getCurrentUserName();
-        if (userName != null && userService != null) {
-            return userService.getUserByUserName(userName);
-        }
-        return null;
+        return SecurityUtil.getCurrentUser();
     }
 
     /**
@@ -56,8 +48,7 @@ public class UserUtil {
      * @return 用户ID，如果未登录返回null
      */
     public static Long getCurrentUserId() {
-        User user = getCurrentUser();
-        return user != null ? user.getId() : null;
+        return SecurityUtil.getCurrentUserId();
     }
 }
 
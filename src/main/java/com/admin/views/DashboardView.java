@@ -1,9 +1,10 @@
 package com.admin.views;
 
-import com.admin.service.MenuService;
-import com.admin.service.RoleService;
-import com.admin.service.UserService;
+import com.admin.dto.DashboardStats;
+import com.admin.event.DomainEventBus;
+import com.admin.service.DashboardStatsService;
 import com.admin.util.I18NUtil;
+import com.admin.util.LiveUpdateUtil;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
@@ -24,24 +25,19 @@ import com.vaadin.flow.theme.lumo.LumoUtility;
  */
 @Route(value = "", layout = MainLayout.class)
 public class DashboardView extends VerticalLayout implements AuthenticatedRoute, HasDynamicTitle {
-    // #region agent log
-    {
-        try {
-            java.io.FileWriter fw = new java.io.FileWriter("/Users/hjoe/ai-creation/vaadin-admin/.cursor/debug.log", true);
-            fw.write(String.format("{\"id\":\"log_%d_dash_init\",\"timestamp\":%d,\"location\":\"DashboardView.java:27\",\"message\":\"DashboardView initialized\",\"data\":{\"pageTitle\":\"${page.dashboard}\",\"i18nTitle\":\"%s\"},\"sessionId\":\"debug-session\",\"runId\":\"run1\",\"hypothesisId\":\"H1\"}\n", System.currentTimeMillis(), System.currentTimeMillis(), I18NUtil.get("page.dashboard")));
-            fw.close();
-        } catch (Exception e) {}
-    }
-    // #endregion
+    private final DashboardStatsService dashboardStatsService;
 
-    private final UserService userService;
-    private final RoleService roleService;
-    private final MenuService menuService;
+    // 统计数值，收到领域事件后实时更新
+    private final Span userTotalValue = new Span();
+    private final Span roleTotalValue = new Span();
+    private final Span menuTotalValue = new Span();
+    private final Span activeUserValue = new Span();
+    private final Span loginTodayValue = new Span();
+    private final Span operationTodayValue = new Span();
+    private final Span failedOperationValue = new Span();
 
-    public DashboardView(UserService userService, RoleService roleService, MenuService menuService) {
-        this.userService = userService;
-        this.roleService = roleService;
-        this.menuService = menuService;
+    public DashboardView(DashboardStatsService dashboardStatsService, DomainEventBus domainEventBus) {
+        this.dashboardStatsService = dashboardStatsService;
 
         addClassName("dashboard-view");
         setSizeFull();
@@ -66,7 +62,7 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
         // 用户统计卡片
         VerticalLayout userCard = createStatCard(
                 I18NUtil.get("dashboard.user.total"),
-                String.valueOf(userService.listUsers().size()),
+                userTotalValue,
                 VaadinIcon.USERS,
                 "var(--lumo-primary-color)"
         );
@@ -75,7 +71,7 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
         // 角色统计卡片
         VerticalLayout roleCard = createStatCard(
                 I18NUtil.get("dashboard.role.total"),
-                String.valueOf(roleService.listRoles().size()),
+                roleTotalValue,
                 VaadinIcon.SHIELD,
                 "var(--lumo-success-color)"
         );
@@ -84,7 +80,7 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
         // 菜单统计卡片
         VerticalLayout menuCard = createStatCard(
                 I18NUtil.get("dashboard.menu.total"),
-                String.valueOf(menuService.listMenus().size()),
+                menuTotalValue,
                 VaadinIcon.MENU,
                 "var(--lumo-warning-color)"
         );
@@ -93,7 +89,7 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
         // 系统状态卡片
         VerticalLayout systemCard = createStatCard(
                 I18NUtil.get("dashboard.system.status"),
-                I18NUtil.get("dashboard.system.running"),
+                new Span(I18NUtil.get("dashboard.system.running")),
                 VaadinIcon.CHECK_CIRCLE,
                 "var(--lumo-success-color)"
         );
@@ -104,6 +100,59 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
 
         add(statsLayout);
 
+        // 活跃度统计卡片
+        HorizontalLayout activityLayout = new HorizontalLayout();
+        activityLayout.setWidthFull();
+        activityLayout.setSpacing(true);
+        activityLayout.addClassNames(LumoUtility.Margin.Bottom.LARGE);
+
+        // 启用用户卡片
+        VerticalLayout activeUserCard = createStatCard(
+                I18NUtil.get("dashboard.user.active"),
+                activeUserValue,
+                VaadinIcon.USER_CHECK,
+                "var(--lumo-primary-color)"
+        );
+        activeUserCard.addClassNames("stat-card", "stat-card-primary");
+
+        // 今日登录卡片
+        VerticalLayout loginCard = createStatCard(
+                I18NUtil.get("dashboard.login.today"),
+                loginTodayValue,
+                VaadinIcon.SIGN_IN,
+                "var(--lumo-success-color)"
+        );
+        loginCard.addClassNames("stat-card", "stat-card-success");
+
+        // 今日操作卡片
+        VerticalLayout operationCard = createStatCard(
+                I18NUtil.get("dashboard.operation.today"),
+                operationTodayValue,
+                VaadinIcon.LIST,
+                "var(--lumo-warning-color)"
+        );
+        operationCard.addClassNames("stat-card", "stat-card-warning");
+
+        // 近一小时失败操作卡片
+        VerticalLayout failedCard = createStatCard(
+                I18NUtil.get("dashboard.operation.failed"),
+                failedOperationValue,
+                VaadinIcon.WARNING,
+                "var(--lumo-error-color)"
+        );
+        failedCard.addClassNames("stat-card", "stat-card-error");
+
+        activityLayout.add(activeUserCard, loginCard, operationCard, failedCard);
+        activityLayout.setFlexGrow(1, activeUserCard, loginCard, operationCard, failedCard);
+
+        add(activityLayout);
+
+        // 统计指标（COUNT 查询结果短时缓存，总数读取实体计数）
+        updateStats(dashboardStatsService.getStats());
+
+        // 数据变更后通过 @Push 实时刷新统计，事件按订阅者合并限流
+        LiveUpdateUtil.bind(this, domainEventBus, () -> updateStats(dashboardStatsService.getStats()));
+
         // 快速操作区域
         H3 quickActionsTitle = new H3(I18NUtil.get("dashboard.quick.actions"));
         quickActionsTitle.addClassNames(
@@ -126,16 +175,31 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
         add(quickActionsLayout);
     }
 
+    /**
+     * 更新统计数值
+     *
+     * @param stats 统计指标
+     */
+    private void updateStats(DashboardStats stats) {
+        userTotalValue.setText(String.valueOf(stats.getUserTotal()));
+        roleTotalValue.setText(String.valueOf(stats.getRoleTotal()));
+        menuTotalValue.setText(String.valueOf(stats.getMenuTotal()));
+        activeUserValue.setText(String.valueOf(stats.getActiveUserTotal()));
+        loginTodayValue.setText(String.valueOf(stats.getLoginsToday()));
+        operationTodayValue.setText(String.valueOf(stats.getOperationsToday()));
+        failedOperationValue.setText(String.valueOf(stats.getFailedOperationsLastHour()));
+    }
+
     /**
      * 创建统计卡片
      *
      * @param title     标题
-     * @param value     数值
+     * @param valueSpan 数值
      * @param icon      图标
      * @param iconColor 图标颜色
      * @return 卡片布局
      */
-    private VerticalLayout createStatCard(String title, String value, VaadinIcon icon, String iconColor) {
+    private VerticalLayout createStatCard(String title, Span valueSpan, VaadinIcon icon, String iconColor) {
         VerticalLayout card = new VerticalLayout();
         card.addClassNames(
                 LumoUtility.Padding.LARGE,
@@ -166,7 +230,6 @@ public class DashboardView extends VerticalLayout implements AuthenticatedRoute,
         header.setFlexGrow(1, titleSpan);
 
         // 数值
-        Span valueSpan = new Span(value);
         valueSpan.addClassNames(
                 LumoUtility.FontSize.XXXLARGE,
                 LumoUtility.FontWeight.BOLD,
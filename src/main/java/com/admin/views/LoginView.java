@@ -3,6 +3,7 @@ package com.admin.views;
 import com.admin.util.I18NUtil;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.login.LoginForm;
+import com.vaadin.flow.component.login.LoginI18n;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.BeforeEnterEvent;
@@ -12,6 +13,9 @@ import com.vaadin.flow.router.Route;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 登录视图
  *
@@ -56,10 +60,17 @@ public class LoginView extends VerticalLayout implements BeforeEnterObserver, Ha
         }
 
         // 如果登录失败，显示错误信息
-        if (beforeEnterEvent.getLocation()
+        Map<String, List<String>> parameters = beforeEnterEvent.getLocation()
                 .getQueryParameters()
-                .getParameters()
-                .containsKey("error")) {
+                .getParameters();
+        if (parameters.containsKey("error")) {
+            if (parameters.containsKey("throttled")) {
+                // 登录尝试过于频繁，被限流
+                LoginI18n i18n = LoginI18n.createDefault();
+                i18n.getErrorMessage().setTitle(I18NUtil.get("login.throttled.title"));
+                i18n.getErrorMessage().setMessage(I18NUtil.get("login.throttled.message"));
+                login.setI18n(i18n);
+            }
             login.setError(true);
         }
     }
@@ -1,6 +1,6 @@
 package com.admin.views;
 
-import com.admin.entity.Menu;
+import com.admin.dto.MenuNode;
 import com.admin.service.MenuService;
 import com.admin.service.UserService;
 import com.admin.util.I18NUtil;
@@ -259,13 +259,7 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
         try {
             Long userId = UserUtil.getCurrentUserId();
             if (userId != null) {
-                List<Menu> menuTree = menuService.getMenuTreeByUserId(userId);
-                for (Menu menu : menuTree) {
-                    Tab tab = createTabFromMenu(menu);
-                    if (tab != null) {
-                        tabs.add(tab);
-                    }
-                }
+                addMenuTabs(menuService.getMenuTreeByUserId(userId), 0);
             } else {
                 // 如果无法获取用户ID，使用默认菜单（向后兼容）
                 tabs.add(createTab(I18NUtil.get("main.layout.dashboard"), DashboardView.class));
@@ -286,10 +280,26 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
         return tabs;
     }
 
+    /**
+     * 按菜单树深度优先添加 Tab，子菜单按层级缩进
+     */
+    private void addMenuTabs(List<MenuNode> nodes, int depth) {
+        for (MenuNode node : nodes) {
+            Tab tab = createTabFromMenu(node);
+            if (tab != null) {
+                if (depth > 0) {
+                    tab.getStyle().set("padding-left", "calc(var(--lumo-space-m) * " + (depth + 1) + ")");
+                }
+                tabs.add(tab);
+            }
+            addMenuTabs(node.getChildren(), depth + 1);
+        }
+    }
+
     /**
      * 从菜单创建 Tab
      */
-    private Tab createTabFromMenu(Menu menu) {
+    private Tab createTabFromMenu(MenuNode menu) {
         if (menu == null || menu.getPath() == null || menu.getPath().isEmpty()) {
             return null;
         }
@@ -342,6 +352,8 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
             case "operation-log":
             case "operation-logs":
                 return com.admin.views.operationlog.OperationLogListView.class;
+            case "session-diagnostics":
+                return com.admin.views.diagnostics.SessionDiagnosticsView.class;
             default:
                 // 如果找不到映射，返回 null
                 return null;
@@ -404,13 +416,7 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
             try {
                 Long userId = UserUtil.getCurrentUserId();
                 if (userId != null) {
-                    List<Menu> menuTree = menuService.getMenuTreeByUserId(userId);
-                    for (Menu menu : menuTree) {
-                        Tab tab = createTabFromMenu(menu);
-                        if (tab != null) {
-                            tabs.add(tab);
-                        }
-                    }
+                    addMenuTabs(menuService.getMenuTreeByUserId(userId), 0);
                 } else {
                     // 如果无法获取用户ID，使用默认菜单
                     tabs.add(createTab(I18NUtil.get("main.layout.dashboard"), DashboardView.class));
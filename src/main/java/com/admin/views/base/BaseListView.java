@@ -3,8 +3,13 @@ package com.admin.views.base;
 import com.admin.component.BaseFormDialog;
 import com.admin.component.ConfirmDialogUtil;
 import com.admin.entity.BaseEntity;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.util.I18NUtil;
+import com.admin.util.LiveUpdateUtil;
 import com.admin.util.NotificationUtil;
+import com.vaadin.flow.component.HasValue;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.grid.Grid;
@@ -12,8 +17,18 @@ import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.value.HasValueChangeMode;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * 基础列表视图
@@ -24,6 +39,7 @@ import java.util.List;
  * @author Admin
  * @date 2024-01-01
  */
+@Slf4j
 public abstract class BaseListView<T extends BaseEntity, S> extends VerticalLayout {
 
     protected final S service;
@@ -32,6 +48,22 @@ public abstract class BaseListView<T extends BaseEntity, S> extends VerticalLayo
     protected final String addButtonText;
     protected final String viewClassName;
 
+    /**
+     * 搜索防抖时间，值变化后在此时间内没有新的变化才执行查询
+     */
+    protected static final Duration SEARCH_DEBOUNCE = Duration.ofMillis(300);
+
+    /**
+     * 搜索执行器，每个查询使用一个虚拟线程，不占用 Vaadin 会话锁
+     */
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 搜索代次，新的搜索使之前未完成的搜索失效
+     * 旧搜索不会被中断（中断阻塞在 JDBC 中的虚拟线程可能导致连接被关闭），而是在执行查询和应用结果前检查代次
+     */
+    private final AtomicLong searchGeneration = new AtomicLong();
+
     /**
      * 构造函数
      *
@@ -54,6 +86,9 @@ public abstract class BaseListView<T extends BaseEntity, S> extends VerticalLayo
         configureGrid();
         add(getToolbar(), grid);
         updateList();
+
+        // 离开视图时取消未完成的搜索
+        addDetachListener(e -> cancelPendingSearch());
     }
 
     /**
@@ -141,6 +176,109 @@ public abstract class BaseListView<T extends BaseEntity, S> extends VerticalLayo
         }
     }
 
+    /**
+     * 注册搜索字段：用户修改字段值后自动触发防抖搜索
+     * 文本字段使用 LAZY 模式，输入停顿后才将值发送到服务端
+     *
+     * @param fields 搜索字段
+     */
+    protected void registerSearchFields(HasValue<?, ?>... fields) {
+        for (HasValue<?, ?> field : fields) {
+            if (field instanceof HasValueChangeMode hasValueChangeMode) {
+                hasValueChangeMode.setValueChangeMode(ValueChangeMode.LAZY);
+                hasValueChangeMode.setValueChangeTimeout(150);
+            }
+            field.addValueChangeListener(e -> {
+                // 只响应用户输入，重置等程序设置的值由调用方自行刷新
+                if (e.isFromClient()) {
+                    onSearchFieldChanged();
+                }
+            });
+        }
+    }
+
+    /**
+     * 搜索字段值变化时调用，子类重写以构建查询条件并调用 {@link #submitSearch(Callable, Consumer)}
+     */
+    protected void onSearchFieldChanged() {
+        updateList();
+    }
+
+    /**
+     * 提交后台搜索
+     * 防抖 {@link #SEARCH_DEBOUNCE} 后在虚拟线程中执行查询，新的搜索使尚未完成的旧搜索失效；
+     * 查询结果通过 UI.access 在 UI 线程中应用。总数和首页数据都应在后台查询中加载，
+     * onResult 只做不访问数据库的界面更新
+     *
+     * @param query   后台查询（不能访问 UI 组件）
+     * @param onResult 在 UI 线程中应用查询结果
+     * @param <R>     结果类型
+     */
+    protected <R> void submitSearch(Callable<R> query, Consumer<R> onResult) {
+        UI ui = UI.getCurrent();
+        if (ui == null) {
+            // 没有 UI 上下文时同步执行
+            try {
+                onResult.accept(query.call());
+            } catch (Exception e) {
+                log.error("{}查询失败", entityName, e);
+                NotificationUtil.showError(I18NUtil.get("error.load.failed", entityName, e.getMessage()));
+            }
+            return;
+        }
+
+        long generation = searchGeneration.incrementAndGet();
+        Callable<R> securedQuery = new DelegatingSecurityContextCallable<>(query);
+        SEARCH_EXECUTOR.execute(() -> {
+            try {
+                Thread.sleep(SEARCH_DEBOUNCE.toMillis());
+                if (generation != searchGeneration.get()) {
+                    return;
+                }
+                R result = securedQuery.call();
+                ui.access(() -> {
+                    // 应用前再次检查，避免旧结果覆盖新结果
+                    if (generation == searchGeneration.get()) {
+                        onResult.accept(result);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("{}查询失败", entityName, e);
+                if (generation == searchGeneration.get()) {
+                    ui.access(() -> NotificationUtil.showError(
+                            I18NUtil.get("error.load.failed", entityName, e.getMessage())));
+                }
+            }
+        });
+    }
+
+    /**
+     * 取消未完成的搜索：使其代次失效，后台线程执行完当前查询后丢弃结果
+     */
+    protected void cancelPendingSearch() {
+        searchGeneration.incrementAndGet();
+    }
+
+    /**
+     * 启用实时更新：视图显示期间，其他会话修改数据后自动刷新列表
+     * 事件由事件总线合并限流，通过 @Push 推送
+     *
+     * @param eventBus 领域事件总线
+     * @param types    关注的事件类型
+     */
+    protected void enableLiveUpdates(DomainEventBus eventBus, DomainEvent.Type... types) {
+        LiveUpdateUtil.bind(this, eventBus, this::onLiveUpdate, types);
+    }
+
+    /**
+     * 收到实时更新时调用（UI 线程），默认重新加载列表
+     */
+    protected void onLiveUpdate() {
+        updateList();
+    }
+
     /**
      * 获取列表数据
      * 子类需要实现此方法来获取数据
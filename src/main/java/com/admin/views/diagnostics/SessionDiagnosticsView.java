@@ -0,0 +1,207 @@
+package com.admin.views.diagnostics;
+
+import com.admin.dto.ClusteredSessionStats;
+import com.admin.dto.SessionMemoryReport;
+import com.admin.dto.SessionMemoryReport.SessionFootprint;
+import com.admin.dto.SessionMemoryReport.ViewFootprint;
+import com.admin.service.SessionDiagnosticsService;
+import com.admin.util.I18NUtil;
+import com.admin.util.NotificationUtil;
+import com.admin.util.SecurityUtil;
+import com.admin.views.AuthenticatedRoute;
+import com.admin.views.DashboardView;
+import com.admin.views.MainLayout;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.HasDynamicTitle;
+import com.vaadin.flow.router.Route;
+
+/**
+ * 会话内存诊断视图
+ * 估算每个会话、每个视图类的内存占用，并按在线管理员数推算所需堆内存；需要 SESSION_DIAGNOSTICS 权限
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+@Route(value = "session-diagnostics", layout = MainLayout.class)
+public class SessionDiagnosticsView extends VerticalLayout implements AuthenticatedRoute, HasDynamicTitle {
+
+    private final SessionDiagnosticsService sessionDiagnosticsService;
+
+    private final Span sessionCountValue = new Span("-");
+    private final Span totalValue = new Span("-");
+    private final Span averageValue = new Span("-");
+    private final Span maxValue = new Span("-");
+    private final Span projectedValue = new Span("-");
+    private final Span clusterValue = new Span();
+    private final Span generatedValue = new Span();
+    private final IntegerField adminCountField = new IntegerField(I18NUtil.get("diagnostics.session.admins"));
+    private final Button refreshButton = new Button(I18NUtil.get("common.refresh"), new Icon(VaadinIcon.REFRESH));
+    private final Grid<SessionFootprint> sessionGrid = new Grid<>(SessionFootprint.class, false);
+    private final Grid<ViewFootprint> viewGrid = new Grid<>(ViewFootprint.class, false);
+
+    private SessionMemoryReport report;
+
+    public SessionDiagnosticsView(SessionDiagnosticsService sessionDiagnosticsService) {
+        this.sessionDiagnosticsService = sessionDiagnosticsService;
+        addClassName("session-diagnostics-view");
+        setSizeFull();
+
+        configureGrids();
+        add(getToolbar(), getSummary(), generatedValue, clusterValue,
+                new H3(I18NUtil.get("diagnostics.session.views")), viewGrid,
+                new H3(I18NUtil.get("diagnostics.session.top")), sessionGrid);
+        addAttachListener(e -> refresh());
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        AuthenticatedRoute.super.beforeEnter(event);
+        if (!SecurityUtil.hasAuthority(SessionDiagnosticsService.PERMISSION)) {
+            NotificationUtil.showError(I18NUtil.get("error.forbidden"));
+            event.rerouteTo(DashboardView.class);
+        }
+    }
+
+    private HorizontalLayout getToolbar() {
+        refreshButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        refreshButton.addClickListener(e -> refresh());
+
+        adminCountField.setValue(100);
+        adminCountField.setMin(1);
+        adminCountField.setStepButtonsVisible(true);
+        adminCountField.addValueChangeListener(e -> updateProjection());
+
+        HorizontalLayout toolbar = new HorizontalLayout(refreshButton, adminCountField);
+        toolbar.addClassName("toolbar");
+        toolbar.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
+        return toolbar;
+    }
+
+    private HorizontalLayout getSummary() {
+        HorizontalLayout summary = new HorizontalLayout(
+                createMetric(I18NUtil.get("diagnostics.session.count"), sessionCountValue),
+                createMetric(I18NUtil.get("diagnostics.session.total"), totalValue),
+                createMetric(I18NUtil.get("diagnostics.session.average"), averageValue),
+                createMetric(I18NUtil.get("diagnostics.session.max"), maxValue),
+                createMetric(I18NUtil.get("diagnostics.session.projected"), projectedValue)
+        );
+        summary.setWidthFull();
+        summary.setSpacing(true);
+        return summary;
+    }
+
+    private VerticalLayout createMetric(String title, Span value) {
+        Span titleSpan = new Span(title);
+        titleSpan.getStyle().set("color", "var(--lumo-secondary-text-color)");
+        value.getStyle().set("font-size", "var(--lumo-font-size-xl)").set("font-weight", "bold");
+        VerticalLayout metric = new VerticalLayout(titleSpan, value);
+        metric.setPadding(false);
+        metric.setSpacing(false);
+        return metric;
+    }
+
+    private void configureGrids() {
+        viewGrid.addColumn(view -> simpleName(view.getViewClass())).setHeader(I18NUtil.get("diagnostics.session.view.class")).setFlexGrow(1);
+        viewGrid.addColumn(ViewFootprint::getInstances).setHeader(I18NUtil.get("diagnostics.session.view.instances")).setWidth("120px").setFlexGrow(0);
+        viewGrid.addColumn(view -> formatBytes(view.getTotalBytes())).setHeader(I18NUtil.get("diagnostics.session.total")).setWidth("140px").setFlexGrow(0);
+        viewGrid.addColumn(view -> formatBytes(view.getAverageBytes())).setHeader(I18NUtil.get("diagnostics.session.average")).setWidth("140px").setFlexGrow(0);
+        viewGrid.addColumn(view -> formatBytes(view.getMaxBytes())).setHeader(I18NUtil.get("diagnostics.session.max")).setWidth("140px").setFlexGrow(0);
+        viewGrid.setAllRowsVisible(true);
+
+        sessionGrid.addColumn(SessionFootprint::getUsername).setHeader(I18NUtil.get("user.userName")).setFlexGrow(1);
+        sessionGrid.addColumn(SessionFootprint::getUiCount).setHeader(I18NUtil.get("diagnostics.session.ui.count")).setWidth("120px").setFlexGrow(0);
+        sessionGrid.addColumn(session -> formatBytes(session.getBytes())
+                + (session.isTruncated() ? " +" : "")).setHeader(I18NUtil.get("diagnostics.session.size")).setWidth("140px").setFlexGrow(0);
+        sessionGrid.addColumn(SessionFootprint::getObjects).setHeader(I18NUtil.get("diagnostics.session.objects")).setWidth("140px").setFlexGrow(0);
+        sessionGrid.setAllRowsVisible(true);
+    }
+
+    /**
+     * 在后台线程生成报告：生成时需要逐个锁定会话，不能在持有当前会话锁的 UI 线程中执行
+     */
+    private void refresh() {
+        UI ui = UI.getCurrent();
+        if (ui == null) {
+            return;
+        }
+        refreshButton.setEnabled(false);
+        Thread.ofVirtual().name("session-diagnostics").start(() -> {
+            try {
+                SessionMemoryReport result = sessionDiagnosticsService.getReport();
+                ui.access(() -> {
+                    refreshButton.setEnabled(true);
+                    apply(result);
+                });
+            } catch (Exception e) {
+                ui.access(() -> {
+                    refreshButton.setEnabled(true);
+                    NotificationUtil.showError(I18NUtil.get("diagnostics.session.failed", e.getMessage()));
+                });
+            }
+        });
+    }
+
+    private void apply(SessionMemoryReport report) {
+        this.report = report;
+        sessionCountValue.setText(report.getSessionCount() + " / " + report.getUiCount() + " UI");
+        totalValue.setText(formatBytes(report.getTotalBytes()));
+        averageValue.setText(formatBytes(report.getAverageBytes()));
+        maxValue.setText(formatBytes(report.getMaxBytes()));
+        generatedValue.setText(I18NUtil.get("diagnostics.session.generated", report.getGeneratedAt(), report.getDurationMs()));
+        ClusteredSessionStats cluster = report.getClusteredSessions();
+        clusterValue.setVisible(cluster != null && cluster.isEnabled());
+        if (cluster != null) {
+            clusterValue.setText(I18NUtil.get("diagnostics.session.cluster", cluster.getNodeId(), cluster.getStored(),
+                    cluster.getRestored(), formatBytes(cluster.getAveragePayloadBytes()), formatBytes(cluster.getMaxPayloadBytes())));
+        }
+        viewGrid.setItems(report.getViews());
+        sessionGrid.setItems(report.getTopSessions());
+        updateProjection();
+    }
+
+    /**
+     * 按平均会话占用推算 N 个在线管理员所需的堆内存
+     */
+    private void updateProjection() {
+        Integer admins = adminCountField.getValue();
+        if (report == null || admins == null) {
+            projectedValue.setText("-");
+            return;
+        }
+        projectedValue.setText(formatBytes(report.getAverageBytes() * admins));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        }
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    @Override
+    public String getPageTitle() {
+        return I18NUtil.get("page.session.diagnostics");
+    }
+}
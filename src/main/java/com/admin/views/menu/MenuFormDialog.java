@@ -9,6 +9,7 @@ import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.validator.StringLengthValidator;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
  * @author Admin
  * @date 2024-01-01
  */
+@Slf4j
 public class MenuFormDialog extends BaseFormDialog<Menu> {
 
     private final MenuService menuService;
@@ -232,7 +234,7 @@ public class MenuFormDialog extends BaseFormDialog<Menu> {
         } catch (Exception e) {
             // 其他异常，显示通用错误信息
             showError(I18NUtil.get("error.operation.failed") + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("保存菜单失败", e);
         }
     }
 
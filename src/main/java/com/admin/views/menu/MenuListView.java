@@ -6,7 +6,10 @@ import com.admin.constant.StatusConstant;
 import com.admin.dto.MenuQueryDTO;
 import com.admin.dto.PageRequest;
 import com.admin.entity.Menu;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.service.MenuService;
+import com.admin.util.BatchOperationUtil;
 import com.admin.util.DataProviderUtil;
 import com.admin.util.I18NUtil;
 import com.admin.util.NotificationUtil;
@@ -14,7 +17,6 @@ import com.admin.util.PageResult;
 import com.admin.util.PaginationUtil;
 import com.admin.views.MainLayout;
 import com.admin.views.base.BaseListView;
-import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -27,6 +29,7 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.HasDynamicTitle;
 import com.vaadin.flow.router.Route;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +42,7 @@ import java.util.stream.Collectors;
  * @author Admin
  * @date 2024-01-01
  */
+@Slf4j
 @Route(value = "menus", layout = MainLayout.class)
 public class MenuListView extends BaseListView<Menu, MenuService> implements HasDynamicTitle {
 
@@ -72,9 +76,9 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
     private PageResult<Menu> currentPageResult;
     
     // DataProvider
-    private DataProvider<Menu, Void> dataProvider;
+    private DataProviderUtil.PagedDataProvider<Menu, MenuQueryDTO> dataProvider;
 
-    public MenuListView(MenuService menuService) {
+    public MenuListView(MenuService menuService, DomainEventBus domainEventBus) {
         super(menuService, Menu.class, I18NUtil.get("menu.title"), I18NUtil.get("menu.add"), "menu-list-view");
 
         // 启用Grid多选模式
@@ -89,6 +93,9 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
 
         // 初始化查询
         performSearch();
+
+        // 其他会话修改数据后自动刷新
+        enableLiveUpdates(domainEventBus, DomainEvent.Type.MENU_CHANGED);
     }
 
     /**
@@ -189,7 +196,7 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
         // 设置 Grid 的 pageSize 与分页请求一致
         grid.setPageSize(currentPageRequest.getPageSize());
         
-        dataProvider = DataProviderUtil.createPageDataProvider(
+        dataProvider = DataProviderUtil.createCountCachingDataProvider(
             () -> currentQuery != null ? currentQuery : new MenuQueryDTO(),
             () -> {
                 // 确保返回的分页请求不为 null
@@ -292,6 +299,9 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
         resetButton.setTooltipText(I18NUtil.get("common.reset"));
         resetButton.addClickListener(e -> resetSearch());
 
+        // 输入搜索条件后自动搜索
+        registerSearchFields(nameSearchField, pathSearchField, statusFilter);
+
         HorizontalLayout searchBar = new HorizontalLayout(
                 nameSearchField, pathSearchField, statusFilter, searchButton, resetButton
         );
@@ -444,7 +454,7 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
                 currentQuery = new MenuQueryDTO();
             } else {
                 // 构建查询条件
-                buildQuery();
+                currentQuery = buildQuery();
             }
 
             // 确保查询条件不为null
@@ -452,51 +462,91 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
                 currentQuery = new MenuQueryDTO();
             }
 
-            // 刷新 DataProvider（懒加载会自动从 Service 获取数据）
-            if (dataProvider != null) {
+            refreshGrid(true);
+        } catch (Exception e) {
+            NotificationUtil.showError(I18NUtil.get("menu.query.failed", e.getMessage()));
+            log.error("查询菜单失败", e);
+        }
+    }
+
+    /**
+     * 实时更新时保留当前查询条件和页码，只刷新数据和总数
+     */
+    @Override
+    protected void onLiveUpdate() {
+        refreshGrid(true);
+    }
+
+    /**
+     * 刷新 Grid 和分页信息
+     *
+     * @param dataChanged 数据是否可能已变更（为 false 时只是查询条件变化，保留已缓存的总数）
+     */
+    private void refreshGrid(boolean dataChanged) {
+        // 刷新 DataProvider（懒加载会自动从 Service 获取数据）
+        if (dataProvider != null) {
+            if (dataChanged) {
                 dataProvider.refreshAll();
+            } else {
+                dataProvider.refreshQuery();
             }
-            
-            // 获取当前页数据用于更新分页信息
-            currentPageResult = service.pageMenus(currentPageRequest, currentQuery);
-
-            // 更新分页信息（如果组件已初始化）
-            if (pageInfo != null && currentPageResult != null && currentPageResult.getData() != null) {
-                updatePaginationInfo();
-            } else if (pageInfo != null) {
-                pageInfo.setText(I18NUtil.get("common.noData"));
-                updatePaginationButtons(false, false);
-            }
+        }
+        
+        // 分页信息复用 DataProvider 缓存的总数，不再单独查询
+        currentPageResult = dataProvider != null ? dataProvider.summarize(currentPageRequest) : null;
+
+        // 更新分页信息（如果组件已初始化）
+        if (pageInfo != null && currentPageResult != null && currentPageResult.getData() != null) {
+            updatePaginationInfo();
+        } else if (pageInfo != null) {
+            pageInfo.setText(I18NUtil.get("common.noData"));
+            updatePaginationButtons(false, false);
+        }
 
-            // 监听选中项变化，显示/隐藏批量操作栏（如果组件已初始化）
-            if (batchDeleteButton != null) {
-                updateBatchOperationBar();
-            }
+        // 监听选中项变化，显示/隐藏批量操作栏（如果组件已初始化）
+        if (batchDeleteButton != null) {
+            updateBatchOperationBar();
+        }
+    }
 
-        } catch (Exception e) {
-            NotificationUtil.showError(I18NUtil.get("menu.query.failed", e.getMessage()));
-            e.printStackTrace();
+    /**
+     * 搜索条件变化后防抖，在后台统计总数并加载第一页，完成后在 UI 线程刷新 Grid
+     */
+    @Override
+    protected void onSearchFieldChanged() {
+        if (dataProvider == null) {
+            return;
         }
+        MenuQueryDTO query = buildQuery();
+        PageRequest pageRequest = new PageRequest();
+        pageRequest.setPageSize(currentPageRequest.getPageSize());
+        pageRequest.setSortField(currentPageRequest.getSortField());
+        pageRequest.setSortOrder(currentPageRequest.getSortOrder());
+        submitSearch(() -> dataProvider.preload(query, pageRequest), total -> {
+            currentQuery = query;
+            currentPageRequest.setPageNum(1);
+            refreshGrid(false);
+        });
     }
 
     /**
      * 构建查询条件
      */
-    private void buildQuery() {
-        currentQuery = new MenuQueryDTO();
+    private MenuQueryDTO buildQuery() {
+        MenuQueryDTO query = new MenuQueryDTO();
 
         // 检查字段是否已初始化（防止在父类构造函数调用时出现空指针）
         if (nameSearchField != null) {
             String name = nameSearchField.getValue();
             if (name != null && !name.trim().isEmpty()) {
-                currentQuery.setName(name.trim());
+                query.setName(name.trim());
             }
         }
 
         if (pathSearchField != null) {
             String path = pathSearchField.getValue();
             if (path != null && !path.trim().isEmpty()) {
-                currentQuery.setPath(path.trim());
+                query.setPath(path.trim());
             }
         }
 
@@ -506,12 +556,13 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
             // I18N 只用于展示，不用于逻辑判断
             if (status != null && !StatusConstant.ALL.equals(status)) {
                 if (StatusConstant.ENABLED.equals(status)) {
-                    currentQuery.setIsEnabled(true);
+                    query.setIsEnabled(true);
                 } else if (StatusConstant.DISABLED.equals(status)) {
-                    currentQuery.setIsEnabled(false);
+                    query.setIsEnabled(false);
                 }
             }
         }
+        return query;
     }
 
     /**
@@ -567,16 +618,19 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
             I18NUtil.get("menu.title"),
             ids.size(),
             names,
-            () -> {
-                try {
-                    service.batchDeleteMenus(ids);
+            () -> BatchOperationUtil.run(
+                progress -> service.batchDeleteMenus(ids, progress),
+                result -> {
                     NotificationUtil.showSuccess(I18NUtil.get("menu.batch.delete.success", ids.size()));
                     grid.deselectAll();
                     performSearch();
-                } catch (Exception ex) {
+                },
+                ex -> {
                     NotificationUtil.showError(I18NUtil.get("menu.batch.delete.failed", ex.getMessage()));
+                    // 已提交的块不会回滚，刷新列表
+                    performSearch();
                 }
-            }
+            )
         ).open();
     }
 
@@ -595,26 +649,30 @@ public class MenuListView extends BaseListView<Menu, MenuService> implements Has
         String actionKey = isEnabled ? "menu.batch.enable" : "menu.batch.disable";
 
         (isEnabled ? 
-            ConfirmDialogUtil.createBatchEnableDialog(entityName, ids.size(), () -> {
-                try {
-                    service.batchUpdateMenuStatus(ids, true);
+            ConfirmDialogUtil.createBatchEnableDialog(entityName, ids.size(), () -> BatchOperationUtil.run(
+                progress -> service.batchUpdateMenuStatus(ids, true, progress),
+                result -> {
                     NotificationUtil.showSuccess(I18NUtil.get(actionKey + ".success", ids.size()));
                     grid.deselectAll();
                     performSearch();
-                } catch (Exception ex) {
+                },
+                ex -> {
                     NotificationUtil.showError(I18NUtil.get(actionKey + ".failed", ex.getMessage()));
+                    performSearch();
                 }
-            }) :
-            ConfirmDialogUtil.createBatchDisableDialog(entityName, ids.size(), () -> {
-                try {
-                    service.batchUpdateMenuStatus(ids, false);
+            )) :
+            ConfirmDialogUtil.createBatchDisableDialog(entityName, ids.size(), () -> BatchOperationUtil.run(
+                progress -> service.batchUpdateMenuStatus(ids, false, progress),
+                result -> {
                     NotificationUtil.showSuccess(I18NUtil.get(actionKey + ".success", ids.size()));
                     grid.deselectAll();
                     performSearch();
-                } catch (Exception ex) {
+                },
+                ex -> {
                     NotificationUtil.showError(I18NUtil.get(actionKey + ".failed", ex.getMessage()));
+                    performSearch();
                 }
-            })
+            ))
         ).open();
     }
 
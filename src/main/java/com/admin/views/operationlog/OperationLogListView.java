@@ -1,20 +1,30 @@
 package com.admin.views.operationlog;
 
+import com.admin.dto.OperationLogQueryDTO;
 import com.admin.entity.OperationLog;
 import com.admin.service.OperationLogService;
+import com.admin.util.DataProviderUtil;
 import com.admin.util.I18NUtil;
+import com.admin.util.NotificationUtil;
 import com.admin.views.MainLayout;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datetimepicker.DateTimePicker;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
 import com.vaadin.flow.router.HasDynamicTitle;
 import com.vaadin.flow.router.Route;
 
-import java.util.List;
-
 /**
  * 操作日志列表视图
+ * 使用服务端分页查询，顺序滚动时按 (createdAt, id) 游标加载下一页
  *
  * @author Admin
  * @date 2024-01-01
@@ -22,10 +32,24 @@ import java.util.List;
 @Route(value = "operation-logs", layout = MainLayout.class)
 public class OperationLogListView extends VerticalLayout implements HasDynamicTitle {
 
+    /**
+     * 状态筛选值：全部
+     */
+    private static final int STATUS_ALL = -1;
+
     private final OperationLogService operationLogService;
     private final Grid<OperationLog> grid = new Grid<>(OperationLog.class, false);
     private TextField usernameSearchField;
     private TextField operationSearchField;
+    private ComboBox<Integer> statusFilter;
+    private DateTimePicker startTimePicker;
+    private DateTimePicker endTimePicker;
+
+    // 查询条件
+    private OperationLogQueryDTO currentQuery = new OperationLogQueryDTO();
+
+    // DataProvider
+    private AbstractBackEndDataProvider<OperationLog, Void> dataProvider;
 
     public OperationLogListView(OperationLogService operationLogService) {
         this.operationLogService = operationLogService;
@@ -33,11 +57,12 @@ public class OperationLogListView extends VerticalLayout implements HasDynamicTi
         setSizeFull();
 
         configureGrid();
+        initDataProvider();
         add(getToolbar(), getSearchBar(), grid);
-        updateList();
     }
 
     private void configureGrid() {
+        grid.setSizeFull();
         grid.addColumn(OperationLog::getId).setHeader("ID").setWidth("80px").setFlexGrow(0);
         grid.addColumn(OperationLog::getUsername).setHeader(I18NUtil.get("operation.log.username")).setWidth("120px").setFlexGrow(0);
         grid.addColumn(OperationLog::getOperation).setHeader(I18NUtil.get("operation.log.operation")).setWidth("150px").setFlexGrow(0);
@@ -50,12 +75,24 @@ public class OperationLogListView extends VerticalLayout implements HasDynamicTi
             return params;
         }).setHeader(I18NUtil.get("operation.log.params")).setFlexGrow(1);
         grid.addColumn(OperationLog::getIp).setHeader(I18NUtil.get("operation.log.ip")).setWidth("150px").setFlexGrow(0);
-        grid.addColumn(log -> log.getStatus() == 1 ? I18NUtil.get("operation.log.success") : I18NUtil.get("operation.log.failed")).setHeader(I18NUtil.get("operation.log.status")).setWidth("80px").setFlexGrow(0);
+        grid.addColumn(log -> log.getStatus() != null && log.getStatus() == 1 ? I18NUtil.get("operation.log.success") : I18NUtil.get("operation.log.failed")).setHeader(I18NUtil.get("operation.log.status")).setWidth("80px").setFlexGrow(0);
         grid.addColumn(OperationLog::getErrorMsg).setHeader(I18NUtil.get("operation.log.errorMsg")).setFlexGrow(1);
         grid.addColumn(OperationLog::getCreatedAt).setHeader(I18NUtil.get("operation.log.createdAt")).setWidth("180px").setFlexGrow(0);
         grid.getColumns().forEach(col -> col.setAutoWidth(false));
     }
 
+    /**
+     * 初始化 DataProvider
+     */
+    private void initDataProvider() {
+        dataProvider = DataProviderUtil.createKeysetDataProvider(
+                () -> currentQuery,
+                operationLogService::pageLogs,
+                (query, last) -> query.seekAfter(last.getCreatedAt(), last.getId())
+        );
+        grid.setDataProvider(dataProvider);
+    }
+
     private HorizontalLayout getToolbar() {
         HorizontalLayout toolbar = new HorizontalLayout();
         toolbar.addClassName("toolbar");
@@ -74,45 +111,85 @@ public class OperationLogListView extends VerticalLayout implements HasDynamicTi
         operationSearchField.setWidth("200px");
         operationSearchField.setClearButtonVisible(true);
 
-        HorizontalLayout searchBar = new HorizontalLayout(usernameSearchField, operationSearchField);
+        statusFilter = new ComboBox<>(I18NUtil.get("operation.log.status"));
+        statusFilter.setItems(STATUS_ALL, 1, 0);
+        statusFilter.setItemLabelGenerator(status -> {
+            if (status == STATUS_ALL) {
+                return I18NUtil.get("common.all");
+            }
+            return status == 1 ? I18NUtil.get("operation.log.success") : I18NUtil.get("operation.log.failed");
+        });
+        statusFilter.setValue(STATUS_ALL);
+        statusFilter.setWidth("120px");
+
+        startTimePicker = new DateTimePicker(I18NUtil.get("operation.log.startTime"));
+        endTimePicker = new DateTimePicker(I18NUtil.get("operation.log.endTime"));
+
+        Button searchButton = new Button(I18NUtil.get("common.search"), new Icon(VaadinIcon.SEARCH));
+        searchButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        searchButton.setAriaLabel(I18NUtil.get("common.search"));
+        searchButton.setTooltipText(I18NUtil.get("common.search"));
+        searchButton.addClickListener(e -> updateList());
+
+        Button resetButton = new Button(I18NUtil.get("common.reset"), new Icon(VaadinIcon.REFRESH));
+        resetButton.setAriaLabel(I18NUtil.get("common.reset"));
+        resetButton.setTooltipText(I18NUtil.get("common.reset"));
+        resetButton.addClickListener(e -> resetSearch());
+
+        HorizontalLayout searchBar = new HorizontalLayout(usernameSearchField, operationSearchField, statusFilter,
+                startTimePicker, endTimePicker, searchButton, resetButton);
         searchBar.setSpacing(true);
+        searchBar.setAlignItems(FlexComponent.Alignment.END);
         searchBar.setWidthFull();
         searchBar.addClassName("search-bar");
         return searchBar;
     }
 
+    /**
+     * 构建查询条件
+     */
+    private OperationLogQueryDTO buildQuery() {
+        OperationLogQueryDTO query = new OperationLogQueryDTO();
+        String username = usernameSearchField.getValue();
+        if (username != null && !username.trim().isEmpty()) {
+            query.setUsername(username.trim());
+        }
+        String operation = operationSearchField.getValue();
+        if (operation != null && !operation.trim().isEmpty()) {
+            query.setOperation(operation.trim());
+        }
+        Integer status = statusFilter.getValue();
+        if (status != null && status != STATUS_ALL) {
+            query.setStatus(status);
+        }
+        query.setStartTime(startTimePicker.getValue());
+        query.setEndTime(endTimePicker.getValue());
+        return query;
+    }
+
     private void updateList() {
         try {
-            List<OperationLog> logs = operationLogService.listLogs();
-            // 简单的客户端过滤（实际应该在后端实现）
-            String usernameFilter = usernameSearchField.getValue();
-            String operationFilter = operationSearchField.getValue();
-            
-            List<OperationLog> filteredLogs = logs.stream()
-                    .filter(log -> {
-                        if (usernameFilter != null && !usernameFilter.isEmpty()) {
-                            if (log.getUsername() == null || !log.getUsername().contains(usernameFilter)) {
-                                return false;
-                            }
-                        }
-                        if (operationFilter != null && !operationFilter.isEmpty()) {
-                            if (log.getOperation() == null || !log.getOperation().contains(operationFilter)) {
-                                return false;
-                            }
-                        }
-                        return true;
-                    })
-                    .toList();
-            
-            grid.setItems(filteredLogs);
+            currentQuery = buildQuery();
+            dataProvider.refreshAll();
         } catch (Exception e) {
-            com.admin.util.NotificationUtil.showError(I18NUtil.get("operation.log.load.failed", e.getMessage()));
+            NotificationUtil.showError(I18NUtil.get("operation.log.load.failed", e.getMessage()));
         }
     }
 
+    /**
+     * 重置搜索条件
+     */
+    private void resetSearch() {
+        usernameSearchField.clear();
+        operationSearchField.clear();
+        statusFilter.setValue(STATUS_ALL);
+        startTimePicker.clear();
+        endTimePicker.clear();
+        updateList();
+    }
+
     @Override
     public String getPageTitle() {
         return I18NUtil.get("page.operation.log");
     }
 }
-
@@ -0,0 +1,95 @@
+package com.admin.views.role;
+
+import com.admin.dto.PermissionTreeFilter;
+import com.admin.entity.Permission;
+import com.admin.service.PermissionService;
+import com.vaadin.flow.data.provider.hierarchy.AbstractBackEndHierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 权限树懒加载数据提供者
+ * 按 parentId 逐层从数据库分页加载，只加载已展开节点下可见范围内的子节点；
+ * 设置筛选后只显示匹配项及其祖先
+ *
+ * @author Admin
+ * @date 2024-01-01
+ */
+public class PermissionTreeDataProvider extends AbstractBackEndHierarchicalDataProvider<Permission, Void> {
+
+    private final PermissionService permissionService;
+
+    /**
+     * 已加载节点是否有子节点，随子节点分页一并查询，避免逐行查询
+     */
+    private final Map<Long, Boolean> expandable = new ConcurrentHashMap<>();
+
+    private PermissionTreeFilter filter;
+
+    public PermissionTreeDataProvider(PermissionService permissionService) {
+        this.permissionService = permissionService;
+    }
+
+    /**
+     * 设置筛选条件并刷新
+     *
+     * @param filter 筛选结果，为 null 表示显示全部
+     */
+    public void setFilter(PermissionTreeFilter filter) {
+        this.filter = filter;
+        expandable.clear();
+        refreshAll();
+    }
+
+    public PermissionTreeFilter getFilter() {
+        return filter;
+    }
+
+    @Override
+    protected Stream<Permission> fetchChildrenFromBackEnd(HierarchicalQuery<Permission, Void> query) {
+        Set<Long> within = visibleIds();
+        List<Permission> children = permissionService.listChildPermissions(
+                parentId(query), within, query.getOffset(), query.getLimit());
+        if (!children.isEmpty()) {
+            List<Long> ids = children.stream().map(Permission::getId).toList();
+            Set<Long> parents = permissionService.getParentIdsHavingChildren(ids, within);
+            for (Long id : ids) {
+                expandable.put(id, parents.contains(id));
+            }
+        }
+        return children.stream();
+    }
+
+    @Override
+    public int getChildCount(HierarchicalQuery<Permission, Void> query) {
+        return permissionService.countChildPermissions(parentId(query), visibleIds());
+    }
+
+    @Override
+    public boolean hasChildren(Permission item) {
+        Boolean known = expandable.get(item.getId());
+        if (known != null) {
+            return known;
+        }
+        return permissionService.countChildPermissions(item.getId(), visibleIds()) > 0;
+    }
+
+    @Override
+    public Object getId(Permission item) {
+        return item.getId();
+    }
+
+    private Set<Long> visibleIds() {
+        PermissionTreeFilter current = filter;
+        return current != null ? current.getVisibleIds() : null;
+    }
+
+    private static Long parentId(HierarchicalQuery<Permission, Void> query) {
+        return query.getParentOptional().map(Permission::getId).orElse(null);
+    }
+}
@@ -7,6 +7,7 @@ import com.admin.util.I18NUtil;
 import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.validator.StringLengthValidator;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 角色表单对话框
@@ -15,6 +16,7 @@ import com.vaadin.flow.data.validator.StringLengthValidator;
  * @author Admin
  * @date 2024-01-01
  */
+@Slf4j
 public class RoleFormDialog extends BaseFormDialog<Role> {
 
     private final RoleService roleService;
@@ -192,7 +194,7 @@ public class RoleFormDialog extends BaseFormDialog<Role> {
         } catch (Exception e) {
             // 其他异常，显示通用错误信息
             showError(I18NUtil.get("error.operation.failed") + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("保存角色失败", e);
         }
     }
 
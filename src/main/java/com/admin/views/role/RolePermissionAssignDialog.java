@@ -1,5 +1,7 @@
 package com.admin.views.role;
 
+import com.admin.dto.AssignmentChange;
+import com.admin.dto.PermissionTreeFilter;
 import com.admin.entity.Permission;
 import com.admin.entity.Role;
 import com.admin.service.PermissionService;
@@ -10,16 +12,23 @@ import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.treegrid.TreeGrid;
+import com.vaadin.flow.data.value.ValueChangeMode;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * 角色权限分配对话框
+ * 权限树按层懒加载，只渲染可见行；选中状态以权限ID集合保存，与已加载的行无关
  *
  * @author Admin
  * @date 2024-01-01
@@ -31,8 +40,15 @@ public class RolePermissionAssignDialog extends Dialog {
     private final Role role;
     private final Runnable refreshCallback;
 
-    private VerticalLayout contentLayout;
-    private List<Checkbox> permissionCheckboxes = new ArrayList<>();
+    /**
+     * 选中的权限ID
+     */
+    private final Set<Long> selectedIds = new HashSet<>();
+
+    private PermissionTreeDataProvider dataProvider;
+    private TreeGrid<Permission> treeGrid;
+    private TextField filterField;
+    private Span selectedLabel;
     private Button saveButton;
     private Button cancelButton;
 
@@ -43,46 +59,41 @@ public class RolePermissionAssignDialog extends Dialog {
         this.refreshCallback = refreshCallback;
 
         setHeaderTitle(I18NUtil.get("role.assign.permission.title", role.getName()));
-        setWidth("600px");
+        setWidth("800px");
         setHeight("700px");
 
         buildContent();
     }
 
     private void buildContent() {
-        contentLayout = new VerticalLayout();
+        VerticalLayout contentLayout = new VerticalLayout();
         contentLayout.setSpacing(true);
-        contentLayout.setPadding(true);
-        contentLayout.setWidthFull();
+        contentLayout.setPadding(false);
+        contentLayout.setSizeFull();
 
-        // 获取所有权限
-        List<Permission> allPermissions = permissionService.listPermissions();
-        
         // 获取角色已分配的权限ID
-        List<Long> rolePermissionIds = roleService.getRolePermissionIds(role.getId());
-
-        // 按类型分组权限
-        Map<String, List<Permission>> permissionsByType = allPermissions.stream()
-                .collect(Collectors.groupingBy(p -> p.getType() != null ? p.getType() : I18NUtil.get("common.other")));
-
-        // 创建权限复选框，按类型分组显示
-        for (Map.Entry<String, List<Permission>> entry : permissionsByType.entrySet()) {
-            String type = entry.getKey();
-            List<Permission> permissions = entry.getValue();
-            
-            // 添加类型标题
-            com.vaadin.flow.component.html.H3 typeHeader = new com.vaadin.flow.component.html.H3(type);
-            contentLayout.add(typeHeader);
-            
-            // 添加该类型下的权限复选框
-            for (Permission permission : permissions) {
-                Checkbox checkbox = new Checkbox(permission.getName() + " (" + permission.getCode() + ")");
-                checkbox.setValue(rolePermissionIds.contains(permission.getId()));
-                checkbox.setEnabled(permission.getIsEnabled() != null && permission.getIsEnabled());
-                permissionCheckboxes.add(checkbox);
-                contentLayout.add(checkbox);
-            }
-        }
+        selectedIds.addAll(roleService.getRolePermissionIds(role.getId()));
+
+        // 服务端筛选：输入停顿后按名称或编码查询
+        filterField = new TextField();
+        filterField.setPlaceholder(I18NUtil.get("role.assign.permission.filter"));
+        filterField.setPrefixComponent(new Icon(VaadinIcon.SEARCH));
+        filterField.setClearButtonVisible(true);
+        filterField.setValueChangeMode(ValueChangeMode.LAZY);
+        filterField.setWidth("300px");
+        filterField.addValueChangeListener(e -> applyFilter(e.getValue()));
+
+        selectedLabel = new Span();
+        updateSelectedLabel();
+
+        HorizontalLayout toolbar = new HorizontalLayout(filterField, selectedLabel);
+        toolbar.setWidthFull();
+        toolbar.setAlignItems(FlexComponent.Alignment.CENTER);
+        toolbar.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
+
+        configureTreeGrid();
+        contentLayout.add(toolbar, treeGrid);
+        contentLayout.setFlexGrow(1, treeGrid);
 
         // 创建按钮
         saveButton = new Button(I18NUtil.get("common.save"));
@@ -92,29 +103,113 @@ public class RolePermissionAssignDialog extends Dialog {
         cancelButton = new Button(I18NUtil.get("common.cancel"));
         cancelButton.addClickListener(e -> close());
 
-        HorizontalLayout buttonLayout = new HorizontalLayout(saveButton, cancelButton);
-        buttonLayout.setJustifyContentMode(com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode.END);
+        getFooter().add(cancelButton, saveButton);
 
-        add(contentLayout, buttonLayout);
+        add(contentLayout);
     }
 
-    private void save() {
+    private void configureTreeGrid() {
+        dataProvider = new PermissionTreeDataProvider(permissionService);
+
+        treeGrid = new TreeGrid<>();
+        treeGrid.setSizeFull();
+        treeGrid.setSelectionMode(TreeGrid.SelectionMode.NONE);
+
+        treeGrid.addComponentColumn(this::createCheckbox).setWidth("60px").setFlexGrow(0);
+        treeGrid.addHierarchyColumn(Permission::getName)
+                .setHeader(I18NUtil.get("role.assign.permission.name")).setFlexGrow(2);
+        treeGrid.addColumn(Permission::getCode)
+                .setHeader(I18NUtil.get("role.assign.permission.code")).setFlexGrow(2);
+        treeGrid.addColumn(p -> p.getType() != null ? p.getType() : I18NUtil.get("common.other"))
+                .setHeader(I18NUtil.get("role.assign.permission.type")).setWidth("90px").setFlexGrow(0);
+        treeGrid.addComponentColumn(this::createSubtreeActions)
+                .setHeader(I18NUtil.get("common.operation")).setWidth("110px").setFlexGrow(0);
+
+        treeGrid.setDataProvider(dataProvider);
+    }
+
+    private Checkbox createCheckbox(Permission permission) {
+        Checkbox checkbox = new Checkbox(selectedIds.contains(permission.getId()));
+        checkbox.setEnabled(Boolean.TRUE.equals(permission.getIsEnabled()));
+        checkbox.setAriaLabel(permission.getName());
+        checkbox.addValueChangeListener(e -> {
+            if (e.getValue()) {
+                selectedIds.add(permission.getId());
+            } else {
+                selectedIds.remove(permission.getId());
+            }
+            updateSelectedLabel();
+        });
+        return checkbox;
+    }
+
+    private HorizontalLayout createSubtreeActions(Permission permission) {
+        HorizontalLayout actions = new HorizontalLayout();
+        actions.setSpacing(false);
+        if (!dataProvider.hasChildren(permission)) {
+            return actions;
+        }
+
+        Button selectButton = new Button(new Icon(VaadinIcon.CHECK_SQUARE_O));
+        selectButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_TERTIARY);
+        selectButton.setTooltipText(I18NUtil.get("role.assign.permission.selectSubtree"));
+        selectButton.setAriaLabel(I18NUtil.get("role.assign.permission.selectSubtree"));
+        selectButton.addClickListener(e -> selectSubtree(permission, true));
+
+        Button clearButton = new Button(new Icon(VaadinIcon.THIN_SQUARE));
+        clearButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_TERTIARY);
+        clearButton.setTooltipText(I18NUtil.get("role.assign.permission.deselectSubtree"));
+        clearButton.setAriaLabel(I18NUtil.get("role.assign.permission.deselectSubtree"));
+        clearButton.addClickListener(e -> selectSubtree(permission, false));
+
+        actions.add(selectButton, clearButton);
+        return actions;
+    }
+
+    /**
+     * 选中或取消整棵子树（包括未加载的下级），禁用的权限保持不变
+     */
+    private void selectSubtree(Permission permission, boolean select) {
+        try {
+            Set<Long> subtree = permissionService.getSubtreePermissionIds(permission.getId());
+            if (select) {
+                selectedIds.addAll(subtree);
+            } else {
+                selectedIds.removeAll(subtree);
+            }
+            updateSelectedLabel();
+            dataProvider.refreshAll();
+        } catch (Exception e) {
+            NotificationUtil.showError(I18NUtil.get("role.assign.permission.load.failed", e.getMessage()));
+        }
+    }
+
+    private void applyFilter(String keyword) {
         try {
-            // 获取选中的权限ID
-            List<Long> selectedPermissionIds = new ArrayList<>();
-            List<Permission> allPermissions = permissionService.listPermissions();
-            
-            for (int i = 0; i < permissionCheckboxes.size() && i < allPermissions.size(); i++) {
-                if (permissionCheckboxes.get(i).getValue()) {
-                    selectedPermissionIds.add(allPermissions.get(i).getId());
+            PermissionTreeFilter filter = permissionService.filterPermissionTree(keyword);
+            dataProvider.setFilter(filter);
+            if (filter != null) {
+                treeGrid.expand(filter.getExpandedParents());
+                if (filter.isTruncated()) {
+                    NotificationUtil.showWarning(I18NUtil.get("role.assign.permission.filter.truncated", filter.getMatchCount()));
                 }
             }
+        } catch (Exception e) {
+            NotificationUtil.showError(I18NUtil.get("role.assign.permission.load.failed", e.getMessage()));
+        }
+    }
 
-            // 保存角色权限关联
-            roleService.assignPermissions(role.getId(), selectedPermissionIds);
+    private void updateSelectedLabel() {
+        selectedLabel.setText(I18NUtil.get("role.assign.permission.selected", selectedIds.size()));
+    }
+
+    private void save() {
+        try {
+            // 保存角色权限关联，只写入与当前分配不同的部分
+            AssignmentChange change = roleService.assignPermissions(role.getId(), new ArrayList<>(selectedIds));
 
             NotificationUtil.showSuccess(I18NUtil.get("role.assign.permission.success"));
-            if (refreshCallback != null) {
+            if (refreshCallback != null && !change.isEmpty()) {
                 refreshCallback.run();
             }
             close();
@@ -123,4 +218,3 @@ public class RolePermissionAssignDialog extends Dialog {
         }
     }
 }
-
@@ -10,6 +10,7 @@ import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.validator.EmailValidator;
 import com.vaadin.flow.data.validator.StringLengthValidator;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 用户表单对话框
@@ -18,6 +19,7 @@ import com.vaadin.flow.data.validator.StringLengthValidator;
  * @author Admin
  * @date 2024-01-01
  */
+@Slf4j
 public class UserFormDialog extends BaseFormDialog<User> {
 
     private final UserService userService;
@@ -203,7 +205,7 @@ public class UserFormDialog extends BaseFormDialog<User> {
         } catch (Exception e) {
             // 其他异常，显示通用错误信息
             showError(I18NUtil.get("error.operation.failed") + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("保存用户失败", e);
         }
     }
 
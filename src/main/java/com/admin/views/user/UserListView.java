@@ -6,8 +6,11 @@ import com.admin.constant.StatusConstant;
 import com.admin.dto.PageRequest;
 import com.admin.dto.UserQueryDTO;
 import com.admin.entity.User;
+import com.admin.event.DomainEvent;
+import com.admin.event.DomainEventBus;
 import com.admin.service.RoleService;
 import com.admin.service.UserService;
+import com.admin.util.BatchOperationUtil;
 import com.admin.util.DataProviderUtil;
 import com.admin.util.I18NUtil;
 import com.admin.util.NotificationUtil;
@@ -15,7 +18,6 @@ import com.admin.util.PageResult;
 import com.admin.util.PaginationUtil;
 import com.admin.views.MainLayout;
 import com.admin.views.base.BaseListView;
-import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -28,6 +30,7 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.HasDynamicTitle;
 import com.vaadin.flow.router.Route;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -40,6 +43,7 @@ import java.util.stream.Collectors;
  * @author Admin
  * @date 2024-01-01
  */
+@Slf4j
 @Route(value = "users", layout = MainLayout.class)
 public class UserListView extends BaseListView<User, UserService> implements HasDynamicTitle {
 
@@ -75,11 +79,11 @@ public class UserListView extends BaseListView<User, UserService> implements Has
     private PageResult<User> currentPageResult;
     
     // DataProvider
-    private DataProvider<User, Void> dataProvider;
+    private DataProviderUtil.PagedDataProvider<User, UserQueryDTO> dataProvider;
 
     private final RoleService roleService;
 
-    public UserListView(UserService userService, RoleService roleService) {
+    public UserListView(UserService userService, RoleService roleService, DomainEventBus domainEventBus) {
         super(userService, User.class, I18NUtil.get("user.title"), I18NUtil.get("user.add"), "user-list-view");
         this.roleService = roleService;
 
@@ -95,6 +99,10 @@ public class UserListView extends BaseListView<User, UserService> implements Has
 
         // 初始化查询
         performSearch();
+
+        // 其他会话修改数据后自动刷新
+        enableLiveUpdates(domainEventBus, DomainEvent.Type.USER_CREATED, DomainEvent.Type.USER_UPDATED,
+                DomainEvent.Type.USER_DELETED);
     }
 
     /**
@@ -209,7 +217,7 @@ public class UserListView extends BaseListView<User, UserService> implements Has
         // 设置 Grid 的 pageSize 与分页请求一致
         grid.setPageSize(currentPageRequest.getPageSize());
         
-        dataProvider = DataProviderUtil.createPageDataProvider(
+        dataProvider = DataProviderUtil.createCountCachingDataProvider(
             () -> currentQuery != null ? currentQuery : new UserQueryDTO(),
             () -> {
                 // 确保返回的分页请求不为 null
@@ -334,6 +342,9 @@ public class UserListView extends BaseListView<User, UserService> implements Has
         resetButton.setTooltipText(I18NUtil.get("common.reset"));
         resetButton.addClickListener(e -> resetSearch());
 
+        // 输入搜索条件后自动搜索
+        registerSearchFields(userNameSearchField, nicknameSearchField, emailSearchField, phoneSearchField, statusFilter);
+
         HorizontalLayout searchBar = new HorizontalLayout(
                 userNameSearchField, nicknameSearchField, emailSearchField, phoneSearchField, statusFilter, searchButton, resetButton
         );
@@ -487,7 +498,7 @@ public class UserListView extends BaseListView<User, UserService> implements Has
                 currentQuery = new UserQueryDTO();
             } else {
                 // 构建查询条件
-                buildQuery();
+                currentQuery = buildQuery();
             }
 
             // 确保查询条件不为null
@@ -495,65 +506,105 @@ public class UserListView extends BaseListView<User, UserService> implements Has
                 currentQuery = new UserQueryDTO();
             }
 
-            // 刷新 DataProvider（懒加载会自动从 Service 获取数据）
-            if (dataProvider != null) {
+            refreshGrid(true);
+        } catch (Exception e) {
+            NotificationUtil.showError(I18NUtil.get("user.query.failed", e.getMessage()));
+            log.error("查询用户失败", e);
+        }
+    }
+
+    /**
+     * 实时更新时保留当前查询条件和页码，只刷新数据和总数
+     */
+    @Override
+    protected void onLiveUpdate() {
+        refreshGrid(true);
+    }
+
+    /**
+     * 刷新 Grid 和分页信息
+     *
+     * @param dataChanged 数据是否可能已变更（为 false 时只是查询条件变化，保留已缓存的总数）
+     */
+    private void refreshGrid(boolean dataChanged) {
+        // 刷新 DataProvider（懒加载会自动从 Service 获取数据）
+        if (dataProvider != null) {
+            if (dataChanged) {
                 dataProvider.refreshAll();
+            } else {
+                dataProvider.refreshQuery();
             }
-            
-            // 获取当前页数据用于更新分页信息
-            currentPageResult = service.pageUsers(currentPageRequest, currentQuery);
-
-            // 更新分页信息（如果组件已初始化）
-            if (pageInfo != null && currentPageResult != null && currentPageResult.getData() != null) {
-                updatePaginationInfo();
-            } else if (pageInfo != null) {
-                pageInfo.setText(I18NUtil.get("common.noData"));
-                updatePaginationButtons(false, false);
-            }
+        }
+        
+        // 分页信息复用 DataProvider 缓存的总数，不再单独查询
+        currentPageResult = dataProvider != null ? dataProvider.summarize(currentPageRequest) : null;
+
+        // 更新分页信息（如果组件已初始化）
+        if (pageInfo != null && currentPageResult != null && currentPageResult.getData() != null) {
+            updatePaginationInfo();
+        } else if (pageInfo != null) {
+            pageInfo.setText(I18NUtil.get("common.noData"));
+            updatePaginationButtons(false, false);
+        }
 
-            // 监听选中项变化，显示/隐藏批量操作栏（如果组件已初始化）
-            if (batchDeleteButton != null) {
-                updateBatchOperationBar();
-            }
+        // 监听选中项变化，显示/隐藏批量操作栏（如果组件已初始化）
+        if (batchDeleteButton != null) {
+            updateBatchOperationBar();
+        }
+    }
 
-        } catch (Exception e) {
-            NotificationUtil.showError(I18NUtil.get("user.query.failed", e.getMessage()));
-            e.printStackTrace();
+    /**
+     * 搜索条件变化后防抖，在后台统计总数并加载第一页，完成后在 UI 线程刷新 Grid
+     */
+    @Override
+    protected void onSearchFieldChanged() {
+        if (dataProvider == null) {
+            return;
         }
+        UserQueryDTO query = buildQuery();
+        PageRequest pageRequest = new PageRequest();
+        pageRequest.setPageSize(currentPageRequest.getPageSize());
+        pageRequest.setSortField(currentPageRequest.getSortField());
+        pageRequest.setSortOrder(currentPageRequest.getSortOrder());
+        submitSearch(() -> dataProvider.preload(query, pageRequest), total -> {
+            currentQuery = query;
+            currentPageRequest.setPageNum(1);
+            refreshGrid(false);
+        });
     }
 
     /**
      * 构建查询条件
      */
-    private void buildQuery() {
-        currentQuery = new UserQueryDTO();
+    private UserQueryDTO buildQuery() {
+        UserQueryDTO query = new UserQueryDTO();
 
         // 检查字段是否已初始化（防止在父类构造函数调用时出现空指针）
         if (userNameSearchField != null) {
             String userName = userNameSearchField.getValue();
             if (userName != null && !userName.trim().isEmpty()) {
-                currentQuery.setUserName(userName.trim());
+                query.setUserName(userName.trim());
             }
         }
 
         if (nicknameSearchField != null) {
             String nickname = nicknameSearchField.getValue();
             if (nickname != null && !nickname.trim().isEmpty()) {
-                currentQuery.setNickname(nickname.trim());
+                query.setNickname(nickname.trim());
             }
         }
 
         if (emailSearchField != null) {
             String email = emailSearchField.getValue();
             if (email != null && !email.trim().isEmpty()) {
-                currentQuery.setEmail(email.trim());
+                query.setEmail(email.trim());
             }
         }
 
         if (phoneSearchField != null) {
             String phone = phoneSearchField.getValue();
             if (phone != null && !phone.trim().isEmpty()) {
-                currentQuery.setPhone(phone.trim());
+                query.setPhone(phone.trim());
             }
         }
 
@@ -563,12 +614,13 @@ public class UserListView extends BaseListView<User, UserService> implements Has
             // I18N 只用于展示，不用于逻辑判断
             if (status != null && !StatusConstant.ALL.equals(status)) {
                 if (StatusConstant.ENABLED.equals(status)) {
-                    currentQuery.setIsEnabled(true);
+                    query.setIsEnabled(true);
                 } else if (StatusConstant.DISABLED.equals(status)) {
-                    currentQuery.setIsEnabled(false);
+                    query.setIsEnabled(false);
                 }
             }
         }
+        return query;
     }
 
     /**
@@ -630,16 +682,19 @@ public class UserListView extends BaseListView<User, UserService> implements Has
             I18NUtil.get("user.title"),
             ids.size(),
             names,
-            () -> {
-                try {
-                    service.batchDeleteUsers(ids);
+            () -> BatchOperationUtil.run(
+                progress -> service.batchDeleteUsers(ids, progress),
+                result -> {
                     NotificationUtil.showSuccess(I18NUtil.get("user.batch.delete.success", ids.size()));
                     grid.deselectAll();
                     performSearch();
-                } catch (Exception ex) {
+                },
+                ex -> {
                     NotificationUtil.showError(I18NUtil.get("user.batch.delete.failed", ex.getMessage()));
+                    // 已提交的块不会回滚，刷新列表
+                    performSearch();
                 }
-            }
+            )
         ).open();
     }
 
@@ -658,26 +713,30 @@ public class UserListView extends BaseListView<User, UserService> implements Has
         String actionKey = isEnabled ? "user.batch.enable" : "user.batch.disable";
 
         (isEnabled ? 
-            ConfirmDialogUtil.createBatchEnableDialog(entityName, ids.size(), () -> {
-                try {
-                    service.batchUpdateUserStatus(ids, true);
+            ConfirmDialogUtil.createBatchEnableDialog(entityName, ids.size(), () -> BatchOperationUtil.run(
+                progress -> service.batchUpdateUserStatus(ids, true, progress),
+                result -> {
                     NotificationUtil.showSuccess(I18NUtil.get(actionKey + ".success", ids.size()));
                     grid.deselectAll();
                     performSearch();
-                } catch (Exception ex) {
+                },
+                ex -> {
                     NotificationUtil.showError(I18NUtil.get(actionKey + ".failed", ex.getMessage()));
+                    performSearch();
                 }
-            }) :
-            ConfirmDialogUtil.createBatchDisableDialog(entityName, ids.size(), () -> {
-                try {
-                    service.batchUpdateUserStatus(ids, false);
+            )) :
+            ConfirmDialogUtil.createBatchDisableDialog(entityName, ids.size(), () -> BatchOperationUtil.run(
+                progress -> service.batchUpdateUserStatus(ids, false, progress),
+                result -> {
                     NotificationUtil.showSuccess(I18NUtil.get(actionKey + ".success", ids.size()));
                     grid.deselectAll();
                     performSearch();
-                } catch (Exception ex) {
+                },
+                ex -> {
                     NotificationUtil.showError(I18NUtil.get(actionKey + ".failed", ex.getMessage()));
+                    performSearch();
                 }
-            })
+            ))
         ).open();
     }
 
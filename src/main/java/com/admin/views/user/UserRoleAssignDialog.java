@@ -1,23 +1,36 @@
 package com.admin.views.user;
 
+import com.admin.dto.AssignmentChange;
+import com.admin.dto.RoleQueryDTO;
 import com.admin.entity.Role;
 import com.admin.entity.User;
 import com.admin.service.RoleService;
 import com.admin.service.UserService;
+import com.admin.util.DataProviderUtil;
 import com.admin.util.I18NUtil;
 import com.admin.util.NotificationUtil;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * 用户角色分配对话框
+ * 角色列表按页懒加载（顺序滚动使用 keyset 游标），支持按名称或编码搜索；
+ * 选中状态以角色ID集合保存，与已加载的行无关
  *
  * @author Admin
  * @date 2024-01-01
@@ -29,8 +42,16 @@ public class UserRoleAssignDialog extends Dialog {
     private final User user;
     private final Runnable refreshCallback;
 
-    private VerticalLayout contentLayout;
-    private List<Checkbox> roleCheckboxes = new ArrayList<>();
+    /**
+     * 选中的角色ID
+     */
+    private final Set<Long> selectedIds = new HashSet<>();
+
+    private RoleQueryDTO currentQuery = new RoleQueryDTO();
+    private DataProviderUtil.PagedDataProvider<Role, RoleQueryDTO> dataProvider;
+    private Grid<Role> grid;
+    private TextField searchField;
+    private Span selectedLabel;
     private Button saveButton;
     private Button cancelButton;
 
@@ -41,32 +62,41 @@ public class UserRoleAssignDialog extends Dialog {
         this.refreshCallback = refreshCallback;
 
         setHeaderTitle(I18NUtil.get("user.assign.role.title", user.getUserName()));
-        setWidth("500px");
+        setWidth("600px");
         setHeight("600px");
 
         buildContent();
     }
 
     private void buildContent() {
-        contentLayout = new VerticalLayout();
+        VerticalLayout contentLayout = new VerticalLayout();
         contentLayout.setSpacing(true);
-        contentLayout.setPadding(true);
-        contentLayout.setWidthFull();
+        contentLayout.setPadding(false);
+        contentLayout.setSizeFull();
 
-        // 获取所有角色
-        List<Role> allRoles = roleService.listRoles();
-        
         // 获取用户已分配的角色ID
-        List<Long> userRoleIds = userService.getUserRoleIds(user.getId());
-
-        // 创建角色复选框
-        for (Role role : allRoles) {
-            Checkbox checkbox = new Checkbox(role.getName() + " (" + role.getCode() + ")");
-            checkbox.setValue(userRoleIds.contains(role.getId()));
-            checkbox.setEnabled(role.getIsEnabled() != null && role.getIsEnabled());
-            roleCheckboxes.add(checkbox);
-            contentLayout.add(checkbox);
-        }
+        selectedIds.addAll(userService.getUserRoleIds(user.getId()));
+
+        // 服务端搜索：输入停顿后按名称或编码查询
+        searchField = new TextField();
+        searchField.setPlaceholder(I18NUtil.get("user.assign.role.filter"));
+        searchField.setPrefixComponent(new Icon(VaadinIcon.SEARCH));
+        searchField.setClearButtonVisible(true);
+        searchField.setValueChangeMode(ValueChangeMode.LAZY);
+        searchField.setWidth("260px");
+        searchField.addValueChangeListener(e -> search(e.getValue()));
+
+        selectedLabel = new Span();
+        updateSelectedLabel();
+
+        HorizontalLayout toolbar = new HorizontalLayout(searchField, selectedLabel);
+        toolbar.setWidthFull();
+        toolbar.setAlignItems(FlexComponent.Alignment.CENTER);
+        toolbar.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
+
+        configureGrid();
+        contentLayout.add(toolbar, grid);
+        contentLayout.setFlexGrow(1, grid);
 
         // 创建按钮
         saveButton = new Button(I18NUtil.get("common.save"));
@@ -76,29 +106,65 @@ public class UserRoleAssignDialog extends Dialog {
         cancelButton = new Button(I18NUtil.get("common.cancel"));
         cancelButton.addClickListener(e -> close());
 
-        HorizontalLayout buttonLayout = new HorizontalLayout(saveButton, cancelButton);
-        buttonLayout.setJustifyContentMode(com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode.END);
+        getFooter().add(cancelButton, saveButton);
 
-        add(contentLayout, buttonLayout);
+        add(contentLayout);
     }
 
-    private void save() {
-        try {
-            // 获取选中的角色ID
-            List<Long> selectedRoleIds = new ArrayList<>();
-            List<Role> allRoles = roleService.listRoles();
-            
-            for (int i = 0; i < roleCheckboxes.size() && i < allRoles.size(); i++) {
-                if (roleCheckboxes.get(i).getValue()) {
-                    selectedRoleIds.add(allRoles.get(i).getId());
-                }
+    private void configureGrid() {
+        grid = new Grid<>(Role.class, false);
+        grid.setSizeFull();
+        grid.setSelectionMode(Grid.SelectionMode.NONE);
+
+        grid.addComponentColumn(this::createCheckbox).setWidth("60px").setFlexGrow(0);
+        grid.addColumn(Role::getName).setHeader(I18NUtil.get("role.name")).setFlexGrow(1);
+        grid.addColumn(Role::getCode).setHeader(I18NUtil.get("role.code")).setFlexGrow(1);
+
+        dataProvider = DataProviderUtil.createCountCachingDataProvider(
+                () -> currentQuery,
+                () -> null,
+                roleService::pageRoles
+        );
+        grid.setDataProvider(dataProvider);
+    }
+
+    private Checkbox createCheckbox(Role role) {
+        Checkbox checkbox = new Checkbox(selectedIds.contains(role.getId()));
+        checkbox.setEnabled(Boolean.TRUE.equals(role.getIsEnabled()));
+        checkbox.setAriaLabel(role.getName());
+        checkbox.addValueChangeListener(e -> {
+            if (e.getValue()) {
+                selectedIds.add(role.getId());
+            } else {
+                selectedIds.remove(role.getId());
             }
+            updateSelectedLabel();
+        });
+        return checkbox;
+    }
 
-            // 保存用户角色关联
-            userService.assignRoles(user.getId(), selectedRoleIds);
+    private void search(String keyword) {
+        RoleQueryDTO query = new RoleQueryDTO();
+        query.setKeyword(keyword != null && !keyword.isBlank() ? keyword.trim() : null);
+        currentQuery = query;
+        try {
+            dataProvider.refreshQuery();
+        } catch (Exception e) {
+            NotificationUtil.showError(I18NUtil.get("user.assign.role.load.failed", e.getMessage()));
+        }
+    }
+
+    private void updateSelectedLabel() {
+        selectedLabel.setText(I18NUtil.get("user.assign.role.selected", selectedIds.size()));
+    }
+
+    private void save() {
+        try {
+            // 保存用户角色关联，只写入与当前分配不同的部分
+            AssignmentChange change = userService.assignRoles(user.getId(), new ArrayList<>(selectedIds));
 
             NotificationUtil.showSuccess(I18NUtil.get("user.assign.role.success"));
-            if (refreshCallback != null) {
+            if (refreshCallback != null && !change.isEmpty()) {
                 refreshCallback.run();
             }
             close();
@@ -107,4 +173,3 @@ public class UserRoleAssignDialog extends Dialog {
         }
     }
 }
-
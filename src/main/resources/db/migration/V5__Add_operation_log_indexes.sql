@@ -0,0 +1,17 @@
+-- 操作日志查询索引
+-- 支持按用户名、操作类型、状态筛选并按 (createdAt, id) 倒序进行 keyset 分页
+
+-- 时间范围查询 + keyset 分页
+ALTER TABLE sys_operation_log ADD INDEX idx_created_at_id (createdAt, id);
+
+-- 用户名前缀筛选
+ALTER TABLE sys_operation_log ADD INDEX idx_username_created_at (username, createdAt, id);
+
+-- 操作类型前缀筛选
+ALTER TABLE sys_operation_log ADD INDEX idx_operation_created_at (operation, createdAt, id);
+
+-- 状态筛选
+ALTER TABLE sys_operation_log ADD INDEX idx_status_created_at (status, createdAt, id);
+
+-- 被 idx_created_at_id 覆盖的旧索引
+ALTER TABLE sys_operation_log DROP INDEX idx_created_at;
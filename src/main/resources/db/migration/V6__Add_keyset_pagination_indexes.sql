@@ -0,0 +1,11 @@
+-- keyset 分页索引
+-- 列表查询按 (createdAt, id) 倒序（菜单按 (sort, createdAt, id) 正序）定位下一页，避免大偏移量的 LIMIT offset
+
+-- 用户列表
+ALTER TABLE sys_user ADD INDEX idx_deleted_created_at_id (deleted, createdAt, id);
+
+-- 角色列表
+ALTER TABLE sys_role ADD INDEX idx_deleted_created_at_id (deleted, createdAt, id);
+
+-- 菜单列表
+ALTER TABLE sys_menu ADD INDEX idx_deleted_sort_created_at_id (deleted, sort, createdAt, id);
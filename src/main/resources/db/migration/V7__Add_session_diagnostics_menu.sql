@@ -0,0 +1,14 @@
+-- 会话诊断菜单和权限（仅超级管理员）
+
+INSERT IGNORE INTO sys_menu (name, path, component, icon, parentId, sort, isEnabled, deleted)
+VALUES ('会话诊断', 'session-diagnostics', NULL, 'vaadin:CHART', NULL, 6, 1, 0);
+
+INSERT INTO sys_permission (name, code, type, path, component, icon, sort, isEnabled, deleted)
+VALUES ('会话诊断', 'SESSION_DIAGNOSTICS', 'menu', 'session-diagnostics', NULL, 'vaadin:CHART', 6, 1, 0)
+ON DUPLICATE KEY UPDATE code = code;
+
+INSERT INTO sys_role_permission (roleId, permissionId)
+SELECT r.id, p.id
+FROM sys_role r, sys_permission p
+WHERE r.code = 'SUPER_ADMIN' AND p.code = 'SESSION_DIAGNOSTICS'
+ON DUPLICATE KEY UPDATE roleId = roleId;
@@ -0,0 +1,4 @@
+-- 权限树索引
+-- 角色权限分配对话框按父权限懒加载子节点，按 (parentId, sort, id) 排序分页
+
+ALTER TABLE sys_permission ADD INDEX idx_deleted_parent_id_sort_id (deleted, parentId, sort, id);
@@ -0,0 +1,6 @@
+-- 菜单排序值不允许为 NULL
+-- keyset 分页按 (sort, createdAt, id) 定位，NULL 不满足 sort > ? / sort = ? 且排在最前，会被跳过或乱序
+
+UPDATE sys_menu SET sort = 0 WHERE sort IS NULL;
+
+ALTER TABLE sys_menu MODIFY sort INT NOT NULL DEFAULT 0 COMMENT '排序';